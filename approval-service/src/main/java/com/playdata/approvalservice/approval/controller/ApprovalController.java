@@ -10,23 +10,34 @@ import com.playdata.approvalservice.approval.entity.ReportStatus;
 import com.playdata.approvalservice.approval.entity.Reports;
 import com.playdata.approvalservice.approval.feign.EmployeeFeignClient;
 import com.playdata.approvalservice.approval.repository.ReportsRepository;
+import com.playdata.approvalservice.approval.service.ApprovalEventStreamService;
 import com.playdata.approvalservice.approval.service.ApprovalService;
+import com.playdata.approvalservice.approval.service.EmployeeIdentityService;
+import com.playdata.approvalservice.approval.service.ReportExportService;
 import com.playdata.approvalservice.common.auth.TokenUserInfo;
 import com.playdata.approvalservice.common.dto.CommonResDto;
 import com.playdata.approvalservice.common.dto.EmployeeResDto;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.time.ZonedDateTime;
 import java.util.List;
 
@@ -42,6 +53,9 @@ public class ApprovalController {
     private final ApprovalService approvalService;
     private final EmployeeFeignClient employeeFeignClient;
     private final ReportsRepository reportsRepository;
+    private final EmployeeIdentityService employeeIdentityService;
+    private final ReportExportService reportExportService;
+    private final ApprovalEventStreamService approvalEventStreamService;
 
 
     /**
@@ -51,13 +65,8 @@ public class ApprovalController {
      * @return
      */
     private Long getCurrentUserId(TokenUserInfo userInfo) {
-        String email = userInfo.getEmail();
-        ResponseEntity<EmployeeResDto> response = employeeFeignClient.getEmployeeByEmail(email);
-        EmployeeResDto employee = response.getBody();
-        if (employee == null) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "직원을 찾을 수 없습니다: " + email);
-        }
-        return employee.getEmployeeId();
+        // 게이트웨이 헤더(X-User-Id) 우선, 없으면 이메일 캐시 → hr-service 순으로 조회
+        return employeeIdentityService.resolveEmployeeId(userInfo);
     }
 
     /**
@@ -125,8 +134,8 @@ public class ApprovalController {
     ) {
         Long writerId = getCurrentUserId(userInfo);
 
-        // 4. 서비스 호출 시 newFiles도 전달하도록 수정 (ApprovalService도 함께 수정 필요)
-        ReportDetailResDto res = approvalService.updateReport(reportId, req, writerId);
+        // 4. 새 첨부파일은 서비스에서 트랜잭션 밖에서 업로드한 뒤 기존 첨부 목록에 추가됩니다.
+        ReportDetailResDto res = approvalService.updateReport(reportId, req, writerId, newFiles);
 
         return ResponseEntity.ok(new CommonResDto(HttpStatus.OK, "보고서 수정 완료", res));
     }
@@ -162,6 +171,7 @@ public class ApprovalController {
 
     /**
      * 보고서 목록 조회
+     * sortBy: id | createdAt | relevance (keyword 검색 시 관련도 순)
      */
     @GetMapping("/reports")
     public ResponseEntity<CommonResDto> getReports(
@@ -186,6 +196,78 @@ public class ApprovalController {
         return ResponseEntity.ok(new CommonResDto(HttpStatus.OK, "보고서 목록 조회", res));
     }
 
+    /**
+     * 보고서 목록 조회 (커서 기반, 무한 스크롤용)
+     * 첫 요청은 cursor 없이 호출하고, 이후에는 응답의 nextCursor 를 그대로 전달합니다.
+     */
+    @GetMapping("/reports/list/cursor")
+    public ResponseEntity<CommonResDto> getReportsByCursor(
+            @RequestParam String role,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "DESC") String sortOrder,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @AuthenticationPrincipal TokenUserInfo userInfo
+    ) {
+        Long writerId = getCurrentUserId(userInfo);
+
+        ReportStatus statusEnum = (status != null && !status.isEmpty())
+                ? ReportStatus.valueOf(status.toUpperCase())
+                : null;
+        ReportCursorResDto res = approvalService.getReportsByCursor(
+                role, statusEnum, keyword, cursor, size, writerId, sortOrder, includeTotal);
+        return ResponseEntity.ok(new CommonResDto(HttpStatus.OK, "보고서 목록 조회", res));
+    }
+
+    /**
+     * 보고서 목록 CSV 내보내기 (감사용, HR_MANAGER/ADMIN 만 가능)
+     * 목록 조회와 같은 조건 + 작성일 범위(from~to, yyyy-MM-dd)로 전체 결과를 스트리밍합니다.
+     * 타임아웃은 approval.export.request-timeout-ms (AsyncRequestConfig) 를 따릅니다.
+     */
+    @GetMapping("/reports/export")
+    @PreAuthorize("hasAnyRole('HR_MANAGER','ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportReports(
+            @RequestParam String role,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @AuthenticationPrincipal TokenUserInfo userInfo
+    ) {
+        Long userId = getCurrentUserId(userInfo);
+        // 응답을 쓰기 시작한 뒤에는 400 을 보낼 수 없으므로 스트리밍 전에 확인합니다.
+        reportExportService.validateRole(role);
+
+        ReportStatus statusEnum = (status != null && !status.isEmpty())
+                ? ReportStatus.valueOf(status.toUpperCase())
+                : null;
+        StreamingResponseBody body = out -> reportExportService.exportCsv(role, statusEnum, keyword, from, to, userId, out);
+
+        String fileName = "reports-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss")) + ".csv";
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+
+    /**
+     * 결재함 변경 이벤트 스트림 (SSE)
+     * 결재 요청/승인/반려/회수가 생기면 이벤트가 전달되므로, 카운트·목록은 이벤트를 받았을 때만 다시 조회하면 됩니다.
+     * 재연결 시 브라우저가 보내는 Last-Event-ID (또는 lastEventId 파라미터) 이후의 알림을 다시 보내 줍니다.
+     */
+    @GetMapping(value = "/reports/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader,
+            @RequestParam(value = "lastEventId", required = false) Long lastEventIdParam,
+            @AuthenticationPrincipal TokenUserInfo userInfo
+    ) {
+        Long userId = getCurrentUserId(userInfo);
+        Long lastEventId = lastEventIdHeader != null ? lastEventIdHeader : lastEventIdParam;
+        return approvalEventStreamService.connect(userId, lastEventId);
+    }
+
     /**
      * 내가 작성한 예약 문서 목록을 조회합니다.
      */
@@ -232,6 +314,20 @@ public class ApprovalController {
         return ResponseEntity.ok(new CommonResDto(HttpStatus.OK, "결재 처리", res));
     }
 
+    /**
+     * 일괄 결재 처리 (여러 문서를 한 번에 승인/반려, 문서별 결과 반환)
+     */
+    @PostMapping("/reports/approvals/bulk")
+    public ResponseEntity<CommonResDto> processBulkApproval(
+            @RequestBody @Valid BulkApprovalReqDto req,
+            @AuthenticationPrincipal TokenUserInfo userInfo
+    ) {
+        Long approverId = getCurrentUserId(userInfo);
+
+        BulkApprovalResDto res = approvalService.processBulkApproval(approverId, req);
+        return ResponseEntity.ok(new CommonResDto(HttpStatus.OK, "일괄 결재 처리", res));
+    }
+
     /**
      * 보고서의 전체 결재 이력 조회
      *
@@ -250,6 +346,20 @@ public class ApprovalController {
         return ResponseEntity.ok(new CommonResDto(HttpStatus.OK, "결재 이력 조회", res));
     }
 
+    /**
+     * 보고서의 재상신 계보 조회 (최초 보고서부터 재상신 순서대로)
+     */
+    @GetMapping("/reports/{reportId}/lineage")
+    public ResponseEntity<CommonResDto> getResubmitLineage(
+            @PathVariable Long reportId,
+            @AuthenticationPrincipal TokenUserInfo userInfo
+    ) {
+        Long userId = getCurrentUserId(userInfo);
+
+        ReportLineageResDto res = approvalService.getResubmitLineage(reportId, userId);
+        return ResponseEntity.ok(new CommonResDto(HttpStatus.OK, "재상신 계보 조회", res));
+    }
+
     /**
      * 보고서 회수 처리
      */
@@ -315,7 +425,8 @@ public class ApprovalController {
             @RequestPart(value = "files", required = false) List<MultipartFile> files,
             @AuthenticationPrincipal TokenUserInfo userInfo
     ) throws JsonProcessingException {
-        ReportCreateResDto resDto = approvalService.reportFromTemplate(req, userInfo.getEmail(), files);
+        Long writerId = getCurrentUserId(userInfo);
+        ReportCreateResDto resDto = approvalService.reportFromTemplate(req, writerId, files);
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(new CommonResDto(HttpStatus.CREATED, null, resDto));
     }
@@ -1,7 +1,12 @@
 package com.playdata.approvalservice.approval.controller;
 
+import com.playdata.approvalservice.approval.dto.request.UploadSessionReqDto;
+import com.playdata.approvalservice.approval.dto.response.UploadSessionResDto;
 import com.playdata.approvalservice.approval.service.AttachmentService;
+import com.playdata.approvalservice.approval.service.UploadSessionService;
 import com.playdata.approvalservice.common.auth.TokenUserInfo;
+import com.playdata.approvalservice.common.dto.CommonResDto;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.Resource;
@@ -18,6 +23,21 @@ import java.net.URI;
 public class AttachmentController {
 
     private final AttachmentService attachmentService;
+    private final UploadSessionService uploadSessionService;
+
+    /**
+     * 첨부파일 직접 업로드 세션 생성
+     * 파일별 PUT용 Pre-signed URL을 발급합니다. 클라이언트는 S3에 직접 업로드한 뒤
+     * 보고서 저장 요청에 uploadSessionId 와 attachmentKeys(objectKey 목록)만 전달합니다.
+     */
+    @PostMapping("/upload-sessions")
+    public ResponseEntity<CommonResDto> createUploadSession(
+            @RequestBody @Valid UploadSessionReqDto req,
+            @AuthenticationPrincipal TokenUserInfo userInfo) {
+        UploadSessionResDto res = uploadSessionService.createSession(req, userInfo);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(new CommonResDto(HttpStatus.CREATED, "업로드 세션 생성 완료", res));
+    }
 
     @GetMapping("/preview")
     public ResponseEntity<Void> previewAttachment(
@@ -25,7 +45,7 @@ public class AttachmentController {
             @RequestParam("fileUrl") String fileUrl,
             @AuthenticationPrincipal TokenUserInfo userInfo) {
 
-        String presignedUrl = attachmentService.getPresignedUrlForAction(reportId, fileUrl, userInfo.getEmail(), "inline");
+        String presignedUrl = attachmentService.getPresignedUrlForAction(reportId, fileUrl, userInfo, "inline");
 
         // 브라우저에게 'presignedUrl'로 이동하라는 302 리다이렉트 응답을 보냅니다.
         return ResponseEntity.status(HttpStatus.FOUND)
@@ -39,7 +59,7 @@ public class AttachmentController {
             @RequestParam("fileUrl") String fileUrl,
             @AuthenticationPrincipal TokenUserInfo userInfo) {
 
-        String presignedUrl = attachmentService.getPresignedUrlForAction(reportId, fileUrl, userInfo.getEmail(), "attachment");
+        String presignedUrl = attachmentService.getPresignedUrlForAction(reportId, fileUrl, userInfo, "attachment");
 
         // 브라우저에게 'presignedUrl'로 이동하라는 302 리다이렉트 응답을 보냅니다.
         return ResponseEntity.status(HttpStatus.FOUND)
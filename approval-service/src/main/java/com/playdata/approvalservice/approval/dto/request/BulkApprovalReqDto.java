@@ -0,0 +1,41 @@
+package com.playdata.approvalservice.approval.dto.request;
+
+import com.playdata.approvalservice.approval.entity.ApprovalStatus;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * 일괄 결재 요청 (문서별 승인/반려 + 코멘트)
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkApprovalReqDto {
+
+    @Valid
+    @NotEmpty(message = "결재할 문서를 하나 이상 선택해야 합니다.")
+    private List<ItemReqDto> items;
+
+    @Getter
+    @Setter
+    @ToString
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ItemReqDto {
+        @NotNull(message = "보고서 ID는 필수입니다.")
+        private Long reportId;
+
+        @NotNull(message = "결재 상태는 필수입니다.")
+        private ApprovalStatus approvalStatus; // APPROVED or REJECTED
+
+        private String comment;
+    }
+}
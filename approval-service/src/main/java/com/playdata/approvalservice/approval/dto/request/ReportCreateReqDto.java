@@ -32,4 +32,8 @@ public class ReportCreateReqDto {
     private String reportTemplateData;
 
     private ZonedDateTime scheduledAt;
+
+    // 직접 업로드(Pre-signed PUT) 세션 ID와 업로드 완료된 객체 키 목록 (옵션)
+    private String uploadSessionId;
+    private List<String> attachmentKeys;
 }
\ No newline at end of file
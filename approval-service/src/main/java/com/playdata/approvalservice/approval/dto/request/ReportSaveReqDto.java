@@ -29,4 +29,8 @@ public class ReportSaveReqDto {
 
     private String reportTemplateData;
 
+    // 직접 업로드(Pre-signed PUT) 세션 ID와 업로드 완료된 객체 키 목록 (옵션)
+    private String uploadSessionId;
+    private List<String> attachmentKeys;
+
 }
\ No newline at end of file
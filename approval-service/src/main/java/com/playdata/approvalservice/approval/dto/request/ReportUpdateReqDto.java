@@ -27,4 +27,8 @@ public class ReportUpdateReqDto {
 
     private Long templateId;
     private String reportTemplateData; // JSON 형식의 문자열
+
+    // 직접 업로드(Pre-signed PUT) 세션 ID와 업로드 완료된 객체 키 목록 (옵션)
+    private String uploadSessionId;
+    private List<String> attachmentKeys;
 }
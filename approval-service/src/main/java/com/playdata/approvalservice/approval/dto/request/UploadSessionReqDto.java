@@ -0,0 +1,44 @@
+package com.playdata.approvalservice.approval.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * 첨부파일 직접 업로드 세션 생성 요청
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadSessionReqDto {
+
+    @NotEmpty
+    @Valid
+    private List<FileReqDto> files;
+
+    @Getter
+    @Setter
+    @ToString
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class FileReqDto {
+        @NotBlank
+        private String fileName;
+
+        private String contentType;
+
+        // 업로드할 파일 크기 (byte). PUT URL 에 서명되므로 다른 크기로는 업로드할 수 없습니다.
+        @NotNull
+        @Positive
+        private Long size;
+    }
+}
@@ -23,4 +23,8 @@ public class ReportFromTemplateReqDto {
 
     // 사용자가 지정한 참조자 정보 (옵션)
     private List<ReferenceJsonReqDto> references;
+
+    // 직접 업로드(Pre-signed PUT) 세션 ID와 업로드 완료된 객체 키 목록 (옵션)
+    private String uploadSessionId;
+    private List<String> attachmentKeys;
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package com.playdata.approvalservice.approval.dto.response;
+
+import com.playdata.approvalservice.approval.entity.ApprovalEventType;
+import com.playdata.approvalservice.approval.entity.ApprovalOutboxEvent;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 직원 한 명에게 보내는 결재 알림 (같은 발송 주기의 이벤트를 묶어서 전달)
+ * Redis 채널 approval:notifications:{recipientId} 로 발행됩니다.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ApprovalNotificationResDto {
+    private Long recipientId;
+    private List<EventDto> events;
+
+    @Getter
+    @Setter
+    @ToString
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class EventDto {
+        private Long eventId;
+        private ApprovalEventType eventType;
+        private Long reportId;
+        private String reportTitle;
+        private LocalDateTime occurredAt;
+
+        public static EventDto from(ApprovalOutboxEvent event) {
+            return EventDto.builder()
+                    .eventId(event.getId())
+                    .eventType(event.getEventType())
+                    .reportId(event.getReportId())
+                    .reportTitle(event.getReportTitle())
+                    .occurredAt(event.getCreatedAt())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.playdata.approvalservice.approval.dto.response;
+
+import com.playdata.approvalservice.approval.entity.ApprovalStatus;
+import com.playdata.approvalservice.approval.entity.ReportStatus;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * 일괄 결재 결과 (문서별 성공/실패)
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkApprovalResDto {
+    private int requested;
+    private int succeeded;
+    private int failed;
+    private List<ItemResDto> results;
+
+    @Getter
+    @Setter
+    @ToString
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ItemResDto {
+        private Long reportId;
+        private boolean success;
+        private ApprovalStatus approvalStatus;
+        private ReportStatus reportStatus;
+        private String nextApprover;
+        // 실패 시 사유
+        private String errorMessage;
+    }
+}
@@ -0,0 +1,26 @@
+package com.playdata.approvalservice.approval.dto.response;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * 커서 기반 보고서 목록 응답
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReportCursorResDto {
+    private List<ReportListResDto.ReportSimpleDto> reports;
+
+    // 다음 페이지 요청 시 그대로 전달할 토큰 (마지막 페이지면 null)
+    private String nextCursor;
+    private boolean hasNext;
+    private int size;
+
+    // includeTotal=true 로 요청한 경우에만 채워집니다.
+    private Long totalElements;
+}
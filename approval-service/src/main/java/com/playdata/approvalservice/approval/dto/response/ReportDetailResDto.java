@@ -38,6 +38,8 @@ public class ReportDetailResDto {
     public static class AttachmentResDto {
         private String fileName;
         private String url;
+        // 이미지 썸네일/PDF 첫 페이지 미리보기 URL (아직 생성되지 않았거나 대상이 아니면 null)
+        private String previewUrl;
     }
 
     @Getter
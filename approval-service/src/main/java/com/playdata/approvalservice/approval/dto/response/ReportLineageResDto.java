@@ -0,0 +1,38 @@
+package com.playdata.approvalservice.approval.dto.response;
+
+import com.playdata.approvalservice.approval.entity.ReportStatus;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 재상신 계보 (최초 보고서부터 재상신 순서대로)
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReportLineageResDto {
+    private Long rootReportId;
+    private List<LineageReportDto> reports;
+
+    @Getter
+    @Setter
+    @ToString
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class LineageReportDto {
+        private Long reportId;
+        private Long previousReportId;
+        private int resubmitDepth;
+        private String title;
+        private ReportStatus reportStatus;
+        private LocalDateTime reportCreatedAt;
+        private LocalDateTime submittedAt;
+        private LocalDateTime returnAt;
+    }
+}
@@ -0,0 +1,35 @@
+package com.playdata.approvalservice.approval.dto.response;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 첨부파일 직접 업로드 세션 응답
+ * 클라이언트는 각 uploadUrl 로 파일을 PUT 한 뒤, 보고서 저장 요청에 sessionId 와 objectKey 목록만 담아 보냅니다.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadSessionResDto {
+    private String sessionId;
+    private LocalDateTime expiresAt;
+    private List<UploadResDto> uploads;
+
+    @Getter
+    @Setter
+    @ToString
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class UploadResDto {
+        private String fileName;
+        private String objectKey;
+        // PUT 요청 시 Content-Type 헤더는 요청한 contentType 과 같아야 합니다.
+        private String uploadUrl;
+    }
+}
@@ -0,0 +1,12 @@
+package com.playdata.approvalservice.approval.entity;
+
+public enum ApprovalEventType {
+    APPROVAL_REQUESTED, APPROVED, REJECTED, RECALLED
+
+    /*
+        APPROVAL_REQUESTED: 결재 차례가 됨 (상신/예약 발행/이전 결재자 승인) → 현재 결재자
+        APPROVED: 최종 승인 → 기안자
+        REJECTED: 반려 → 기안자
+        RECALLED: 회수 → 결재 차례였던 결재자
+    * */
+}
@@ -1,5 +1,6 @@
 package com.playdata.approvalservice.approval.entity;
 
+import com.playdata.approvalservice.common.entity.IdSequences;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -17,10 +18,18 @@ public class ApprovalLine {
 
     /** PK: 결재 라인 코드 */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "approval_line_id_gen")
+    @TableGenerator(name = "approval_line_id_gen", table = IdSequences.TABLE,
+            pkColumnName = IdSequences.PK_COLUMN, valueColumnName = IdSequences.VALUE_COLUMN,
+            pkColumnValue = IdSequences.APPROVAL_LINE, allocationSize = IdSequences.ALLOCATION_SIZE)
     @Column(name = "approval_line_id")
     private Long id;
 
+    /** 낙관적 락 버전 */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     /** FK → 보고서ID */
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "report_approval_id")
@@ -0,0 +1,99 @@
+package com.playdata.approvalservice.approval.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * 결재 알림 아웃박스
+ * 보고서 상태가 바뀌는 트랜잭션 안에서 함께 저장되고,
+ * ApprovalNotificationDispatcher 가 트랜잭션 밖에서 읽어 이메일 / Redis pub/sub 으로 발송합니다.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "approval_outbox", indexes = {
+        // 발송 대상 조회용
+        @Index(name = "idx_outbox_status_next_attempt", columnList = "status, next_attempt_at"),
+        // SSE 재연결 시 놓친 알림 재전송용
+        @Index(name = "idx_outbox_recipient_id", columnList = "recipient_id, outbox_id")
+})
+public class ApprovalOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "outbox_id")
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 30)
+    private ApprovalEventType eventType;
+
+    @Column(name = "report_id", nullable = false)
+    private Long reportId;
+
+    /** 알림 받을 직원 ID */
+    @Column(name = "recipient_id", nullable = false)
+    private Long recipientId;
+
+    /** 알림 문구에 사용하는 보고서 제목 (발송 시 보고서를 다시 읽지 않도록 저장) */
+    @Column(name = "report_title")
+    private String reportTitle;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private OutboxStatus status;
+
+    /** 발송 시도 횟수 */
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    /** 다음 발송 가능 시각 (재시도 대기 / 처리 중 리스) */
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    /** Redis pub/sub 발행 시각 (발행은 한 번만 하고, 이메일 실패 시에는 이메일만 다시 보냅니다) */
+    @Column(name = "pushed_at")
+    private LocalDateTime pushedAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    public static ApprovalOutboxEvent pending(ApprovalEventType type, Reports report, Long recipientId) {
+        LocalDateTime now = LocalDateTime.now();
+        return ApprovalOutboxEvent.builder()
+                .eventType(type)
+                .reportId(report.getId())
+                .recipientId(recipientId)
+                .reportTitle(report.getTitle())
+                .status(OutboxStatus.PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build();
+    }
+
+    /**
+     * 발송 실패 처리: 최대 횟수 전이면 지수 백오프로 다시 대기시키고, 넘었으면 FAILED 로 남깁니다.
+     * (attempts 는 발송 대상으로 가져갈 때 이미 증가되어 있습니다)
+     */
+    public void failAttempt(String error, int maxAttempts, Duration baseBackoff) {
+        this.lastError = error != null && error.length() > 500 ? error.substring(0, 500) : error;
+        if (this.attempts >= maxAttempts) {
+            this.status = OutboxStatus.FAILED;
+            return;
+        }
+        long factor = 1L << Math.min(this.attempts - 1, 10);
+        this.nextAttemptAt = LocalDateTime.now().plus(baseBackoff.multipliedBy(factor));
+    }
+}
@@ -0,0 +1,45 @@
+package com.playdata.approvalservice.approval.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 내용 주소 기반(content-addressed) 첨부파일 객체
+ * 같은 내용(SHA-256)의 파일은 S3 에 한 번만 저장되고, 이 행의 refCount 로 참조하는 보고서 첨부 수를 셉니다.
+ * refCount 가 0 이고 유예 시간 동안 다시 업로드되지 않은 객체만 정리 작업이 S3 에서 삭제합니다.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "attachment_blobs", indexes = {
+        // 정리 대상(참조 없음 + 오래됨) 조회용
+        @Index(name = "idx_attachment_blobs_ref_touched", columnList = "ref_count, touched_at")
+})
+public class AttachmentBlob {
+
+    /** PK: 내용의 SHA-256 (hex) */
+    @Id
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "object_key", nullable = false, unique = true)
+    private String objectKey;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    /** 이 객체를 첨부로 가진 보고서 수 */
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /** 마지막 업로드 시각 (업로드 직후 아직 보고서에 저장되기 전인 객체를 정리 대상에서 보호) */
+    @Column(name = "touched_at", nullable = false)
+    private LocalDateTime touchedAt;
+}
@@ -0,0 +1,11 @@
+package com.playdata.approvalservice.approval.entity;
+
+public enum OutboxStatus {
+    PENDING, SENT, FAILED
+
+    /*
+        PENDING: 발송 대기 (재시도 포함)
+        SENT: 발송 완료
+        FAILED: 최대 재시도 횟수 초과
+    * */
+}
@@ -0,0 +1,51 @@
+package com.playdata.approvalservice.approval.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * 사용자별 문서함 개수 (대시보드 배지용)
+ * 보고서 상태가 바뀔 때마다 같은 트랜잭션 안에서 증감되며,
+ * 주기적인 재집계 작업이 원본 테이블 기준으로 값을 다시 맞춥니다.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "report_box_counters")
+public class ReportBoxCounter {
+
+    /** PK: 직원 ID */
+    @Id
+    @Column(name = "employee_id")
+    private Long employeeId;
+
+    /** 내가 결재할 문서 (현재 결재자 = 나, IN_PROGRESS) */
+    @Column(name = "pending_count", nullable = false)
+    private long pendingCount;
+
+    /** 진행 중 문서 (기안자/결재선에 포함, IN_PROGRESS) */
+    @Column(name = "in_progress_count", nullable = false)
+    private long inProgressCount;
+
+    /** 내가 올린 반려 문서 */
+    @Column(name = "rejected_count", nullable = false)
+    private long rejectedCount;
+
+    /** 내가 올린 임시저장/회수 문서 */
+    @Column(name = "draft_count", nullable = false)
+    private long draftCount;
+
+    /** 내가 올린 예약 문서 */
+    @Column(name = "scheduled_count", nullable = false)
+    private long scheduledCount;
+
+    /** 내가 참조된 문서 */
+    @Column(name = "reference_count", nullable = false)
+    private long referenceCount;
+
+    /** 내가 올린 결재 완료 문서 */
+    @Column(name = "completed_count", nullable = false)
+    private long completedCount;
+}
@@ -0,0 +1,76 @@
+package com.playdata.approvalservice.approval.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.playdata.approvalservice.approval.dto.request.AttachmentJsonReqDto;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * reports.report_detail JSON 컬럼의 타입 값
+ * 엔티티 로딩 시 {@link ReportDetailConverter} 가 한 번만 파싱하며, 이후에는 이 객체만 사용합니다.
+ * (참조자는 report_references 테이블에서 관리하므로 여기에는 첨부파일만 담깁니다)
+ *
+ * attachments 외의 키(이전 형식의 references 등)는 extra 에 원본 그대로 보관했다가 저장 시 다시 씁니다.
+ * Hibernate 는 UPDATE 때 모든 컬럼을 쓰므로, 모르는 키를 버리면 결재/회수만으로도 원본 데이터가 사라지기 때문입니다.
+ *
+ * @param extra attachments 외의 최상위 키 → 원본 JSON 값
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record ReportDetail(List<Attachment> attachments, @JsonIgnore Map<String, JsonNode> extra) {
+
+    public ReportDetail {
+        attachments = attachments == null
+                ? List.of()
+                : attachments.stream().filter(Objects::nonNull).toList();
+        extra = extra == null || extra.isEmpty()
+                ? Map.of()
+                : Collections.unmodifiableMap(new LinkedHashMap<>(extra));
+    }
+
+    public ReportDetail(List<Attachment> attachments) {
+        this(attachments, null);
+    }
+
+    public static ReportDetail empty() {
+        return new ReportDetail(List.of());
+    }
+
+    public static ReportDetail ofAttachments(List<AttachmentJsonReqDto> attachments) {
+        if (attachments == null) {
+            return empty();
+        }
+        return new ReportDetail(attachments.stream()
+                .filter(Objects::nonNull)
+                .map(a -> new Attachment(a.getFileName(), a.getUrl()))
+                .toList());
+    }
+
+    /**
+     * 첨부파일만 바꾸고 나머지 키는 유지한 값을 반환합니다.
+     */
+    public ReportDetail withAttachments(List<AttachmentJsonReqDto> attachments) {
+        return new ReportDetail(ofAttachments(attachments).attachments(), extra);
+    }
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return attachments.isEmpty() && extra.isEmpty();
+    }
+
+    /**
+     * 해당 URL이 이 보고서의 첨부파일인지 확인합니다. (첨부파일 접근 권한 검사용)
+     */
+    public boolean containsAttachmentUrl(String url) {
+        return url != null && attachments.stream().anyMatch(a -> url.equals(a.url()));
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Attachment(String fileName, String url) {
+    }
+}
@@ -0,0 +1,70 @@
+package com.playdata.approvalservice.approval.entity;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ReportDetail ↔ report_detail JSON 변환기
+ * 첨부파일이 없으면 컬럼은 null 로 저장됩니다. (기존 저장 방식과 동일)
+ *
+ * - attachments 외의 키는 ReportDetail.extra 로 보관해 저장 시 그대로 다시 씁니다.
+ * - 파싱할 수 없는 JSON 은 빈 값으로 바꾸지 않고 예외를 던집니다.
+ *   (빈 값으로 읽으면 다음 UPDATE 때 원본 컬럼이 덮어써지므로, 조용히 데이터를 잃는 것보다 실패가 낫습니다)
+ */
+@Converter
+public class ReportDetailConverter implements AttributeConverter<ReportDetail, String> {
+
+    private static final String ATTACHMENTS = "attachments";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<List<ReportDetail.Attachment>> ATTACHMENT_LIST = new TypeReference<>() {
+    };
+
+    @Override
+    public String convertToDatabaseColumn(ReportDetail detail) {
+        if (detail == null || detail.isEmpty()) {
+            return null;
+        }
+        ObjectNode node = MAPPER.createObjectNode();
+        detail.extra().forEach(node::set);
+        node.set(ATTACHMENTS, MAPPER.valueToTree(detail.attachments()));
+        try {
+            return MAPPER.writeValueAsString(node);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("detail JSON 생성 실패", e);
+        }
+    }
+
+    @Override
+    public ReportDetail convertToEntityAttribute(String json) {
+        if (json == null || json.isBlank()) {
+            return ReportDetail.empty();
+        }
+        try {
+            JsonNode node = MAPPER.readTree(json);
+            if (!(node instanceof ObjectNode object)) {
+                throw new IllegalStateException("detail JSON 이 객체가 아닙니다: " + json);
+            }
+            Map<String, JsonNode> extra = new LinkedHashMap<>();
+            object.fields().forEachRemaining(field -> {
+                if (!ATTACHMENTS.equals(field.getKey())) {
+                    extra.put(field.getKey(), field.getValue());
+                }
+            });
+            JsonNode attachments = object.get(ATTACHMENTS);
+            return new ReportDetail(
+                    attachments == null || attachments.isNull() ? null : MAPPER.convertValue(attachments, ATTACHMENT_LIST),
+                    extra);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            throw new IllegalStateException("detail JSON 파싱 실패: " + json, e);
+        }
+    }
+}
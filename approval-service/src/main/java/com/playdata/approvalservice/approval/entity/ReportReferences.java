@@ -2,6 +2,7 @@
 package com.playdata.approvalservice.approval.entity;
 
 import com.playdata.approvalservice.approval.dto.request.ReferenceReqDto;
+import com.playdata.approvalservice.common.entity.IdSequences;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -11,11 +12,18 @@ import lombok.*;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "report_references")
+@Table(name = "report_references", indexes = {
+        // 참조 문서함 조회/카운트: employee_id 로 범위 스캔 후 report_approval_id 까지 인덱스에서 해결
+        // UNIQUE: 같은 참조자를 동시에 추가해도 한 행만 남고 reference_count 도 한 번만 증가합니다.
+        @Index(name = "idx_report_references_employee_report", columnList = "employee_id, report_approval_id", unique = true)
+})
 public class ReportReferences {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "report_reference_id_gen")
+    @TableGenerator(name = "report_reference_id_gen", table = IdSequences.TABLE,
+            pkColumnName = IdSequences.PK_COLUMN, valueColumnName = IdSequences.VALUE_COLUMN,
+            pkColumnValue = IdSequences.REPORT_REFERENCES, allocationSize = IdSequences.ALLOCATION_SIZE)
     @Column(name = "reference_id")
     private Long referenceId;
 
@@ -2,6 +2,7 @@ package com.playdata.approvalservice.approval.entity;
 
 import com.playdata.approvalservice.approval.dto.request.*;
 import com.playdata.approvalservice.common.entity.BaseTimeEntity;
+import com.playdata.approvalservice.common.entity.IdSequences;
 import jakarta.persistence.*;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
@@ -16,17 +17,34 @@ import java.util.*;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "reports")
+@Table(name = "reports", indexes = {
+        // 커서 페이징 (reportCreatedAt, id) 정렬/범위 조회용
+        @Index(name = "idx_reports_created_at_id", columnList = "report_created_at, report_id"),
+        // 예약 발행 대상 조회용
+        @Index(name = "idx_reports_status_scheduled_at", columnList = "report_status, scheduled_at"),
+        // 재상신 계보 조회용
+        @Index(name = "idx_reports_chain_root_id", columnList = "chain_root_id")
+})
 public class Reports extends BaseTimeEntity {
 
     /**
      * 보고서 ID
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "report_id_gen")
+    @TableGenerator(name = "report_id_gen", table = IdSequences.TABLE,
+            pkColumnName = IdSequences.PK_COLUMN, valueColumnName = IdSequences.VALUE_COLUMN,
+            pkColumnValue = IdSequences.REPORTS, allocationSize = IdSequences.ALLOCATION_SIZE)
     @Column(name = "report_id")
     private Long id;
 
+    /**
+     * 낙관적 락 버전 (동시 결재/회수 등 상태 전이 충돌 감지)
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     /**
      * 기안직원 (FK)
      */
@@ -99,8 +117,9 @@ public class Reports extends BaseTimeEntity {
      * 보고서 첨부 파일
      */
     @Setter
+    @Convert(converter = ReportDetailConverter.class)
     @Column(name = "report_detail", columnDefinition = "JSON")
-    private String detail;
+    private ReportDetail detail;
 
     /**
      * 재상신 이력
@@ -108,6 +127,19 @@ public class Reports extends BaseTimeEntity {
     @Column(name = "previous_report_id")
     private Long previousReportId;
 
+    /**
+     * 재상신 계보의 최초 보고서 ID (최초 보고서 자신은 null)
+     */
+    @Column(name = "chain_root_id")
+    private Long chainRootId;
+
+    /**
+     * 최초 보고서로부터 재상신된 횟수 (최초 보고서는 0)
+     */
+    @Builder.Default
+    @Column(name = "resubmit_depth", nullable = false)
+    private int resubmitDepth = 0;
+
     /**
      * 예약이 갔는지 확인하는 변수
      */
@@ -366,6 +398,8 @@ public class Reports extends BaseTimeEntity {
                 .reportCreatedAt(LocalDateTime.now())
                 .reportStatus(ReportStatus.DRAFT)
                 .previousReportId(this.id)
+                .chainRootId(getLineageRootId())
+                .resubmitDepth(this.resubmitDepth + 1)
                 .build();
 
         // 2. 새로운 결재 라인 설정
@@ -380,6 +414,35 @@ public class Reports extends BaseTimeEntity {
         return newReport;
     }
 
+    /**
+     * 계보 정보가 없는 기존 재상신 문서인지 (chain_root_id 백필 전)
+     */
+    public boolean hasLegacyLineage() {
+        return previousReportId != null && chainRootId == null;
+    }
+
+    /**
+     * 체인을 따라 계산한 계보 정보를 채웁니다. (기존 재상신 문서 보정용)
+     */
+    public void restoreLineage(Long rootId, int depth) {
+        this.chainRootId = rootId;
+        this.resubmitDepth = depth;
+    }
+
+    /**
+     * 재상신 계보의 최초 보고서 ID (자신이 최초 보고서면 자신의 ID)
+     */
+    public Long getLineageRootId() {
+        return chainRootId != null ? chainRootId : id;
+    }
+
+    /**
+     * 첨부파일 목록 (detail 이 없으면 빈 목록)
+     */
+    public List<ReportDetail.Attachment> getAttachments() {
+        return detail != null ? detail.attachments() : List.of();
+    }
+
     // 기존 보고서의 상태를 변경하는 메소드
     public void markAsResubmitted() {
         this.returnAt = LocalDateTime.now();
@@ -396,6 +459,31 @@ public class Reports extends BaseTimeEntity {
         return newRef;
     }
 
+    /**
+     * 참조자 목록을 주어진 직원 ID 목록으로 교체합니다. (중복 ID는 한 번만 저장)
+     * 참조자는 detail JSON이 아닌 report_references 테이블에만 저장됩니다.
+     *
+     * @param employeeIds 새 참조자 직원 ID 목록 (null이면 모두 제거)
+     */
+    public void replaceReferences(Collection<Long> employeeIds) {
+        this.reportReferences.clear();
+        if (employeeIds != null) {
+            employeeIds.stream()
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .forEach(this::addReference);
+        }
+    }
+
+    /**
+     * 참조자 직원 ID 목록
+     */
+    public List<Long> getReferenceEmployeeIds() {
+        return this.reportReferences.stream()
+                .map(ReportReferences::getEmployeeId)
+                .toList();
+    }
+
     /**
      * 재상신 시 원본 문서의 템플릿 정보를 새로운 문서에 복사합니다.
      * 이 메소드는 오직 재상신 로직에서만 사용되어야 합니다.
@@ -0,0 +1,78 @@
+package com.playdata.approvalservice.approval.migration;
+
+import com.playdata.approvalservice.common.entity.IdSequences;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * id_sequences 테이블과 시퀀스 행을 준비하고, 각 시퀀스를 기존 테이블의 MAX(id) 이후로 맞춥니다.
+ *
+ * IDENTITY 로 쌓인 기존 ID 와 겹치지 않도록 EntityManagerFactory 보다 먼저 실행되며 (아래 DependsOn),
+ * GREATEST 로만 올리므로 여러 번 기동해도 시퀀스가 뒤로 가지 않습니다.
+ * 주의: IDENTITY 를 쓰는 이전 버전 인스턴스와 함께 INSERT 하면 ID 가 겹칠 수 있으므로 한 번에 교체 배포해야 합니다.
+ * 참조자 백필이 AUTO_INCREMENT 로 넣는 행보다 뒤에서 시퀀스를 맞추도록 백필 이후에 실행합니다.
+ */
+@Component
+@DependsOn("reportReferenceBackfillInitializer")
+@Slf4j
+@RequiredArgsConstructor
+public class IdSequenceInitializer {
+
+    // 시퀀스 이름 → (테이블, PK 컬럼)
+    private static final Map<String, String[]> SEQUENCES = Map.of(
+            IdSequences.REPORTS, new String[]{"reports", "report_id"},
+            IdSequences.APPROVAL_LINE, new String[]{"approval_line", "approval_line_id"},
+            IdSequences.REPORT_REFERENCES, new String[]{"report_references", "reference_id"}
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void initialize() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + IdSequences.TABLE + " (" +
+                IdSequences.PK_COLUMN + " VARCHAR(255) NOT NULL PRIMARY KEY, " +
+                IdSequences.VALUE_COLUMN + " BIGINT)");
+
+        SEQUENCES.forEach((sequence, target) -> {
+            long maxId = maxId(target[0], target[1]);
+            // pooled 옵티마이저는 저장값을 다음 구간의 상한으로 사용하므로 (상한 - ALLOCATION_SIZE + 1) 이 MAX(id) 보다 커야 합니다.
+            long seed = maxId + IdSequences.ALLOCATION_SIZE + 1;
+            jdbcTemplate.update("INSERT INTO " + IdSequences.TABLE +
+                            " (" + IdSequences.PK_COLUMN + ", " + IdSequences.VALUE_COLUMN + ") VALUES (?, ?) " +
+                            "ON DUPLICATE KEY UPDATE " + IdSequences.VALUE_COLUMN +
+                            " = GREATEST(" + IdSequences.VALUE_COLUMN + ", VALUES(" + IdSequences.VALUE_COLUMN + "))",
+                    sequence, seed);
+            log.info("[마이그레이션] ID 시퀀스 {} 준비 완료 (기존 MAX(id)={})", sequence, maxId);
+        });
+    }
+
+    private long maxId(String table, String column) {
+        Integer exists = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.tables WHERE table_schema = DATABASE() AND table_name = ?",
+                Integer.class, table);
+        if (exists == null || exists == 0) {
+            // 새 DB: 테이블은 이후 ddl-auto 로 생성됩니다.
+            return 0L;
+        }
+        Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(" + column + "), 0) FROM " + table, Long.class);
+        return max != null ? max : 0L;
+    }
+
+    /**
+     * EntityManagerFactory(및 그 위의 리포지토리/스케줄러)가 시퀀스 준비 후에 만들어지도록 합니다.
+     */
+    @Component
+    static class EntityManagerFactoryDependsOnIdSequences extends EntityManagerFactoryDependsOnPostProcessor {
+
+        EntityManagerFactoryDependsOnIdSequences() {
+            super(IdSequenceInitializer.class);
+        }
+    }
+}
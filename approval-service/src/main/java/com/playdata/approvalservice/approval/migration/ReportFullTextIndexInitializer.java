@@ -0,0 +1,46 @@
+package com.playdata.approvalservice.approval.migration;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * reports(report_title, report_content) 에 ngram 파서 FULLTEXT 인덱스가 없으면 생성합니다.
+ * JPA @Index 로는 FULLTEXT / WITH PARSER 를 표현할 수 없어 기동 시 한 번 확인합니다.
+ * approval.search.fulltext-index.auto-create=false 로 끄고 DBA 가 직접 생성해도 됩니다.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "approval.search.fulltext-index.auto-create", havingValue = "true", matchIfMissing = true)
+public class ReportFullTextIndexInitializer implements ApplicationRunner {
+
+    public static final String INDEX_NAME = "ft_reports_title_content";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            Integer exists = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM information_schema.statistics " +
+                            "WHERE table_schema = DATABASE() AND table_name = 'reports' AND index_name = ?",
+                    Integer.class, INDEX_NAME);
+            if (exists != null && exists > 0) {
+                return;
+            }
+
+            log.info("[마이그레이션] reports FULLTEXT(ngram) 인덱스 {} 를 생성합니다.", INDEX_NAME);
+            jdbcTemplate.execute("ALTER TABLE reports ADD FULLTEXT INDEX " + INDEX_NAME +
+                    " (report_title, report_content) WITH PARSER ngram");
+            log.info("[마이그레이션] FULLTEXT 인덱스 생성 완료");
+        } catch (Exception e) {
+            // 인덱스가 없어도 검색은 LIKE 로 동작하므로 기동은 계속합니다.
+            log.error("[마이그레이션] FULLTEXT 인덱스 생성 실패, 키워드 검색은 LIKE 로 동작합니다.", e);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.playdata.approvalservice.approval.migration;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * reports.report_detail JSON의 references 를 report_references 테이블로 옮기고 JSON 에서 제거합니다.
+ *
+ * 참조자는 report_references 테이블에서만 읽으므로 이 백필은 선택이 아니라 필수이며, 기동할 때마다 확인합니다.
+ * EntityManagerFactory 보다 먼저 실행되어 (아래 DependsOn) 이전 형식의 행을 JPA 로 읽거나 쓰기 전에 끝나고,
+ * 옮길 행이 없으면 아무것도 바꾸지 않습니다. 재실행해도 중복 행은 생기지 않습니다.
+ * INSERT … SELECT / UPDATE 는 인덱스를 탈 수 없어 훑는 reports 행 전체에 커밋까지 잠금을 잡으므로,
+ * 잠금 없는 일관된 읽기로 옮길 행이 있는지 먼저 확인하고 있을 때만 잠그는 트랜잭션을 엽니다.
+ * (롤링 배포 중 이미 정리된 DB 에서 기동해도 다른 인스턴스의 보고서 쓰기를 막지 않습니다)
+ * 같은 이유로 (직원, 보고서) 인덱스를 UNIQUE 로 바꾸는 작업도 여기서 합니다. 이전의 비유일 인덱스가 남아 있으면
+ * 중복 행을 정리한 뒤 UNIQUE 인덱스로 교체합니다. (중복만큼 부풀려진 reference_count 는 문서함 카운터 재집계에서 바로잡힙니다)
+ * (IdSequenceInitializer 가 MAX(id) 로 시퀀스를 맞추기 전에 실행되어야 하므로 그쪽에서 이 빈에 의존합니다)
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ReportReferenceBackfillInitializer {
+
+    private static final String REFERENCE_INDEX = "idx_report_references_employee_report";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void backfill() {
+        if (!tableExists("reports") || !tableExists("report_references")) {
+            // 새 DB: 테이블은 이후 ddl-auto 로 생성되며, 옮길 데이터도 없습니다.
+            return;
+        }
+        ensureUniqueReferenceIndex();
+        if (!hasLegacyReferences()) {
+            return;
+        }
+
+        // JPA 트랜잭션 매니저는 EntityManagerFactory 에 의존하므로 DataSource 트랜잭션으로 묶습니다.
+        TransactionTemplate transactionTemplate =
+                new TransactionTemplate(new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+        transactionTemplate.executeWithoutResult(status -> {
+            // 이미 존재하는 (보고서, 직원) 쌍은 건너뜁니다.
+            int inserted = jdbcTemplate.update(
+                    "INSERT INTO report_references (employee_id, report_approval_id) " +
+                            "SELECT DISTINCT jt.employee_id, r.report_id " +
+                            "FROM reports r, " +
+                            "     JSON_TABLE(r.report_detail, '$.references[*]' " +
+                            "         COLUMNS (employee_id BIGINT PATH '$.employeeId')) jt " +
+                            "WHERE JSON_CONTAINS_PATH(r.report_detail, 'one', '$.references') " +
+                            "  AND jt.employee_id IS NOT NULL " +
+                            "  AND NOT EXISTS (SELECT 1 FROM report_references rr " +
+                            "                  WHERE rr.report_approval_id = r.report_id AND rr.employee_id = jt.employee_id)");
+            // 옮긴 뒤 detail JSON에 남아있는 references 키를 제거합니다.
+            int cleaned = jdbcTemplate.update(
+                    "UPDATE reports SET report_detail = JSON_REMOVE(report_detail, '$.references') " +
+                            "WHERE JSON_CONTAINS_PATH(report_detail, 'one', '$.references')");
+            if (inserted > 0 || cleaned > 0) {
+                log.info("[마이그레이션] detail JSON 참조자 {}건 → report_references, detail JSON {}건 정리 완료", inserted, cleaned);
+            }
+        });
+    }
+
+    /**
+     * (employee_id, report_approval_id) 인덱스가 비유일 인덱스로 남아 있으면 중복 행을 지우고 UNIQUE 로 교체합니다.
+     * 인덱스가 아직 없으면 이후 ddl-auto 가 엔티티 정의대로 UNIQUE 로 만듭니다.
+     */
+    private void ensureUniqueReferenceIndex() {
+        List<Integer> nonUnique = jdbcTemplate.queryForList(
+                "SELECT non_unique FROM information_schema.statistics " +
+                        "WHERE table_schema = DATABASE() AND table_name = 'report_references' AND index_name = ?",
+                Integer.class, REFERENCE_INDEX);
+        if (nonUnique.isEmpty() || nonUnique.get(0) == 0) {
+            return;
+        }
+
+        // 같은 (직원, 보고서) 쌍은 가장 먼저 만들어진 행만 남깁니다.
+        int removed = jdbcTemplate.update(
+                "DELETE dup FROM report_references dup " +
+                        "JOIN report_references keep " +
+                        "  ON keep.employee_id = dup.employee_id " +
+                        " AND keep.report_approval_id = dup.report_approval_id " +
+                        " AND keep.reference_id < dup.reference_id");
+        jdbcTemplate.execute("ALTER TABLE report_references " +
+                "DROP INDEX " + REFERENCE_INDEX + ", " +
+                "ADD UNIQUE INDEX " + REFERENCE_INDEX + " (employee_id, report_approval_id)");
+        log.info("[마이그레이션] report_references 중복 참조 {}건 정리, {} 를 UNIQUE 로 변경", removed, REFERENCE_INDEX);
+    }
+
+    /**
+     * detail JSON 에 references 키가 남은 보고서가 있는지 (트랜잭션 밖 일반 SELECT → 잠금 없는 일관된 읽기)
+     */
+    private boolean hasLegacyReferences() {
+        return !jdbcTemplate.queryForList(
+                "SELECT 1 FROM reports WHERE JSON_CONTAINS_PATH(report_detail, 'one', '$.references') LIMIT 1",
+                Integer.class).isEmpty();
+    }
+
+    private boolean tableExists(String table) {
+        Integer exists = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.tables WHERE table_schema = DATABASE() AND table_name = ?",
+                Integer.class, table);
+        return exists != null && exists > 0;
+    }
+
+    /**
+     * EntityManagerFactory(및 그 위의 리포지토리/스케줄러)가 백필 후에 만들어지도록 합니다.
+     */
+    @Component
+    static class EntityManagerFactoryDependsOnReferenceBackfill extends EntityManagerFactoryDependsOnPostProcessor {
+
+        EntityManagerFactoryDependsOnReferenceBackfill() {
+            super(ReportReferenceBackfillInitializer.class);
+        }
+    }
+}
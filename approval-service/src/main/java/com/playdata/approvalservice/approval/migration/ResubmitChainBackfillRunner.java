@@ -0,0 +1,39 @@
+package com.playdata.approvalservice.approval.migration;
+
+import com.playdata.approvalservice.approval.repository.ReportsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 기존 재상신 문서의 chain_root_id / resubmit_depth 를 previous_report_id 체인에서 계산해 채웁니다.
+ * 재상신 횟수 제한과 계보 조회가 이 값에 의존하므로 기동할 때마다 확인하며, 채울 문서가 없으면 바로 끝납니다.
+ * (컬럼이 ddl-auto 로 추가된 뒤여야 하므로 ApplicationRunner 로 실행합니다.
+ *  그 전에 들어온 재상신 요청은 ApprovalService 가 체인을 직접 따라가 깊이를 계산합니다)
+ * 필요하면 approval.migration.resubmit-chain-backfill=false 로 끌 수 있습니다.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "approval.migration.resubmit-chain-backfill", havingValue = "true", matchIfMissing = true)
+public class ResubmitChainBackfillRunner implements ApplicationRunner {
+
+    private final ReportsRepository reportsRepository;
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        if (!reportsRepository.existsByPreviousReportIdIsNotNullAndChainRootIdIsNull()) {
+            return;
+        }
+        log.info("[마이그레이션] 재상신 계보(chain_root_id, resubmit_depth) 백필을 시작합니다.");
+
+        int updated = reportsRepository.backfillResubmitChain();
+
+        log.info("[마이그레이션] 재상신 문서 {}건 갱신 완료", updated);
+    }
+}
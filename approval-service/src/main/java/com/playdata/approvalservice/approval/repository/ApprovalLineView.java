@@ -0,0 +1,14 @@
+package com.playdata.approvalservice.approval.repository;
+
+import com.playdata.approvalservice.approval.entity.ApprovalStatus;
+
+/**
+ * 목록 화면용 결재선 요약 프로젝션 (보고서 ID 기준으로 묶어서 사용)
+ */
+public record ApprovalLineView(
+        Long reportId,
+        Long employeeId,
+        ApprovalStatus approvalStatus,
+        Integer approvalContext
+) {
+}
@@ -0,0 +1,83 @@
+package com.playdata.approvalservice.approval.repository;
+
+import com.playdata.approvalservice.approval.entity.ApprovalOutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ApprovalOutboxRepository extends JpaRepository<ApprovalOutboxEvent, Long> {
+
+    /**
+     * 발송할 아웃박스 행을 최대 limit 건 잠그고 ID를 반환합니다.
+     * 다른 인스턴스가 잠근 행은 건너뜁니다. (FOR UPDATE SKIP LOCKED)
+     */
+    @Query(value =
+            "SELECT o.outbox_id FROM approval_outbox o " +
+                    "WHERE o.status = 'PENDING' AND o.next_attempt_at <= :now " +
+                    "ORDER BY o.outbox_id " +
+                    "LIMIT :limit " +
+                    "FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<Long> claimDueIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * 가져간 행의 시도 횟수를 올리고, 처리 중 리스 시간 동안 다른 인스턴스가 가져가지 않도록 미룹니다.
+     * (발송 도중 인스턴스가 죽으면 리스가 끝난 뒤 다시 발송됩니다)
+     */
+    @Modifying
+    @Query("UPDATE ApprovalOutboxEvent o SET o.attempts = o.attempts + 1, o.nextAttemptAt = :leaseUntil " +
+            "WHERE o.id IN :ids")
+    int lease(@Param("ids") Collection<Long> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("UPDATE ApprovalOutboxEvent o SET o.status = com.playdata.approvalservice.approval.entity.OutboxStatus.SENT, " +
+            "o.sentAt = :sentAt, o.lastError = null WHERE o.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    /**
+     * Redis pub/sub 으로 발행한 행을 기록합니다. (이메일 재시도 때 다시 발행하지 않도록)
+     */
+    @Modifying
+    @Query("UPDATE ApprovalOutboxEvent o SET o.pushedAt = :pushedAt WHERE o.id IN :ids AND o.pushedAt IS NULL")
+    int markPushed(@Param("ids") Collection<Long> ids, @Param("pushedAt") LocalDateTime pushedAt);
+
+    /**
+     * 예약 발행된 문서의 첫 결재자에게 보낼 알림을 한 번에 적재합니다. (ApprovalSchedulerService 의 set-based 발행용)
+     */
+    @Modifying
+    @Query(value =
+            "INSERT INTO approval_outbox " +
+                    "   (event_type, report_id, recipient_id, report_title, status, attempts, next_attempt_at, created_at) " +
+                    "SELECT 'APPROVAL_REQUESTED', r.report_id, r.report_current_approver_id, r.report_title, " +
+                    "       'PENDING', 0, :now, :now " +
+                    "FROM reports r " +
+                    "WHERE r.report_id IN (:ids) AND r.report_current_approver_id IS NOT NULL",
+            nativeQuery = true)
+    int enqueueApprovalRequests(@Param("ids") Collection<Long> reportIds, @Param("now") LocalDateTime now);
+
+    /**
+     * 수신자에게 afterId 이후 쌓인 알림 (SSE 재연결 시 Last-Event-ID 이후 재전송용, ID 순)
+     * 발행 후 완료 처리 전인 PENDING 행도 포함하고, FAILED 행은 pub/sub 으로 이미 발행된 경우만 포함합니다.
+     */
+    @Query("SELECT o FROM ApprovalOutboxEvent o " +
+            "WHERE o.recipientId = :recipientId AND o.id > :afterId " +
+            "AND (o.status <> com.playdata.approvalservice.approval.entity.OutboxStatus.FAILED OR o.pushedAt IS NOT NULL) " +
+            "ORDER BY o.id")
+    List<ApprovalOutboxEvent> findReplayableAfter(@Param("recipientId") Long recipientId,
+                                                  @Param("afterId") Long afterId,
+                                                  Pageable pageable);
+
+    /**
+     * 보관 기간이 지난 발송 완료 행 정리
+     */
+    @Modifying
+    @Query("DELETE FROM ApprovalOutboxEvent o " +
+            "WHERE o.status = com.playdata.approvalservice.approval.entity.OutboxStatus.SENT AND o.sentAt < :before")
+    int deleteSentBefore(@Param("before") LocalDateTime before);
+}
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,8 +14,23 @@ public interface ApprovalRepository extends JpaRepository<ApprovalLine, Long> {
 
     Optional<ApprovalLine> findByReportsIdAndEmployeeIdAndApprovalStatus(Long reportsId, Long employeeId, ApprovalStatus approvalStatus);
 
+    /**
+     * 보고서의 결재자 직원 ID 목록 (첨부파일 접근 권한 구성용)
+     */
+    @Query("SELECT al.employeeId FROM ApprovalLine al WHERE al.reports.id = :reportId")
+    List<Long> findEmployeeIdsByReportId(@Param("reportId") Long reportId);
+
     // (2) 리포트의 전체 결재 라인 이력 (순번 오름차순)
     @Query("SELECT al FROM ApprovalLine al WHERE al.reports.id = :reportId ORDER BY al.approvalContext ASC")
     List<ApprovalLine> findApprovalLinesByReportId(@Param("reportId") Long reportId);
 
+    /**
+     * 여러 보고서의 결재선 요약을 한 번에 조회합니다. (보고서별 결재 순서 오름차순)
+     */
+    @Query("SELECT new com.playdata.approvalservice.approval.repository.ApprovalLineView(" +
+            "al.reports.id, al.employeeId, al.approvalStatus, al.approvalContext) " +
+            "FROM ApprovalLine al WHERE al.reports.id IN :reportIds " +
+            "ORDER BY al.reports.id, al.approvalContext ASC")
+    List<ApprovalLineView> findLineViewsByReportIdIn(@Param("reportIds") Collection<Long> reportIds);
+
 }
@@ -0,0 +1,60 @@
+package com.playdata.approvalservice.approval.repository;
+
+import com.playdata.approvalservice.approval.entity.AttachmentBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface AttachmentBlobRepository extends JpaRepository<AttachmentBlob, String> {
+
+    /**
+     * 업로드된 객체 행을 만들거나, 이미 있으면 touched_at 만 갱신합니다.
+     * 정리 작업이 같은 행을 잠그고 삭제 중이면 끝날 때까지 기다린 뒤 새 행으로 들어갑니다.
+     */
+    @Modifying
+    @Query(value =
+            "INSERT INTO attachment_blobs (content_hash, object_key, size_bytes, ref_count, created_at, touched_at) " +
+                    "VALUES (:hash, :objectKey, :size, 0, :now, :now) " +
+                    "ON DUPLICATE KEY UPDATE touched_at = VALUES(touched_at)",
+            nativeQuery = true)
+    int touch(@Param("hash") String hash,
+              @Param("objectKey") String objectKey,
+              @Param("size") long size,
+              @Param("now") LocalDateTime now);
+
+    /**
+     * 참조 수 증감 (음수가 되지 않도록 0에서 멈춤)
+     */
+    @Modifying
+    @Query(value =
+            "UPDATE attachment_blobs SET ref_count = GREATEST(ref_count + :delta, 0) " +
+                    "WHERE object_key = :objectKey",
+            nativeQuery = true)
+    int adjustRefCount(@Param("objectKey") String objectKey, @Param("delta") int delta);
+
+    /**
+     * 참조가 없고 before 이전부터 업로드되지 않은 객체 (정리 후보)
+     */
+    @Query(value =
+            "SELECT b.content_hash FROM attachment_blobs b " +
+                    "WHERE b.ref_count = 0 AND b.touched_at < :before " +
+                    "ORDER BY b.touched_at " +
+                    "LIMIT :limit",
+            nativeQuery = true)
+    List<String> findOrphanHashes(@Param("before") LocalDateTime before, @Param("limit") int limit);
+
+    /**
+     * 정리 직전 재확인: 여전히 정리 대상이면 행을 잠그고 반환합니다.
+     */
+    @Query(value =
+            "SELECT * FROM attachment_blobs b " +
+                    "WHERE b.content_hash = :hash AND b.ref_count = 0 AND b.touched_at < :before " +
+                    "FOR UPDATE",
+            nativeQuery = true)
+    Optional<AttachmentBlob> lockOrphan(@Param("hash") String hash, @Param("before") LocalDateTime before);
+}
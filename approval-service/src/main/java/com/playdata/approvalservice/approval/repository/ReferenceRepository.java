@@ -4,6 +4,8 @@ import com.playdata.approvalservice.approval.entity.ReportReferences;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface ReferenceRepository extends JpaRepository<ReportReferences, Long> {
 
@@ -13,9 +15,18 @@ public interface ReferenceRepository extends JpaRepository<ReportReferences, Lon
      */
     List<ReportReferences> findByReportsId(Long reportId);
 
+    /**
+     * 보고서의 참조자 직원 ID 목록 (첨부파일 접근 권한 구성용)
+     */
+    @Query("SELECT rr.employeeId FROM ReportReferences rr WHERE rr.reports.id = :reportId")
+    List<Long> findEmployeeIdsByReportId(@Param("reportId") Long reportId);
+
     Optional<ReportReferences> findByReportsIdAndEmployeeId(Long reportsId, Long employeeId);
 
-    void deleteByReportsIdAndEmployeeId(Long reportsId, Long employeeId);
+    long deleteByReportsIdAndEmployeeId(Long reportsId, Long employeeId);
 
     long countByEmployeeId(Long employeeId);
+
+    boolean existsByReportsIdAndEmployeeId(Long reportsId, Long employeeId);
+
 }
@@ -0,0 +1,12 @@
+package com.playdata.approvalservice.approval.repository;
+
+import com.playdata.approvalservice.approval.entity.ReportDetail;
+
+/**
+ * 첨부파일 접근 권한(ACL) 구성용 보고서 프로젝션
+ */
+public record ReportAclView(
+        Long writerId,
+        ReportDetail detail
+) {
+}
@@ -0,0 +1,183 @@
+package com.playdata.approvalservice.approval.repository;
+
+import com.playdata.approvalservice.approval.entity.ReportBoxCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ReportBoxCounterRepository extends JpaRepository<ReportBoxCounter, Long> {
+
+    // 재집계 결과를 먼저 써 두는 테이블 (report_box_counters 와 같은 구조, ReportBoxCounterService 가 생성)
+    String STAGING_TABLE = "report_box_counters_rebuild";
+
+    /**
+     * 한 사용자의 문서함 개수를 증감합니다. 행이 없으면 증감값으로 새로 만듭니다.
+     *
+     * @return 영향받은 행 수
+     */
+    @Modifying
+    @Query(value =
+            "INSERT INTO report_box_counters (employee_id, pending_count, in_progress_count, rejected_count, " +
+                    "                                 draft_count, scheduled_count, reference_count, completed_count) " +
+                    "VALUES (:employeeId, GREATEST(:pending, 0), GREATEST(:inProgress, 0), GREATEST(:rejected, 0), " +
+                    "        GREATEST(:drafts, 0), GREATEST(:scheduled, 0), GREATEST(:reference, 0), GREATEST(:completed, 0)) " +
+                    "ON DUPLICATE KEY UPDATE " +
+                    "   pending_count     = GREATEST(pending_count + :pending, 0), " +
+                    "   in_progress_count = GREATEST(in_progress_count + :inProgress, 0), " +
+                    "   rejected_count    = GREATEST(rejected_count + :rejected, 0), " +
+                    "   draft_count       = GREATEST(draft_count + :drafts, 0), " +
+                    "   scheduled_count   = GREATEST(scheduled_count + :scheduled, 0), " +
+                    "   reference_count   = GREATEST(reference_count + :reference, 0), " +
+                    "   completed_count   = GREATEST(completed_count + :completed, 0)",
+            nativeQuery = true)
+    int increment(@Param("employeeId") Long employeeId,
+                  @Param("pending") long pending,
+                  @Param("inProgress") long inProgress,
+                  @Param("rejected") long rejected,
+                  @Param("drafts") long drafts,
+                  @Param("scheduled") long scheduled,
+                  @Param("reference") long reference,
+                  @Param("completed") long completed);
+
+    /**
+     * 예약 문서 일괄 발행(SCHEDULED → IN_PROGRESS) 후 카운터를 한 번에 반영합니다.
+     * 발행 UPDATE 이후에 호출해야 하며, 보고서 단건 스냅샷 비교와 같은 규칙으로 증감합니다.
+     * - 기안자: 예약 -1, 진행 중 +1
+     * - 결재선 구성원(기안자 제외): 진행 중 +1
+     * - 현재 결재자: 결재 대기 +1
+     */
+    @Modifying
+    @Query(value =
+            "INSERT INTO report_box_counters (employee_id, pending_count, in_progress_count, rejected_count, " +
+                    "                                 draft_count, scheduled_count, reference_count, completed_count) " +
+                    "SELECT src.employee_id, GREATEST(src.p, 0), GREATEST(src.ip, 0), 0, 0, GREATEST(src.sc, 0), 0, 0 " +
+                    "FROM ( " +
+                    "  SELECT t.employee_id, SUM(t.p) AS p, SUM(t.ip) AS ip, SUM(t.sc) AS sc " +
+                    "  FROM ( " +
+                    "    SELECT r.report_writer_id AS employee_id, 0 AS p, 1 AS ip, -1 AS sc " +
+                    "    FROM reports r WHERE r.report_id IN (:ids) " +
+                    "    UNION ALL " +
+                    "    SELECT m.employee_id, 0, 1, 0 " +
+                    "    FROM (SELECT DISTINCT al.report_approval_id, al.employee_id " +
+                    "          FROM approval_line al JOIN reports r ON r.report_id = al.report_approval_id " +
+                    "          WHERE r.report_id IN (:ids) AND al.employee_id <> r.report_writer_id) m " +
+                    "    UNION ALL " +
+                    "    SELECT r.report_current_approver_id, 1, 0, 0 " +
+                    "    FROM reports r WHERE r.report_id IN (:ids) AND r.report_current_approver_id IS NOT NULL " +
+                    "  ) t " +
+                    "  GROUP BY t.employee_id " +
+                    "  ORDER BY t.employee_id " +
+                    ") src " +
+                    "ON DUPLICATE KEY UPDATE " +
+                    "   pending_count     = GREATEST(pending_count + src.p, 0), " +
+                    "   in_progress_count = GREATEST(in_progress_count + src.ip, 0), " +
+                    "   scheduled_count   = GREATEST(scheduled_count + src.sc, 0)",
+            nativeQuery = true)
+    int applyScheduledPublish(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 재집계 1단계: 이전 재집계가 남긴 스테이징 행을 지웁니다.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM " + STAGING_TABLE, nativeQuery = true)
+    int clearStaging();
+
+    /**
+     * 재집계 2단계: reports / approval_line / report_references 원본 테이블에서 사용자별 개수를 다시 계산해 스테이징 테이블에 씁니다.
+     * 집계 기준은 기존 getReportCounts 의 개별 count 쿼리와 동일합니다.
+     * READ COMMITTED 트랜잭션에서 실행하면 원본 테이블은 잠그지 않고 일관된 읽기로 읽습니다.
+     *
+     * @return 스테이징된 행 수
+     */
+    @Modifying
+    @Query(value =
+            "INSERT INTO " + STAGING_TABLE + " (employee_id, pending_count, in_progress_count, rejected_count, " +
+                    "                                 draft_count, scheduled_count, reference_count, completed_count) " +
+                    "SELECT * FROM ( " +
+                    "  SELECT t.employee_id, SUM(t.p) AS p, SUM(t.ip) AS ip, SUM(t.rj) AS rj, SUM(t.dr) AS dr, " +
+                    "         SUM(t.sc) AS sc, SUM(t.rf) AS rf, SUM(t.cp) AS cp " +
+                    "  FROM ( " +
+                    // 결재 대기: 현재 결재자
+                    "    SELECT r.report_current_approver_id AS employee_id, 1 AS p, 0 AS ip, 0 AS rj, 0 AS dr, 0 AS sc, 0 AS rf, 0 AS cp " +
+                    "    FROM reports r WHERE r.report_status = 'IN_PROGRESS' AND r.report_current_approver_id IS NOT NULL " +
+                    "    UNION ALL " +
+                    // 기안자 기준 상태별 개수
+                    "    SELECT r.report_writer_id, 0, " +
+                    "           IF(r.report_status = 'IN_PROGRESS', 1, 0), IF(r.report_status = 'REJECTED', 1, 0), " +
+                    "           IF(r.report_status IN ('DRAFT', 'RECALLED'), 1, 0), IF(r.report_status = 'SCHEDULED', 1, 0), " +
+                    "           0, IF(r.report_status = 'APPROVED', 1, 0) " +
+                    "    FROM reports r " +
+                    "    UNION ALL " +
+                    // 진행 중: 결재선에 포함된 (기안자가 아닌) 직원
+                    "    SELECT m.employee_id, 0, 1, 0, 0, 0, 0, 0 " +
+                    "    FROM (SELECT DISTINCT al.report_approval_id, al.employee_id " +
+                    "          FROM approval_line al JOIN reports r ON r.report_id = al.report_approval_id " +
+                    "          WHERE r.report_status = 'IN_PROGRESS' AND al.employee_id <> r.report_writer_id) m " +
+                    "    UNION ALL " +
+                    // 진행 중: 결재선 밖의 현재 결재자 (방어적)
+                    "    SELECT r.report_current_approver_id, 0, 1, 0, 0, 0, 0, 0 " +
+                    "    FROM reports r " +
+                    "    WHERE r.report_status = 'IN_PROGRESS' AND r.report_current_approver_id IS NOT NULL " +
+                    "      AND r.report_current_approver_id <> r.report_writer_id " +
+                    "      AND NOT EXISTS (SELECT 1 FROM approval_line al2 " +
+                    "                      WHERE al2.report_approval_id = r.report_id " +
+                    "                        AND al2.employee_id = r.report_current_approver_id) " +
+                    "    UNION ALL " +
+                    // 참조 문서
+                    "    SELECT rr.employee_id, 0, 0, 0, 0, 0, 1, 0 FROM report_references rr " +
+                    "  ) t " +
+                    "  WHERE t.employee_id IS NOT NULL " +
+                    "  GROUP BY t.employee_id " +
+                    ") src",
+            nativeQuery = true)
+    int stageFromSource();
+
+    /**
+     * 재집계 3단계에서 한 번에 반영할 직원 ID 구간 (afterId 다음부터 limit 개, 현재 카운터/스테이징 양쪽 기준)
+     */
+    @Query(value =
+            "SELECT u.employee_id FROM ( " +
+                    "  SELECT employee_id FROM report_box_counters WHERE employee_id > :afterId " +
+                    "  UNION " +
+                    "  SELECT employee_id FROM " + STAGING_TABLE + " WHERE employee_id > :afterId " +
+                    ") u ORDER BY u.employee_id LIMIT :limit",
+            nativeQuery = true)
+    List<Long> findRebuildRange(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    /**
+     * 재집계 3단계: 직원 ID 구간의 스테이징 값을 카운터에 덮어씁니다.
+     */
+    @Modifying
+    @Query(value =
+            "INSERT INTO report_box_counters (employee_id, pending_count, in_progress_count, rejected_count, " +
+                    "                                 draft_count, scheduled_count, reference_count, completed_count) " +
+                    "SELECT * FROM ( " +
+                    "  SELECT s.employee_id, s.pending_count AS p, s.in_progress_count AS ip, s.rejected_count AS rj, " +
+                    "         s.draft_count AS dr, s.scheduled_count AS sc, s.reference_count AS rf, s.completed_count AS cp " +
+                    "  FROM " + STAGING_TABLE + " s " +
+                    "  WHERE s.employee_id BETWEEN :fromId AND :toId " +
+                    "  ORDER BY s.employee_id " +
+                    ") src " +
+                    "ON DUPLICATE KEY UPDATE " +
+                    "   pending_count = src.p, in_progress_count = src.ip, rejected_count = src.rj, " +
+                    "   draft_count = src.dr, scheduled_count = src.sc, reference_count = src.rf, completed_count = src.cp",
+            nativeQuery = true)
+    int applyStagedRange(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    /**
+     * 재집계 3단계: 직원 ID 구간에서 원본에 더 이상 집계되지 않는 사용자의 카운터를 0으로 맞춥니다.
+     */
+    @Modifying
+    @Query(value =
+            "UPDATE report_box_counters c " +
+                    "LEFT JOIN " + STAGING_TABLE + " s ON s.employee_id = c.employee_id " +
+                    "SET c.pending_count = 0, c.in_progress_count = 0, c.rejected_count = 0, c.draft_count = 0, " +
+                    "    c.scheduled_count = 0, c.reference_count = 0, c.completed_count = 0 " +
+                    "WHERE c.employee_id BETWEEN :fromId AND :toId AND s.employee_id IS NULL",
+            nativeQuery = true)
+    int resetUnstagedRange(@Param("fromId") long fromId, @Param("toId") long toId);
+}
@@ -0,0 +1,21 @@
+package com.playdata.approvalservice.approval.repository;
+
+import com.playdata.approvalservice.approval.entity.ReportStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * 내보내기(CSV)용 보고서 행 (본문/JSON 컬럼 제외)
+ */
+public record ReportExportRow(
+        Long id,
+        String title,
+        ReportStatus reportStatus,
+        Long writerId,
+        Long currentApproverId,
+        LocalDateTime reportCreatedAt,
+        LocalDateTime submittedAt,
+        LocalDateTime completedAt,
+        LocalDateTime returnAt
+) {
+}
@@ -0,0 +1,20 @@
+package com.playdata.approvalservice.approval.repository;
+
+import com.playdata.approvalservice.approval.entity.ReportStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * 재상신 계보 조회용 보고서 프로젝션
+ */
+public record ReportLineageView(
+        Long id,
+        Long previousReportId,
+        int resubmitDepth,
+        String title,
+        ReportStatus reportStatus,
+        LocalDateTime reportCreatedAt,
+        LocalDateTime submittedAt,
+        LocalDateTime returnAt
+) {
+}
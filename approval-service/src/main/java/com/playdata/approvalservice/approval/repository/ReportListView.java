@@ -0,0 +1,21 @@
+package com.playdata.approvalservice.approval.repository;
+
+import com.playdata.approvalservice.approval.entity.ReportStatus;
+
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+
+/**
+ * 목록 화면용 보고서 프로젝션
+ * 목록에 표시하는 컬럼만 읽고 report_content(TEXT), report_detail / report_template_data(JSON)는 읽지 않습니다.
+ */
+public record ReportListView(
+        Long id,
+        String title,
+        Long writerId,
+        ReportStatus reportStatus,
+        LocalDateTime reportCreatedAt,
+        Long currentApproverId,
+        ZonedDateTime scheduledAt
+) {
+}
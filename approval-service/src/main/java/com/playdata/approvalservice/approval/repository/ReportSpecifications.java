@@ -4,17 +4,35 @@ import com.playdata.approvalservice.approval.entity.ApprovalLine;
 import com.playdata.approvalservice.approval.entity.ReportReferences;
 import com.playdata.approvalservice.approval.entity.Reports;
 import com.playdata.approvalservice.approval.entity.ReportStatus;
+import com.playdata.approvalservice.common.config.FullTextFunctionContributor;
+import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.Expression;
-import jakarta.persistence.criteria.Join;
-import jakarta.persistence.criteria.JoinType;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
 public class ReportSpecifications {
 
+    // withDynamicQuery 가 이해하는 역할 (그 외 값은 역할 조건 없이 무시됩니다)
+    public static final Set<String> ROLES = Set.of("writer", "approver", "reference", "involved");
+
+    /**
+     * 쉼표로 구분된 역할이 하나 이상 있고, 모두 알려진 역할인지 확인합니다.
+     */
+    public static boolean isKnownRoles(String role) {
+        if (role == null || role.isBlank()) {
+            return false;
+        }
+        return Arrays.stream(role.toLowerCase().split(","))
+                .map(String::trim)
+                .allMatch(ROLES::contains);
+    }
+
     /**
      * 역할(다중 지원), 상태, 키워드를 기반으로 동적 쿼리를 생성하는 Specification을 반환합니다.
      *
@@ -29,6 +47,22 @@ public class ReportSpecifications {
             ReportStatus status,
             String keyword,
             Long userId
+    ) {
+        return withDynamicQuery(role, status, keyword, null, userId);
+    }
+
+    /**
+     * 키워드를 FULLTEXT 검색식으로 찾는 Specification을 반환합니다.
+     * 역할/상태 조건과 같은 쿼리에서 함께 적용되므로 일치 건수를 미리 자르지 않고, COUNT 도 정확합니다.
+     *
+     * @param fullTextQuery BOOLEAN MODE 검색식 (null 이면 keyword 로 LIKE 검색)
+     */
+    public static Specification<Reports> withDynamicQuery(
+            String role,
+            ReportStatus status,
+            String keyword,
+            String fullTextQuery,
+            Long userId
     ) {
         return (root, query, criteriaBuilder) -> {
             // 모든 조건을 AND로 묶기 위한 기본 Predicate
@@ -41,7 +75,12 @@ public class ReportSpecifications {
             }
 
             // 2. 키워드(keyword) 필터링: 제목 또는 내용에 키워드가 포함되는 경우
-            if (keyword != null && !keyword.isBlank()) {
+            if (fullTextQuery != null) {
+                // FULLTEXT(ngram) 인덱스로 일치 여부 판단 (MATCH ... AGAINST > 0)
+                predicate = criteriaBuilder.and(predicate,
+                        criteriaBuilder.gt(relevance(root, criteriaBuilder, fullTextQuery), 0));
+            } else if (keyword != null && !keyword.isBlank()) {
+                // FULLTEXT 를 쓸 수 없는 짧은 키워드 등은 기존 LIKE 검색
                 Predicate titleLike = criteriaBuilder.like(root.get("title"), "%" + keyword + "%");
                 Predicate contentLike = criteriaBuilder.like(root.get("content"), "%" + keyword + "%");
                 predicate = criteriaBuilder.and(predicate, criteriaBuilder.or(titleLike, contentLike));
@@ -57,8 +96,6 @@ public class ReportSpecifications {
 
                 // 역할별 조건을 OR로 묶기 위한 리스트
                 List<Predicate> rolePredicates = new ArrayList<>();
-                // 중복 JOIN을 방지하기 위해 Join 객체를 캐싱하는 맵
-                Map<String, Join<Reports, ?>> joins = new HashMap<>();
 
                 for (String r : roles) {
                     switch (r) {
@@ -67,50 +104,33 @@ public class ReportSpecifications {
                             break;
 
                         case "approver":
-                            // "approvalLines" 키로 Join이 이미 존재하는지 확인하고, 없으면 새로 생성하여 맵에 저장
-                            @SuppressWarnings("unchecked")
-                            Join<Reports, ApprovalLine> approvalLineJoin = (Join<Reports, ApprovalLine>) joins.computeIfAbsent(
-                                    "approvalLines",
-                                    key -> root.join(key, JoinType.LEFT)
-                            );
+                            // 현재 결재자 컬럼만으로 판단하므로 결재선 JOIN이 필요 없습니다.
                             rolePredicates.add(criteriaBuilder.equal(root.get("currentApproverId"), userId));
                             break;
 
                         case "reference":
-                            // 1. `detail` 컬럼에서 모든 참조자의 employeeId 값만 추출하여 JSON 배열을 만듭니다.
-                            //    SQL 예시: JSON_EXTRACT(detail, '$.references[*].employeeId') -> 결과: [5, 7, 8]
-                            Expression<String> employeeIdsJsonArray = criteriaBuilder.function(
-                                    "JSON_EXTRACT",
-                                    String.class,
-                                    root.get("detail"),
-                                    criteriaBuilder.literal("$.references[*].employeeId")
-                            );
-                            // 2. `JSON_CONTAINS` 함수를 사용하여 위에서 만든 JSON 배열에 userId가 포함되어 있는지 확인합니다.
-                            //    SQL 예시: JSON_CONTAINS('[5, 7, 8]', CAST('1' AS JSON))
-                            Predicate jsonContainsPredicate = criteriaBuilder.isTrue(
-                                    criteriaBuilder.function(
-                                            "JSON_CONTAINS",
-                                            Boolean.class,
-                                            employeeIdsJsonArray, // 검색 대상: employeeId 값들로 이루어진 JSON 배열
-                                            criteriaBuilder.literal(String.valueOf(userId)) // 찾을 값: userId를 문자열로 변환
-                                    )
-                            );
-
-
-                            // 3. 생성된 조건을 리스트에 추가합니다.
-                            rolePredicates.add(jsonContainsPredicate);
+                            // report_references (employee_id, report_approval_id) 인덱스 범위 스캔으로 참조 문서 ID를 찾습니다.
+                            //    SQL 예시: r.report_id IN (SELECT rr.report_approval_id FROM report_references rr WHERE rr.employee_id = ?)
+                            Subquery<Long> referencedReportIds = query.subquery(Long.class);
+                            Root<ReportReferences> referenceRoot = referencedReportIds.from(ReportReferences.class);
+                            referencedReportIds.select(referenceRoot.get("reports").get("id"))
+                                    .where(criteriaBuilder.equal(referenceRoot.get("employeeId"), userId));
+
+                            rolePredicates.add(root.get("id").in(referencedReportIds));
                             break;
 
                         case "involved":
                             // '결재 관여'는 '내 기안이 아니면서, 결재선에 포함된' 문서를 의미합니다.
-                            @SuppressWarnings("unchecked")
-                            Join<Reports, ApprovalLine> involvedJoin = (Join<Reports, ApprovalLine>) joins.computeIfAbsent(
-                                    "approvalLines",
-                                    key -> root.join(key, JoinType.LEFT)
-                            );
+                            // JOIN + DISTINCT 대신 EXISTS 서브쿼리를 사용해 보고서 행이 중복되지 않도록 합니다.
+                            Subquery<Long> involvedLine = query.subquery(Long.class);
+                            Root<ApprovalLine> lineRoot = involvedLine.from(ApprovalLine.class);
+                            involvedLine.select(lineRoot.get("id"))
+                                    .where(
+                                            criteriaBuilder.equal(lineRoot.get("reports"), root),
+                                            criteriaBuilder.equal(lineRoot.get("employeeId"), userId)
+                                    );
                             Predicate notMyReport = criteriaBuilder.notEqual(root.get("writerId"), userId);
-                            Predicate inLine = criteriaBuilder.equal(involvedJoin.get("employeeId"), userId);
-                            rolePredicates.add(criteriaBuilder.and(notMyReport, inLine));
+                            rolePredicates.add(criteriaBuilder.and(notMyReport, criteriaBuilder.exists(involvedLine)));
                             break;
                     }
                 }
@@ -121,9 +141,33 @@ public class ReportSpecifications {
                 }
             }
 
-            // JOIN으로 인해 발생할 수 있는 중복된 Reports 결과를 제거
-            query.distinct(true);
+            // 결재선 조건은 서브쿼리로 처리하므로 JOIN/DISTINCT 없이 보고서 행이 한 번씩만 조회됩니다.
+            return predicate;
+        };
+    }
+
+    /**
+     * FULLTEXT 관련도 점수 식 (MATCH(report_title, report_content) AGAINST (검색식 IN BOOLEAN MODE))
+     */
+    public static Expression<Double> relevance(Root<Reports> root, CriteriaBuilder criteriaBuilder, String fullTextQuery) {
+        return criteriaBuilder.function(FullTextFunctionContributor.MATCH_AGAINST, Double.class,
+                root.get("title"), root.get("content"), criteriaBuilder.literal(fullTextQuery));
+    }
 
+    /**
+     * 작성일시 범위 조건 (from 이상, to 미만 / null 인 쪽은 제한 없음)
+     */
+    public static Specification<Reports> createdBetween(LocalDateTime from, LocalDateTime to) {
+        return (root, query, criteriaBuilder) -> {
+            Predicate predicate = criteriaBuilder.conjunction();
+            if (from != null) {
+                predicate = criteriaBuilder.and(predicate,
+                        criteriaBuilder.greaterThanOrEqualTo(root.get("reportCreatedAt"), from));
+            }
+            if (to != null) {
+                predicate = criteriaBuilder.and(predicate,
+                        criteriaBuilder.lessThan(root.get("reportCreatedAt"), to));
+            }
             return predicate;
         };
     }
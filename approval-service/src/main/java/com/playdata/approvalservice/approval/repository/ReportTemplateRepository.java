@@ -13,4 +13,8 @@ public interface ReportTemplateRepository extends JpaRepository<ReportTemplate,
     List<ReportTemplate> findByCategoryId(@Param("categoryId") Long categoryId);
 
     List<ReportTemplate> findByCategoryId_categoryId(Long categoryIdCategoryId);
+
+    // 템플릿 캐시 적재용: 카테고리를 함께 가져와 지연 로딩 없이 한 번에 읽습니다.
+    @Query("SELECT rt FROM ReportTemplate rt JOIN FETCH rt.categoryId ORDER BY rt.templateId")
+    List<ReportTemplate> findAllWithCategory();
 }
@@ -6,6 +6,7 @@ import com.playdata.approvalservice.approval.entity.ReportStatus;
 
 import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,13 +14,24 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
-public interface ReportsRepository extends JpaRepository<Reports, Long>, JpaSpecificationExecutor<Reports> {
+public interface ReportsRepository extends JpaRepository<Reports, Long>, JpaSpecificationExecutor<Reports>, ReportsRepositoryCustom {
 
-    Page<Reports> findByWriterIdAndReportStatus(Long writerId, ReportStatus reportStatus, Pageable pageable);
+    /**
+     * 작성자/상태별 보고서 목록 (목록 컬럼만 읽는 프로젝션)
+     */
+    @Query(value = "SELECT new com.playdata.approvalservice.approval.repository.ReportListView(" +
+            "r.id, r.title, r.writerId, r.reportStatus, r.reportCreatedAt, r.currentApproverId, r.scheduledAt) " +
+            "FROM Reports r WHERE r.writerId = :writerId AND r.reportStatus = :reportStatus",
+            countQuery = "SELECT COUNT(r) FROM Reports r WHERE r.writerId = :writerId AND r.reportStatus = :reportStatus")
+    Page<ReportListView> findListViewsByWriterIdAndReportStatus(@Param("writerId") Long writerId,
+                                                                @Param("reportStatus") ReportStatus reportStatus,
+                                                                Pageable pageable);
 
     Optional<Reports> findByIdAndReportStatus(Long id, ReportStatus reportStatus);
 
@@ -30,39 +42,114 @@ public interface ReportsRepository extends JpaRepository<Reports, Long>, JpaSpec
     long countByWriterIdAndReportStatusIn(Long writerId, List<ReportStatus> statuses);    // 내가 쓴 문서 (상태별)
 
     /**
-     * 특정 보고서 ID를 시작으로 재상신 체인을 역추적하여, 재상신된 횟수(체인의 깊이)를 계산합니다.
-     * MySQL 8.0 이상에서 지원하는 재귀적 CTE를 사용합니다.
+     * 재상신 계보 전체를 재상신 순서대로 조회합니다. (chain_root_id 인덱스 + PK 조회)
+     *
+     * @param rootId 계보의 최초 보고서 ID
+     */
+    @Query("SELECT new com.playdata.approvalservice.approval.repository.ReportLineageView(" +
+            "r.id, r.previousReportId, r.resubmitDepth, r.title, r.reportStatus, r.reportCreatedAt, r.submittedAt, r.returnAt) " +
+            "FROM Reports r WHERE r.id = :rootId OR r.chainRootId = :rootId " +
+            "ORDER BY r.resubmitDepth, r.id")
+    List<ReportLineageView> findLineageByRootId(@Param("rootId") Long rootId);
+
+    /**
+     * 보고서의 이전(재상신 원본) 보고서 ID (계보 정보가 없는 기존 문서의 깊이 계산용)
+     */
+    @Query("SELECT r.previousReportId FROM Reports r WHERE r.id = :id")
+    Optional<Long> findPreviousReportIdById(@Param("id") Long id);
+
+    /**
+     * chain_root_id 가 채워지지 않은 기존 재상신 문서가 있는지 확인합니다.
+     */
+    boolean existsByPreviousReportIdIsNotNullAndChainRootIdIsNull();
+
+    /**
+     * previous_report_id 체인을 따라 chain_root_id 가 비어 있는 기존 재상신 문서의 chain_root_id / resubmit_depth 를 채웁니다.
+     * 재실행해도 같은 값으로 덮어쓰므로 안전합니다.
      *
-     * @param reportId 재상신 횟수를 계산할 기준 보고서의 ID
-     * @return 재상신 횟수 (자기 자신을 포함한 체인의 총 문서 개수 - 1)
+     * @return 갱신된 행 수
      */
+    @Modifying
     @Query(value =
-            "WITH RECURSIVE ResubmitChain AS (" +
-                    "    SELECT report_id, previous_report_id, 1 AS depth " +
-                    "    FROM reports " +
-                    "    WHERE report_id = :reportId " +
-                    "    UNION ALL " +
-                    "    SELECT r.report_id, r.previous_report_id, rc.depth + 1 " +
-                    "    FROM reports r " +
-                    "    INNER JOIN ResubmitChain rc ON r.report_id = rc.previous_report_id " +
-                    "    WHERE r.previous_report_id IS NOT NULL" +
-                    ") " +
-                    "SELECT MAX(depth) - 1 FROM ResubmitChain",
+            "UPDATE reports r " +
+                    "JOIN (" +
+                    "    WITH RECURSIVE chain AS (" +
+                    "        SELECT report_id, report_id AS root_id, 0 AS depth " +
+                    "        FROM reports WHERE previous_report_id IS NULL " +
+                    "        UNION ALL " +
+                    "        SELECT c.report_id, ch.root_id, ch.depth + 1 " +
+                    "        FROM reports c JOIN chain ch ON c.previous_report_id = ch.report_id" +
+                    "    ) " +
+                    "    SELECT report_id, root_id, depth FROM chain WHERE depth > 0" +
+                    ") x ON r.report_id = x.report_id " +
+                    "SET r.chain_root_id = x.root_id, r.resubmit_depth = x.depth " +
+                    "WHERE r.chain_root_id IS NULL",
             nativeQuery = true)
-    Integer countResubmitChainDepth(@Param("reportId") Long reportId);
+    int backfillResubmitChain();
 
     Page<Reports> findAll(Specification<Reports> spec, Pageable pageable);
 
-    List<Reports> findByPublishedFalseAndScheduledAtBefore(ZonedDateTime time);
+    /**
+     * 2단계 페이징의 2단계: ID 목록에 해당하는 보고서의 목록 컬럼만 조회합니다.
+     * 결재선은 ApprovalRepository.findLineViewsByReportIdIn 으로 한 번에 따로 조회합니다.
+     *
+     * @param ids 조회할 보고서 ID 목록
+     * @return 목록 프로젝션 (순서 보장 없음)
+     */
+    @Query("SELECT new com.playdata.approvalservice.approval.repository.ReportListView(" +
+            "r.id, r.title, r.writerId, r.reportStatus, r.reportCreatedAt, r.currentApproverId, r.scheduledAt) " +
+            "FROM Reports r WHERE r.id IN :ids")
+    List<ReportListView> findListViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 첨부파일 접근 권한 구성에 필요한 작성자와 첨부 목록만 조회합니다. (결재선/본문 로딩 없음)
+     */
+    @Query("SELECT new com.playdata.approvalservice.approval.repository.ReportAclView(r.writerId, r.detail) " +
+            "FROM Reports r WHERE r.id = :id")
+    Optional<ReportAclView> findAclViewById(@Param("id") Long id);
+
+    /**
+     * ID 목록에 해당하는 보고서와 결재선을 한 번의 쿼리로 함께 조회합니다. (일괄 결재용)
+     */
+    @EntityGraph(attributePaths = "approvalLines")
+    @Query("SELECT r FROM Reports r WHERE r.id IN :ids")
+    List<Reports> findAllWithApprovalLinesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 예약 발행 대상(예약 시간이 지난 SCHEDULED 문서)을 최대 limit 건까지 잠그고 ID를 반환합니다.
+     * 다른 트랜잭션이 이미 잠근 행은 기다리지 않고 건너뜁니다. (MySQL 8 FOR UPDATE SKIP LOCKED)
+     */
+    @Query(value =
+            "SELECT r.report_id FROM reports r " +
+                    "WHERE r.report_status = 'SCHEDULED' AND r.published = false AND r.scheduled_at <= :now " +
+                    "ORDER BY r.scheduled_at, r.report_id " +
+                    "LIMIT :limit " +
+                    "FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<Long> claimDueScheduledReportIds(@Param("now") ZonedDateTime now, @Param("limit") int limit);
 
+    @Query("SELECT r.scheduledAt FROM Reports r WHERE r.id IN :ids")
+    List<ZonedDateTime> findScheduledAtByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 잠근 예약 문서들을 한 번의 UPDATE 로 발행(IN_PROGRESS) 처리합니다.
+     * 현재 결재자는 결재 순서가 가장 빠른 결재자로 설정합니다. (Reports.publish 와 동일한 규칙)
+     *
+     * @return 발행된 행 수
+     */
+    @Modifying
+    @Query(value =
+            "UPDATE reports r SET " +
+                    "   r.report_status = 'IN_PROGRESS', " +
+                    "   r.published = true, " +
+                    "   r.report_submitted_at = :submittedAt, " +
+                    "   r.version = COALESCE(r.version, 0) + 1, " +
+                    "   r.report_current_approver_id = (" +
+                    "       SELECT al.employee_id FROM approval_line al " +
+                    "       WHERE al.report_approval_id = r.report_id " +
+                    "       ORDER BY al.approval_context LIMIT 1) " +
+                    "WHERE r.report_id IN (:ids) AND r.report_status = 'SCHEDULED' AND r.published = false",
+            nativeQuery = true)
+    int publishScheduledReports(@Param("ids") Collection<Long> ids, @Param("submittedAt") LocalDateTime submittedAt);
 
-    @Query("SELECT " +
-            "   COUNT(CASE WHEN r.reportStatus = 'IN_PROGRESS' AND r.currentApproverId = :userId THEN 1 END), " +
-            "   COUNT(CASE WHEN r.reportStatus = 'IN_PROGRESS' AND r.writerId = :userId THEN 1 END), " +
-            "   COUNT(CASE WHEN r.reportStatus = 'REJECTED' AND r.writerId = :userId THEN 1 END), " +
-            "   COUNT(CASE WHEN r.reportStatus = 'DRAFT' AND r.writerId = :userId THEN 1 END), " +
-            "   COUNT(CASE WHEN r.reportStatus = 'SCHEDULED' AND r.writerId = :userId THEN 1 END), " +
-            "   (SELECT COUNT(rr) FROM ReportReferences rr WHERE rr.reports.id IN (SELECT r.id FROM Reports r WHERE rr.employeeId = :userId)) " +
-            "FROM Reports r")
-    Object[] countAllByUserId(@Param("userId") Long userId);
 }
@@ -0,0 +1,66 @@
+package com.playdata.approvalservice.approval.repository;
+
+import com.playdata.approvalservice.approval.entity.Reports;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Spring Data 파생 쿼리로 표현하기 어려운 보고서 조회 쿼리 모음
+ */
+public interface ReportsRepositoryCustom {
+
+    /**
+     * 2단계 페이징의 1단계: 조건에 맞는 보고서 ID만 페이지 단위로 조회합니다.
+     * 엔티티 전체 컬럼 대신 PK만 읽고, 카운트 쿼리는 필요한 경우에만 실행합니다.
+     *
+     * @param spec     검색 조건
+     * @param pageable 페이지/정렬 정보
+     * @return 보고서 ID 페이지 (정렬 순서 유지)
+     */
+    Page<Long> findReportIds(Specification<Reports> spec, Pageable pageable);
+
+    /**
+     * 조건에 맞는 보고서 ID를 FULLTEXT 관련도 순(동점이면 ID 내림차순)으로 페이지 단위로 조회합니다.
+     *
+     * @param spec          검색 조건 (같은 검색식의 FULLTEXT 조건 포함)
+     * @param fullTextQuery 관련도 계산에 사용할 BOOLEAN MODE 검색식
+     * @param pageable      페이지 정보 (정렬은 무시)
+     */
+    Page<Long> findReportIdsByRelevance(Specification<Reports> spec, String fullTextQuery, Pageable pageable);
+
+    /**
+     * 커서(keyset) 페이징: (reportCreatedAt, id) 기준으로 커서 다음 위치의 보고서 키를 조회합니다.
+     * OFFSET 없이 인덱스 범위 스캔으로 읽으므로 페이지 깊이와 무관하게 일정한 비용이 듭니다.
+     *
+     * @param spec      검색 조건
+     * @param createdAt 커서의 작성일시 (첫 페이지면 null)
+     * @param id        커서의 보고서 ID (첫 페이지면 null)
+     * @param direction 정렬 방향
+     * @param limit     최대 조회 건수
+     * @return (id, reportCreatedAt) 목록 (정렬 순서 유지)
+     */
+    List<ReportKey> findReportKeysAfter(Specification<Reports> spec, LocalDateTime createdAt, Long id,
+                                       Sort.Direction direction, int limit);
+
+    /**
+     * 조건에 맞는 보고서를 forward-only JDBC 커서로 한 행씩 읽어 consumer 에 전달합니다. (내보내기용)
+     * 트랜잭션 없이 StatelessSession 으로 읽으므로 영속성 컨텍스트에 쌓이지 않고, 메모리 사용량이 행 수와 무관합니다.
+     *
+     * @param spec      검색 조건
+     * @param fetchSize JDBC fetch size (MySQL 은 Integer.MIN_VALUE 면 행 단위 스트리밍)
+     * @param consumer  행 처리기 (ID 오름차순으로 호출)
+     */
+    void streamExportRows(Specification<Reports> spec, int fetchSize, Consumer<ReportExportRow> consumer);
+
+    /**
+     * 커서 페이징에 사용하는 보고서 정렬 키
+     */
+    record ReportKey(Long id, LocalDateTime reportCreatedAt) {
+    }
+}
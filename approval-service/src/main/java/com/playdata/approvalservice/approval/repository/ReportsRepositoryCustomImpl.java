@@ -0,0 +1,177 @@
+package com.playdata.approvalservice.approval.repository;
+
+import com.playdata.approvalservice.approval.entity.ReportStatus;
+import com.playdata.approvalservice.approval.entity.Reports;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceUnit;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+public class ReportsRepositoryCustomImpl implements ReportsRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @PersistenceUnit
+    private EntityManagerFactory emf;
+
+    @Override
+    public Page<Long> findReportIds(Specification<Reports> spec, Pageable pageable) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+
+        // 1) 페이지에 해당하는 보고서 ID만 조회 (SELECT r.report_id ... ORDER BY ... LIMIT ?, ?)
+        CriteriaQuery<Long> idQuery = cb.createQuery(Long.class);
+        Root<Reports> root = idQuery.from(Reports.class);
+        Predicate predicate = spec.toPredicate(root, idQuery, cb);
+        idQuery.select(root.get("id"));
+        if (predicate != null) {
+            idQuery.where(predicate);
+        }
+        if (pageable.getSort().isSorted()) {
+            idQuery.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+
+        List<Long> ids = em.createQuery(idQuery)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        // 2) 전체 개수는 마지막 페이지가 아닌 경우 등 꼭 필요할 때만 COUNT 실행
+        return PageableExecutionUtils.getPage(ids, pageable, () -> count(spec));
+    }
+
+    @Override
+    public Page<Long> findReportIdsByRelevance(Specification<Reports> spec, String fullTextQuery, Pageable pageable) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> idQuery = cb.createQuery(Long.class);
+        Root<Reports> root = idQuery.from(Reports.class);
+        Predicate predicate = spec.toPredicate(root, idQuery, cb);
+        idQuery.select(root.get("id"));
+        if (predicate != null) {
+            idQuery.where(predicate);
+        }
+        idQuery.orderBy(
+                cb.desc(ReportSpecifications.relevance(root, cb, fullTextQuery)),
+                cb.desc(root.get("id")));
+
+        List<Long> ids = em.createQuery(idQuery)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        return PageableExecutionUtils.getPage(ids, pageable, () -> count(spec));
+    }
+
+    @Override
+    public List<ReportKey> findReportKeysAfter(Specification<Reports> spec, LocalDateTime createdAt, Long id,
+                                              Sort.Direction direction, int limit) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Reports> root = query.from(Reports.class);
+
+        Expression<LocalDateTime> createdAtPath = root.get("reportCreatedAt");
+        Expression<Long> idPath = root.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        Predicate specPredicate = spec.toPredicate(root, query, cb);
+        if (specPredicate != null) {
+            predicates.add(specPredicate);
+        }
+        if (createdAt != null && id != null) {
+            // DESC: (createdAt < c) OR (createdAt = c AND id < i) / ASC 는 부등호 반대
+            boolean desc = direction.isDescending();
+            predicates.add(cb.or(
+                    desc ? cb.lessThan(createdAtPath, createdAt) : cb.greaterThan(createdAtPath, createdAt),
+                    cb.and(
+                            cb.equal(createdAtPath, createdAt),
+                            desc ? cb.lessThan(idPath, id) : cb.greaterThan(idPath, id))
+            ));
+        }
+
+        query.multiselect(idPath, createdAtPath)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(direction.isDescending()
+                        ? List.of(cb.desc(createdAtPath), cb.desc(idPath))
+                        : List.of(cb.asc(createdAtPath), cb.asc(idPath)));
+
+        return em.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList().stream()
+                .map(t -> new ReportKey(t.get(0, Long.class), t.get(1, LocalDateTime.class)))
+                .toList();
+    }
+
+    @Override
+    public void streamExportRows(Specification<Reports> spec, int fetchSize, Consumer<ReportExportRow> consumer) {
+        SessionFactory sessionFactory = emf.unwrap(SessionFactory.class);
+        // 1차 캐시 없이 단일 SELECT 를 커서로 읽습니다. (엔티티 누적 없음)
+        // 커넥션은 호출 시점의 트랜잭션 속성으로 라우팅되므로, readOnly 트랜잭션 안에서 호출하면 복제본에서 읽습니다.
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            CriteriaBuilder cb = session.getCriteriaBuilder();
+            CriteriaQuery<Tuple> query = cb.createTupleQuery();
+            Root<Reports> root = query.from(Reports.class);
+            Predicate predicate = spec.toPredicate(root, query, cb);
+
+            query.multiselect(
+                    root.get("id"), root.get("title"), root.get("reportStatus"), root.get("writerId"),
+                    root.get("currentApproverId"), root.get("reportCreatedAt"), root.get("submittedAt"),
+                    root.get("completedAt"), root.get("returnAt"));
+            if (predicate != null) {
+                query.where(predicate);
+            }
+            query.orderBy(cb.asc(root.get("id")));
+
+            try (ScrollableResults<Tuple> rows = session.createQuery(query)
+                    .setReadOnly(true)
+                    .setFetchSize(fetchSize)
+                    .scroll(ScrollMode.FORWARD_ONLY)) {
+                while (rows.next()) {
+                    Tuple t = rows.get();
+                    consumer.accept(new ReportExportRow(
+                            t.get(0, Long.class),
+                            t.get(1, String.class),
+                            t.get(2, ReportStatus.class),
+                            t.get(3, Long.class),
+                            t.get(4, Long.class),
+                            t.get(5, LocalDateTime.class),
+                            t.get(6, LocalDateTime.class),
+                            t.get(7, LocalDateTime.class),
+                            t.get(8, LocalDateTime.class)));
+                }
+            }
+        }
+    }
+
+    private long count(Specification<Reports> spec) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+        Root<Reports> root = countQuery.from(Reports.class);
+        Predicate predicate = spec.toPredicate(root, countQuery, cb);
+        countQuery.select(cb.count(root));
+        if (predicate != null) {
+            countQuery.where(predicate);
+        }
+        return em.createQuery(countQuery).getSingleResult();
+    }
+}
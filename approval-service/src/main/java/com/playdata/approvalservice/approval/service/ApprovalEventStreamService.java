@@ -0,0 +1,253 @@
+package com.playdata.approvalservice.approval.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.playdata.approvalservice.approval.dto.response.ApprovalNotificationResDto;
+import com.playdata.approvalservice.approval.entity.ApprovalOutboxEvent;
+import com.playdata.approvalservice.approval.repository.ApprovalOutboxRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 결재함 변경 이벤트 SSE 스트림
+ *
+ * ApprovalNotificationDispatcher 가 수신자별 Redis 채널(approval:notifications:{id})로 발행한 알림을
+ * 모든 인스턴스가 패턴 구독으로 받아, 이 인스턴스에 연결된 해당 직원의 SSE 연결로만 전달합니다.
+ * 연결이 없는 직원은 DB 부하가 전혀 없고, 프론트는 이벤트를 받았을 때만 카운트/목록을 다시 조회하면 됩니다.
+ *
+ * - 이벤트 id 는 아웃박스 ID 이며, 재연결 시 Last-Event-ID 이후의 알림을 아웃박스에서 다시 보내 줍니다.
+ *   발송기는 완료 처리(SENT) 전에 pub/sub 으로 발행하므로, 그 사이에 재연결한 클라이언트가 놓치지 않도록
+ *   아직 발송 중(PENDING)인 알림도 재전송합니다. (라이브로 다시 오면 이벤트 ID 로 걸러냅니다)
+ *   (놓친 알림이 replay-limit 을 넘으면 개별 재전송 대신 resync 이벤트로 전체 재조회를 요청합니다)
+ * - 프록시/로드밸런서가 유휴 연결을 끊지 않도록 주기적으로 heartbeat 주석을 보냅니다.
+ *   (모든 소켓에 쓰는 작업이라 공용 @Scheduled 스레드를 막지 않도록 전용 스레드에서 실행)
+ * - 알림은 at-least-once 이므로 클라이언트는 같은 id 를 중복 처리하지 않아야 합니다.
+ */
+@Slf4j
+@Service
+public class ApprovalEventStreamService implements MessageListener {
+
+    public static final String CONNECTED_EVENT = "CONNECTED";
+    public static final String RESYNC_EVENT = "RESYNC";
+
+    private final ApprovalOutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    // 직원 ID → 이 인스턴스에 열린 연결들 (여러 탭)
+    private final Map<Long, List<Connection>> connections = new ConcurrentHashMap<>();
+
+    // 연결 최대 유지 시간 (끝나면 브라우저가 Last-Event-ID 로 재연결)
+    @Value("${approval.sse.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    // 클라이언트 재연결 대기 시간 (SSE retry 필드)
+    @Value("${approval.sse.reconnect-ms:3000}")
+    private long reconnectMs;
+
+    @Value("${approval.sse.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+
+    // 재연결 시 개별로 다시 보내 줄 최대 알림 수
+    @Value("${approval.sse.replay-limit:100}")
+    private int replayLimit;
+
+    @Value("${approval.sse.heartbeat-interval-ms:20000}")
+    private long heartbeatIntervalMs;
+
+    private final ScheduledExecutorService heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "sse-heartbeat");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public ApprovalEventStreamService(ApprovalOutboxRepository outboxRepository,
+                                      ObjectMapper objectMapper,
+                                      RedisMessageListenerContainer listenerContainer,
+                                      MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+        this.listenerContainer = listenerContainer;
+        Gauge.builder("approval.sse.connections", connections,
+                        map -> map.values().stream().mapToInt(List::size).sum())
+                .description("이 인스턴스에 열린 결재 이벤트 SSE 연결 수")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(this,
+                new PatternTopic(ApprovalNotificationDispatcher.CHANNEL_PREFIX + "*"));
+        heartbeatExecutor.scheduleWithFixedDelay(this::heartbeat,
+                heartbeatIntervalMs, heartbeatIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 직원의 결재 이벤트 스트림을 엽니다.
+     *
+     * @param employeeId  직원 ID
+     * @param lastEventId 재연결 시 마지막으로 받은 이벤트 ID (Last-Event-ID, 없으면 null)
+     */
+    public SseEmitter connect(Long employeeId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Connection connection = new Connection(employeeId, emitter);
+        emitter.onCompletion(() -> remove(connection));
+        emitter.onTimeout(() -> remove(connection));
+        emitter.onError(e -> remove(connection));
+
+        // 라이브 이벤트가 재전송보다 먼저 나가지 않도록, 등록 후 재전송이 끝날 때까지 연결을 잠급니다.
+        synchronized (connection) {
+            List<Connection> evicted = new ArrayList<>();
+            connections.compute(employeeId, (id, list) -> {
+                List<Connection> userConnections = list != null ? list : new CopyOnWriteArrayList<>();
+                userConnections.add(connection);
+                while (userConnections.size() > maxConnectionsPerUser) {
+                    evicted.add(userConnections.remove(0));
+                }
+                return userConnections;
+            });
+            evicted.forEach(c -> c.emitter.complete());
+
+            if (!connection.send(SseEmitter.event()
+                    .name(CONNECTED_EVENT)
+                    .reconnectTime(reconnectMs)
+                    .data(Map.of("employeeId", employeeId)))) {
+                return emitter;
+            }
+            if (lastEventId != null) {
+                replay(connection, lastEventId);
+            }
+        }
+        return emitter;
+    }
+
+    /**
+     * Redis 로 받은 수신자별 알림을 이 인스턴스의 해당 직원 연결로 전달합니다.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        ApprovalNotificationResDto notification;
+        try {
+            notification = objectMapper.readValue(message.getBody(), ApprovalNotificationResDto.class);
+        } catch (IOException e) {
+            log.warn("[SSE] 알림 메시지 파싱 실패", e);
+            return;
+        }
+        List<Connection> targets = connections.get(notification.getRecipientId());
+        if (targets == null || targets.isEmpty() || notification.getEvents() == null) {
+            return;
+        }
+        for (Connection connection : targets) {
+            synchronized (connection) {
+                for (ApprovalNotificationResDto.EventDto event : notification.getEvents()) {
+                    // 재연결 재전송으로 이미 보낸 알림이면 생략
+                    if (connection.replayedIds.contains(event.getEventId())) {
+                        continue;
+                    }
+                    if (!connection.send(toSseEvent(event))) {
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 유휴 연결이 프록시에서 끊기지 않도록 주석(heartbeat)을 보내고, 끊긴 연결을 정리합니다.
+     */
+    void heartbeat() {
+        try {
+            connections.values().forEach(list -> list.forEach(connection -> {
+                synchronized (connection) {
+                    connection.send(SseEmitter.event().comment("heartbeat"));
+                }
+            }));
+        } catch (Exception e) {
+            // 예외가 밖으로 나가면 이후 실행이 취소되므로 여기서 끝냅니다.
+            log.warn("[SSE] heartbeat 전송 중 오류", e);
+        }
+    }
+
+    @PreDestroy
+    void closeAll() {
+        heartbeatExecutor.shutdownNow();
+        // 종료 시 연결을 닫아 브라우저가 다른 인스턴스로 재연결하게 합니다.
+        connections.values().forEach(list -> list.forEach(c -> c.emitter.complete()));
+        connections.clear();
+    }
+
+    private void replay(Connection connection, Long lastEventId) {
+        List<ApprovalOutboxEvent> missed = outboxRepository.findReplayableAfter(
+                connection.employeeId, lastEventId, PageRequest.of(0, replayLimit + 1));
+        if (missed.size() > replayLimit) {
+            log.debug("[SSE] 놓친 알림이 {}건을 넘어 전체 재조회를 요청합니다: employeeId={}", replayLimit, connection.employeeId);
+            connection.send(SseEmitter.event().name(RESYNC_EVENT).data(Map.of("reason", "too-many-missed-events")));
+            return;
+        }
+        for (ApprovalOutboxEvent event : missed) {
+            connection.replayedIds.add(event.getId());
+            if (!connection.send(toSseEvent(ApprovalNotificationResDto.EventDto.from(event)))) {
+                return;
+            }
+        }
+    }
+
+    private SseEmitter.SseEventBuilder toSseEvent(ApprovalNotificationResDto.EventDto event) {
+        return SseEmitter.event()
+                .id(String.valueOf(event.getEventId()))
+                .name(event.getEventType().name())
+                .data(event);
+    }
+
+    private void remove(Connection connection) {
+        connections.computeIfPresent(connection.employeeId, (id, list) -> {
+            list.remove(connection);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    private final class Connection {
+        private final Long employeeId;
+        private final SseEmitter emitter;
+        // 재연결 시 재전송한 이벤트 ID (같은 알림이 라이브로 다시 오면 생략)
+        private final Set<Long> replayedIds = new HashSet<>();
+
+        private Connection(Long employeeId, SseEmitter emitter) {
+            this.employeeId = employeeId;
+            this.emitter = emitter;
+        }
+
+        /**
+         * @return 전송 성공 여부 (실패하면 연결을 닫고 정리합니다)
+         */
+        private boolean send(SseEmitter.SseEventBuilder event) {
+            try {
+                emitter.send(event);
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                // 클라이언트가 연결을 끊은 경우
+                remove(this);
+                emitter.completeWithError(e);
+                return false;
+            }
+        }
+    }
+}
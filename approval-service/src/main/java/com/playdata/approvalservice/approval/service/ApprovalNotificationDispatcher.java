@@ -0,0 +1,340 @@
+package com.playdata.approvalservice.approval.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.playdata.approvalservice.approval.dto.response.ApprovalNotificationResDto;
+import com.playdata.approvalservice.approval.entity.ApprovalOutboxEvent;
+import com.playdata.approvalservice.approval.feign.EmployeeFeignClient;
+import com.playdata.approvalservice.approval.repository.ApprovalOutboxRepository;
+import com.playdata.approvalservice.common.dto.EmployeeResDto;
+import com.playdata.approvalservice.common.lock.RedisLease;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * 결재 알림 아웃박스 발송기
+ *
+ * 주기적으로 발송할 아웃박스 행을 잠가서(SKIP LOCKED) 가져오고, 트랜잭션 밖에서 수신자별로 묶어
+ * 이메일 한 통 + Redis pub/sub 메시지 한 건으로 발송합니다.
+ * 메일(SMTP)/직원 조회(Feign)는 느릴 수 있으므로 수신자별 발송은 전용 스레드 풀에서 동시에 수행하고,
+ * 배치 전체를 기다리는 시간은 delivery-timeout-seconds 로 제한합니다. (끝나지 않은 수신자는 실패로 처리)
+ * pub/sub 발행과 이메일은 따로 기록합니다. 발행한 행은 pushed_at 을 남겨 재시도 때는 이메일만 다시 보내며,
+ * 실패한 수신자의 행은 지수 백오프로 다시 대기시키고, 최대 횟수를 넘기면 FAILED 로 남깁니다.
+ * (at-least-once: 발송 직후 완료 처리 전에 인스턴스가 죽으면 같은 알림이 한 번 더 갈 수 있습니다)
+ */
+@Slf4j
+@Service
+public class ApprovalNotificationDispatcher {
+
+    // 수신자별 알림 채널 (approval:notifications:{employeeId})
+    public static final String CHANNEL_PREFIX = "approval:notifications:";
+    private static final String PURGE_LEASE = "approval-outbox-purge";
+
+    private final ApprovalOutboxRepository outboxRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final JavaMailSender mailSender;
+    private final EmployeeFeignClient employeeFeignClient;
+    private final ObjectMapper objectMapper;
+    private final RedisLease redisLease;
+
+    private final Counter deliveredEvents;
+    private final Counter failedDeliveries;
+
+    // 한 번에 가져올 최대 아웃박스 행 수
+    @Value("${approval.outbox.batch-size:200}")
+    private int batchSize;
+
+    // 가져간 행을 다른 인스턴스가 다시 가져가지 않도록 미루는 시간
+    @Value("${approval.outbox.lease-seconds:300}")
+    private long leaseSeconds;
+
+    @Value("${approval.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    // 재시도 대기 기본값 (시도마다 두 배)
+    @Value("${approval.outbox.backoff-seconds:30}")
+    private long backoffSeconds;
+
+    @Value("${approval.outbox.email-enabled:true}")
+    private boolean emailEnabled;
+
+    @Value("${approval.outbox.retention-days:7}")
+    private long retentionDays;
+
+    @Value("${spring.mail.username}")
+    private String mailFrom;
+
+    // 수신자별 발송(메일/Feign)을 동시에 수행할 스레드 수
+    @Value("${approval.outbox.delivery-threads:4}")
+    private int deliveryThreads;
+
+    // 한 배치의 수신자별 발송을 기다리는 최대 시간
+    @Value("${approval.outbox.delivery-timeout-seconds:60}")
+    private long deliveryTimeoutSeconds;
+
+    private ExecutorService deliveryExecutor;
+
+    // 자기 자신을 주입받기 위한 필드 (Lazy 로딩으로 순환참조 방지)
+    @Autowired
+    @Lazy
+    private ApprovalNotificationDispatcher self;
+
+    public ApprovalNotificationDispatcher(ApprovalOutboxRepository outboxRepository,
+                                          StringRedisTemplate stringRedisTemplate,
+                                          JavaMailSender mailSender,
+                                          EmployeeFeignClient employeeFeignClient,
+                                          ObjectMapper objectMapper,
+                                          RedisLease redisLease,
+                                          MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.mailSender = mailSender;
+        this.employeeFeignClient = employeeFeignClient;
+        this.objectMapper = objectMapper;
+        this.redisLease = redisLease;
+        this.deliveredEvents = Counter.builder("approval.outbox.delivered")
+                .description("발송 완료된 결재 알림 이벤트 수")
+                .register(meterRegistry);
+        this.failedDeliveries = Counter.builder("approval.outbox.failed")
+                .description("발송에 실패한 수신자 묶음 수 (재시도 포함)")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    private void initialize() {
+        AtomicInteger seq = new AtomicInteger();
+        this.deliveryExecutor = Executors.newFixedThreadPool(deliveryThreads, r -> {
+            Thread t = new Thread(r, "outbox-delivery-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    private void close() {
+        deliveryExecutor.shutdown();
+    }
+
+    @Scheduled(fixedDelayString = "${approval.outbox.poll-interval-ms:2000}")
+    public void dispatch() {
+        List<ApprovalOutboxEvent> batch;
+        try {
+            batch = self.claimBatch(batchSize);
+        } catch (Exception e) {
+            log.error("[알림 발송] 아웃박스 조회 실패", e);
+            return;
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        // 수신자별로 묶어서 한 번씩만 발송
+        Map<Long, List<ApprovalOutboxEvent>> byRecipient = batch.stream()
+                .collect(Collectors.groupingBy(ApprovalOutboxEvent::getRecipientId, LinkedHashMap::new, Collectors.toList()));
+
+        // 수신자별 발송은 전용 풀에서 동시에 수행하고, 결과는 모두 끝난 뒤 한 번에 반영합니다.
+        Set<Long> pushedIds = ConcurrentHashMap.newKeySet();
+        Map<Long, CompletableFuture<Void>> deliveries = new LinkedHashMap<>();
+        byRecipient.forEach((recipientId, events) -> deliveries.put(recipientId, CompletableFuture.runAsync(() -> {
+            try {
+                deliver(recipientId, events, pushedIds);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, deliveryExecutor)));
+        awaitDeliveries(deliveries.values());
+
+        List<Long> sentIds = new ArrayList<>();
+        Map<Long, String> failedIds = new HashMap<>();
+        deliveries.forEach((recipientId, delivery) -> {
+            List<ApprovalOutboxEvent> events = byRecipient.get(recipientId);
+            Throwable error = failureOf(delivery);
+            if (error == null) {
+                events.forEach(e -> sentIds.add(e.getId()));
+                return;
+            }
+            log.warn("[알림 발송] 수신자 {} 에게 {}건 발송 실패", recipientId, events.size(), error);
+            failedDeliveries.increment();
+            events.forEach(ev -> failedIds.put(ev.getId(), error.getClass().getSimpleName() + ": " + error.getMessage()));
+        });
+
+        try {
+            self.complete(sentIds, pushedIds, failedIds);
+            deliveredEvents.increment(sentIds.size());
+        } catch (Exception e) {
+            // 완료 처리에 실패해도 리스가 끝나면 다시 발송됩니다.
+            log.error("[알림 발송] 발송 결과 반영 실패 (sent={}, failed={})", sentIds.size(), failedIds.size(), e);
+        }
+    }
+
+    /**
+     * 배치의 모든 발송이 끝날 때까지 최대 delivery-timeout-seconds 만큼 기다립니다.
+     * 개별 실패/시간 초과는 failureOf 에서 판단합니다.
+     */
+    private void awaitDeliveries(Collection<CompletableFuture<Void>> deliveries) {
+        try {
+            CompletableFuture.allOf(deliveries.toArray(CompletableFuture[]::new))
+                    .get(deliveryTimeoutSeconds, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            log.warn("[알림 발송] {}초 안에 끝나지 않은 발송은 실패로 처리합니다.", deliveryTimeoutSeconds);
+        } catch (ExecutionException e) {
+            // 개별 실패는 수신자별로 처리합니다.
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 발송 결과의 실패 원인 (성공이면 null, 아직 끝나지 않았으면 시간 초과)
+     */
+    private Throwable failureOf(CompletableFuture<Void> delivery) {
+        if (!delivery.isDone()) {
+            return new TimeoutException("발송 시간 초과 (" + deliveryTimeoutSeconds + "s)");
+        }
+        try {
+            delivery.join();
+            return null;
+        } catch (CompletionException ce) {
+            return ce.getCause() != null ? ce.getCause() : ce;
+        } catch (CancellationException e) {
+            return e;
+        }
+    }
+
+    /**
+     * 발송할 행을 잠그고, 시도 횟수를 올려 리스 시간만큼 미룬 뒤 반환합니다.
+     */
+    @Transactional
+    public List<ApprovalOutboxEvent> claimBatch(int limit) {
+        List<Long> ids = outboxRepository.claimDueIds(LocalDateTime.now(), limit);
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        outboxRepository.lease(ids, LocalDateTime.now().plusSeconds(leaseSeconds));
+        return outboxRepository.findAllById(ids);
+    }
+
+    /**
+     * 발송 결과 반영: 발행한 행은 pushed_at 기록, 성공은 SENT, 실패는 백오프 후 재시도 대기 (또는 FAILED)
+     */
+    @Transactional
+    public void complete(List<Long> sentIds, Collection<Long> pushedIds, Map<Long, String> failedIds) {
+        if (!pushedIds.isEmpty()) {
+            outboxRepository.markPushed(pushedIds, LocalDateTime.now());
+        }
+        if (!sentIds.isEmpty()) {
+            outboxRepository.markSent(sentIds, LocalDateTime.now());
+        }
+        if (!failedIds.isEmpty()) {
+            Duration backoff = Duration.ofSeconds(backoffSeconds);
+            outboxRepository.findAllById(failedIds.keySet())
+                    .forEach(e -> e.failAttempt(failedIds.get(e.getId()), maxAttempts, backoff));
+        }
+    }
+
+    /**
+     * 보관 기간이 지난 발송 완료 행을 정리합니다. (한 인스턴스에서만 실행)
+     */
+    @Scheduled(cron = "${approval.outbox.purge-cron:0 30 4 * * *}")
+    public void purgeSent() {
+        Optional<String> lease = redisLease.tryAcquire(PURGE_LEASE, Duration.ofMinutes(10));
+        if (lease.isEmpty()) {
+            return;
+        }
+        try {
+            int deleted = self.deleteSentBefore(LocalDateTime.now().minusDays(retentionDays));
+            log.info("[알림 발송] 발송 완료 아웃박스 {}건 정리", deleted);
+        } finally {
+            redisLease.release(PURGE_LEASE, lease.get());
+        }
+    }
+
+    @Transactional
+    public int deleteSentBefore(LocalDateTime before) {
+        return outboxRepository.deleteSentBefore(before);
+    }
+
+    /**
+     * 한 수신자에게 묶인 이벤트를 Redis pub/sub 메시지 한 건과 이메일 한 통으로 발송합니다.
+     * 아직 발행하지 않은 이벤트만 발행하고 pushedIds 에 기록하므로, 이메일 실패로 재시도될 때 같은 메시지가 다시 발행되지 않습니다.
+     */
+    private void deliver(Long recipientId, List<ApprovalOutboxEvent> events, Set<Long> pushedIds) throws Exception {
+        List<ApprovalOutboxEvent> unpushed = events.stream()
+                .filter(e -> e.getPushedAt() == null)
+                .toList();
+        if (!unpushed.isEmpty()) {
+            ApprovalNotificationResDto notification = ApprovalNotificationResDto.builder()
+                    .recipientId(recipientId)
+                    .events(distinct(unpushed).stream()
+                            .map(ApprovalNotificationResDto.EventDto::from)
+                            .collect(Collectors.toList()))
+                    .build();
+            stringRedisTemplate.convertAndSend(CHANNEL_PREFIX + recipientId, objectMapper.writeValueAsString(notification));
+            unpushed.forEach(e -> pushedIds.add(e.getId()));
+        }
+
+        if (emailEnabled) {
+            sendEmail(recipientId, distinct(events));
+        }
+    }
+
+    /**
+     * 같은 문서의 같은 이벤트는 한 번만 알림
+     */
+    private static List<ApprovalOutboxEvent> distinct(List<ApprovalOutboxEvent> events) {
+        return new ArrayList<>(events.stream()
+                .collect(Collectors.toMap(e -> e.getEventType() + ":" + e.getReportId(), e -> e,
+                        (a, b) -> a, LinkedHashMap::new))
+                .values());
+    }
+
+    private void sendEmail(Long recipientId, List<ApprovalOutboxEvent> events) {
+        EmployeeResDto employee = employeeFeignClient.getById(recipientId).getBody();
+        if (employee == null || employee.getEmail() == null || employee.getEmail().isBlank()) {
+            log.debug("[알림 발송] 이메일 주소가 없어 메일을 생략합니다: employeeId={}", recipientId);
+            return;
+        }
+
+        StringBuilder text = new StringBuilder();
+        text.append(employee.getName() != null ? employee.getName() : "").append("님, 전자결재 알림이 ")
+                .append(events.size()).append("건 있습니다.\n\n");
+        events.forEach(e -> text.append("- ").append(describe(e)).append('\n'));
+
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(mailFrom);
+        message.setTo(employee.getEmail());
+        message.setSubject(events.size() == 1
+                ? "[전자결재] " + describe(events.get(0))
+                : "[전자결재] 새 알림 " + events.size() + "건");
+        message.setText(text.toString());
+        mailSender.send(message);
+    }
+
+    private String describe(ApprovalOutboxEvent event) {
+        String title = event.getReportTitle() != null ? event.getReportTitle() : "(제목 없음)";
+        return switch (event.getEventType()) {
+            case APPROVAL_REQUESTED -> "결재 요청: " + title;
+            case APPROVED -> "최종 승인: " + title;
+            case REJECTED -> "반려: " + title;
+            case RECALLED -> "회수: " + title;
+        };
+    }
+}
@@ -0,0 +1,86 @@
+package com.playdata.approvalservice.approval.service;
+
+import com.playdata.approvalservice.approval.entity.ApprovalEventType;
+import com.playdata.approvalservice.approval.entity.ApprovalOutboxEvent;
+import com.playdata.approvalservice.approval.entity.ReportStatus;
+import com.playdata.approvalservice.approval.entity.Reports;
+import com.playdata.approvalservice.approval.repository.ApprovalOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 결재 상태 전이를 알림 아웃박스에 기록합니다.
+ * 상태 변경과 같은 트랜잭션에서 행만 추가하므로 결재 처리 시간은 알림 발송과 무관합니다.
+ * 실제 발송은 ApprovalNotificationDispatcher 가 담당합니다.
+ */
+@Service
+@RequiredArgsConstructor
+public class ApprovalOutboxService {
+
+    private final ApprovalOutboxRepository outboxRepository;
+
+    /**
+     * 변경 전 상태를 캡처합니다. (새로 만든 보고서는 TransitionState.NONE)
+     */
+    public TransitionState capture(Reports report) {
+        return new TransitionState(report.getReportStatus(), report.getCurrentApproverId());
+    }
+
+    /**
+     * 변경 전후 상태를 비교해 필요한 알림을 아웃박스에 추가합니다.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransition(TransitionState before, Reports after) {
+        ReportStatus status = after.getReportStatus();
+        List<ApprovalOutboxEvent> events = new ArrayList<>();
+
+        switch (status) {
+            case IN_PROGRESS -> {
+                // 결재 차례가 새로 돌아온 사람에게만 알림 (상신 또는 이전 결재자 승인)
+                boolean newTurn = before.status() != ReportStatus.IN_PROGRESS
+                        || !Objects.equals(before.currentApproverId(), after.getCurrentApproverId());
+                if (newTurn && after.getCurrentApproverId() != null) {
+                    events.add(ApprovalOutboxEvent.pending(
+                            ApprovalEventType.APPROVAL_REQUESTED, after, after.getCurrentApproverId()));
+                }
+            }
+            case APPROVED -> {
+                if (before.status() != ReportStatus.APPROVED) {
+                    events.add(ApprovalOutboxEvent.pending(ApprovalEventType.APPROVED, after, after.getWriterId()));
+                }
+            }
+            case REJECTED -> {
+                if (before.status() != ReportStatus.REJECTED) {
+                    events.add(ApprovalOutboxEvent.pending(ApprovalEventType.REJECTED, after, after.getWriterId()));
+                }
+            }
+            case RECALLED -> {
+                // 결재 대기 중이던 결재자에게 더 이상 처리할 필요가 없음을 알림
+                if (before.status() != ReportStatus.RECALLED && before.currentApproverId() != null) {
+                    events.add(ApprovalOutboxEvent.pending(ApprovalEventType.RECALLED, after, before.currentApproverId()));
+                }
+            }
+            default -> {
+                // DRAFT, SCHEDULED 는 알림 없음 (예약 문서는 발행 시점에 알림)
+            }
+        }
+
+        if (!events.isEmpty()) {
+            outboxRepository.saveAll(events);
+        }
+    }
+
+    /**
+     * 알림 판단에 필요한 변경 전 상태
+     */
+    public record TransitionState(ReportStatus status, Long currentApproverId) {
+
+        public static final TransitionState NONE = new TransitionState(null, null);
+    }
+}
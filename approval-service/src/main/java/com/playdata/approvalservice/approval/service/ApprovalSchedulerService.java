@@ -1,78 +1,146 @@
 package com.playdata.approvalservice.approval.service;
 
-import com.playdata.approvalservice.approval.entity.Reports;
+import com.playdata.approvalservice.approval.repository.ApprovalOutboxRepository;
+import com.playdata.approvalservice.approval.repository.ReportBoxCounterRepository;
 import com.playdata.approvalservice.approval.repository.ReportsRepository;
-import lombok.RequiredArgsConstructor;
+import com.playdata.approvalservice.common.lock.RedisLease;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.scheduling.annotation.Scheduled;
-import org.springframework.stereotype.Component;
 import org.springframework.stereotype.Service;
-import org.springframework.context.annotation.Lazy;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
 import java.util.List;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class ApprovalSchedulerService {
 
+    private static final String PUBLISH_LEASE = "scheduled-report-publisher";
+
     private final ReportsRepository reportsRepository;
-    private final ApprovalService approvalService;
+    private final ReportBoxCounterRepository boxCounterRepository;
+    private final ApprovalOutboxRepository outboxRepository;
+    private final RedisLease redisLease;
+
+    // 한 트랜잭션에서 잠그고 발행할 최대 문서 수
+    @Value("${approval.scheduler.publish-chunk-size:500}")
+    private int chunkSize;
+
+    // 리스 유지 시간 (다음 틱 전에 만료되도록 1분보다 짧게)
+    @Value("${approval.scheduler.lease-seconds:50}")
+    private long leaseSeconds;
+
+    // 예약 시간 대비 실제 발행 지연
+    private final Timer publishLag;
+    // 청크당 발행 건수
+    private final DistributionSummary batchSize;
+    private final Counter publishedTotal;
 
     // 자기 자신을 주입받기 위한 필드 (Lazy 로딩으로 순환참조 방지)
     @Autowired
     @Lazy
     private ApprovalSchedulerService self;
 
+    public ApprovalSchedulerService(ReportsRepository reportsRepository,
+                                    ReportBoxCounterRepository boxCounterRepository,
+                                    ApprovalOutboxRepository outboxRepository,
+                                    RedisLease redisLease,
+                                    MeterRegistry meterRegistry) {
+        this.reportsRepository = reportsRepository;
+        this.boxCounterRepository = boxCounterRepository;
+        this.outboxRepository = outboxRepository;
+        this.redisLease = redisLease;
+        this.publishLag = Timer.builder("approval.scheduled.publish.lag")
+                .description("예약 시간부터 실제 발행까지의 지연")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("approval.scheduled.publish.batch.size")
+                .description("예약 발행 청크당 문서 수")
+                .register(meterRegistry);
+        this.publishedTotal = Counter.builder("approval.scheduled.publish.count")
+                .description("예약 발행된 문서 수")
+                .register(meterRegistry);
+    }
+
     /**
      * 매 분 0초마다 실행되어 예약된 결재 문서를 찾아 상신 처리합니다.
      * cron = "초 분 시 일 월 요일"
      * "0 * * * * *" -> 매 분 0초에 실행
+     *
+     * 여러 인스턴스가 떠 있어도 Redis 리스를 잡은 한 노드만 실행하며,
+     * 대상 문서는 chunkSize 단위로 잠가서(SKIP LOCKED) 일괄 UPDATE 합니다.
+     * 동시에 실행돼도 SKIP LOCKED 로 같은 문서를 두 번 발행하지 않으므로, Redis 장애로 리스를 확인할 수 없으면
+     * 발행을 멈추지 않고 리스 없이 실행합니다.
      */
     @Scheduled(cron = "0 * * * * *")
     public void publishScheduledReports() {
-        log.info("[스케줄러 시작] 예약된 결재 문서 확인을 시작합니다.");
-
-        List<Reports> reportsToPublish = reportsRepository.findByPublishedFalseAndScheduledAtBefore(ZonedDateTime.now());
-
-        if (reportsToPublish.isEmpty()) {
-            log.info("[스케줄러] 처리할 예약 결재 문서가 없습니다.");
+        Duration leaseTtl = Duration.ofSeconds(leaseSeconds);
+        RedisLease.Acquisition lease = redisLease.acquire(PUBLISH_LEASE, leaseTtl);
+        if (lease.outcome() == RedisLease.Outcome.HELD) {
+            log.debug("[스케줄러] 다른 인스턴스가 예약 발행을 처리 중입니다.");
             return;
         }
+        if (lease.outcome() == RedisLease.Outcome.UNAVAILABLE) {
+            log.warn("[스케줄러] Redis 리스를 확인할 수 없어 리스 없이 예약 발행을 진행합니다. (SKIP LOCKED 로 중복 발행 방지)");
+        }
 
-        log.info("[스케줄러] 총 {}건의 예약 결재 문서를 처리합니다.", reportsToPublish.size());
-
-        for (Reports report : reportsToPublish) {
-            try {
-                // ApprovalService를 직접 호출하는 대신, @Transactional이 붙은 자기 자신의 메소드를 호출
-                self.processScheduledSubmission(report.getId());
-                log.info("[스케줄러 성공] 보고서 ID: {} 예약 상신 처리 완료", report.getId());
-            } catch (Exception e) {
-                log.error("[스케줄러 실패] 보고서 ID: {} 처리 중 오류 발생: {}", report.getId(), e.getMessage());
+        long started = System.nanoTime();
+        // 리스가 만료되기 전에 여유를 두고 멈춤 (남은 문서는 다음 틱에서 처리)
+        long deadline = started + leaseTtl.multipliedBy(4).dividedBy(5).toNanos();
+        int total = 0;
+        try {
+            int published;
+            do {
+                published = self.publishChunk(ZonedDateTime.now(), chunkSize);
+                total += published;
+            } while (published == chunkSize && System.nanoTime() < deadline);
+        } catch (Exception e) {
+            log.error("[스케줄러 실패] 예약 발행 중 오류 발생 (이번 틱 처리 {}건)", total, e);
+        } finally {
+            if (lease.acquired()) {
+                redisLease.release(PUBLISH_LEASE, lease.token());
             }
         }
 
-        log.info("[스케줄러 종료] 예약된 결재 문서 확인을 종료합니다.");
+        if (total > 0) {
+            log.info("[스케줄러] 예약 결재 문서 {}건 상신 처리 완료 ({}ms)",
+                    total, Duration.ofNanos(System.nanoTime() - started).toMillis());
+        }
     }
 
     /**
-     * 실제 발행 처리를 담당하는 트랜잭션 메소드.
-     * 이 메소드를 ApprovalService에서 이곳으로 이동시킵니다.
+     * 예약 시간이 지난 문서를 최대 limit 건 잠그고, 한 번의 UPDATE 로 발행한 뒤 문서함 카운터와 알림 아웃박스를 반영합니다.
+     *
+     * @return 발행한 문서 수
      */
     @Transactional
-    public void processScheduledSubmission(Long reportId) {
-        Reports report = reportsRepository.findById(reportId)
-                .orElseThrow(() -> {
-                    // orElseThrow에는 예외를 생성하는 람다를 전달해야 합니다.
-                    log.error("예약 문서를 찾을 수 없습니다: " + reportId);
-                    return new RuntimeException("예약 문서를 찾을 수 없습니다: " + reportId);
-                });
-
-        // 엔티티의 publish() 메소드를 호출하여 '발행 행위'를 위임
-        report.publish();
+    public int publishChunk(ZonedDateTime now, int limit) {
+        List<Long> ids = reportsRepository.claimDueScheduledReportIds(now, limit);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        List<ZonedDateTime> scheduledTimes = reportsRepository.findScheduledAtByIdIn(ids);
+        int published = reportsRepository.publishScheduledReports(ids, LocalDateTime.now());
+        boxCounterRepository.applyScheduledPublish(ids);
+        // 첫 결재자에게 보낼 결재 요청 알림 (발송은 ApprovalNotificationDispatcher 가 비동기로 처리)
+        outboxRepository.enqueueApprovalRequests(ids, LocalDateTime.now());
+
+        batchSize.record(published);
+        publishedTotal.increment(published);
+        scheduledTimes.forEach(at -> publishLag.record(Duration.between(at, now).isNegative()
+                ? Duration.ZERO
+                : Duration.between(at, now)));
+        return published;
     }
 }
@@ -2,20 +2,23 @@ package com.playdata.approvalservice.approval.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.playdata.approvalservice.approval.dto.request.*;
 import com.playdata.approvalservice.approval.dto.request.template.ReportFromTemplateReqDto;
 import com.playdata.approvalservice.approval.dto.response.*;
 import com.playdata.approvalservice.approval.dto.response.template.ReportFormResDto;
 import com.playdata.approvalservice.approval.entity.*;
-import com.playdata.approvalservice.approval.feign.EmployeeFeignClient;
 import com.playdata.approvalservice.approval.repository.*;
-import com.playdata.approvalservice.common.config.AwsS3Config;
+import com.playdata.approvalservice.common.lock.OptimisticLockRetry;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -23,6 +26,7 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.multipart.MultipartFile;
@@ -52,68 +56,87 @@ public class ApprovalService {
     private final ReportsRepository reportsRepository;
     private final ApprovalRepository approvalRepository;
     private final ReferenceRepository referenceRepository;
-    private final EmployeeFeignClient employeeFeignClient;
-    private final ReportTemplateRepository templateRepository;
-    private final AwsS3Config awsS3Config;
+    private final EmployeeNameCache employeeNameCache;
+    private final ReportBoxCounterService boxCounterService;
+    private final ApprovalOutboxService outboxService;
+    private final TemplateCache templateCache;
+    private final ReportSearchService reportSearchService;
     private final S3Service s3Service;
+    private final AttachmentStorageService attachmentStorageService;
+    private final AttachmentBlobService attachmentBlobService;
+    private final AttachmentPreviewService attachmentPreviewService;
+    private final UploadSessionService uploadSessionService;
+    private final OptimisticLockRetry optimisticLockRetry;
+    private final ReportAccessCache reportAccessCache;
 
     private final ObjectMapper objectMapper;
 
+    // 트랜잭션 경계를 나누기 위해 자기 자신의 프록시를 주입 (Lazy 로딩으로 순환참조 방지)
+    @Autowired
+    @Lazy
+    private ApprovalService self;
+
     private final DateTimeFormatter fmt = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
 
+    // 기존 재상신 문서의 계보를 보정할 때 따라갈 최대 체인 길이
+    private static final int MAX_LINEAGE_WALK = 100;
+
+    // 일괄 결재 한 번에 받을 수 있는 최대 문서 수
+    @Value("${approval.bulk-approval.max-items:200}")
+    private int bulkApprovalMaxItems;
+
+    // 일괄 결재 시 한 트랜잭션에서 처리할 문서 수 (청크 단위로 커밋)
+    @Value("${approval.bulk-approval.chunk-size:50}")
+    private int bulkApprovalChunkSize;
+
+    // 커서 페이지네이션 한 페이지의 최대 문서 수
+    @Value("${approval.cursor.max-page-size:100}")
+    private int cursorMaxPageSize;
+
     /**
      * 보고서 생성 (초안 저장)
+     * 첨부파일은 트랜잭션 밖에서 먼저 동시에 업로드하고, 저장에 실패하면 업로드한 파일을 삭제합니다.
      */
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ReportCreateResDto createReport(
             ReportSaveReqDto req,
             Long writerId,
             List<MultipartFile> files
     ) {
+        // 직접 업로드(Pre-signed PUT)된 파일은 먼저 검증하고, multipart 파일은 트랜잭션 밖에서 업로드합니다.
+        List<AttachmentJsonReqDto> attachments = uploadSessionService.resolveAttachments(
+                req.getUploadSessionId(), req.getAttachmentKeys(), writerId);
+        List<AttachmentJsonReqDto> uploaded = attachmentStorageService.uploadAll(files);
+        attachments.addAll(uploaded);
+        try {
+            ReportCreateResDto res = self.saveDraftReport(req, writerId, attachments);
+            uploadSessionService.consume(req.getUploadSessionId(), req.getAttachmentKeys());
+            return res;
+        } catch (RuntimeException e) {
+            attachmentStorageService.deleteQuietly(uploaded);
+            throw e;
+        }
+    }
 
-        Reports report = Reports.fromDto(req, writerId);
+    /**
+     * 보고서 초안 저장 (첨부파일 업로드가 끝난 뒤의 DB 트랜잭션 구간)
+     */
+    @Transactional
+    public ReportCreateResDto saveDraftReport(
+            ReportSaveReqDto req,
+            Long writerId,
+            List<AttachmentJsonReqDto> attachments
+    ) {
 
-        List<AttachmentJsonReqDto> attachments = new ArrayList<>();
-
-        if (files != null) {
-            for (MultipartFile file : files) {
-                try {
-                    String key = UUID.randomUUID() + "_" + file.getOriginalFilename();
-                    byte[] data = file.getBytes();
-                    String url = awsS3Config.uploadToS3Bucket(data, key);
-                    attachments.add(new AttachmentJsonReqDto(
-                            file.getOriginalFilename(),
-                            url
-                    ));
-                } catch (IOException e) {
-                    log.error("S3 업로드 실패: {}", file.getOriginalFilename(), e);
-                    throw new ResponseStatusException(
-                            HttpStatus.INTERNAL_SERVER_ERROR,
-                            "파일 업로드에 실패했습니다: " + file.getOriginalFilename(), e);
+        Reports report = Reports.fromDto(req, writerId);
+        report.replaceReferences(toReferenceIds(req.getReferences()));
 
-                }
-            }
-        }
-
-        Map<String, Object> detailMap = new HashMap<>();
-        if (!attachments.isEmpty()) {
-            detailMap.put("attachments", attachments);
-        }
-        if (req.getReferences() != null && !req.getReferences().isEmpty()) {
-            detailMap.put("references", req.getReferences());
-        }
-        if (!detailMap.isEmpty()) {
-            try {
-                String detailJson = objectMapper.writeValueAsString(detailMap);
-                log.debug(" → 직렬화된 detail JSON: {}", detailJson);
-                report.setDetail(objectMapper.writeValueAsString(detailMap));
-            } catch (JsonProcessingException e) {
-                log.error("detail JSON 생성 실패", e);
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "detail JSON 생성 실패", e);
-            }
-        }
+        // 첨부파일 정보는 타입 값(ReportDetail)으로 저장되고, 컬럼 변환은 ReportDetailConverter 가 담당합니다.
+        report.setDetail(ReportDetail.ofAttachments(attachments));
 
         Reports saved = reportsRepository.save(report);
+        boxCounterService.applyChange(ReportBoxCounterService.BoxSnapshot.empty(), saved);
+        attachmentBlobService.reconcile(null, saved.getDetail());
 
         ApprovalLine firstLine = saved.getApprovalLines().stream().findFirst().orElse(null);
         Long firstApprovalId = firstLine != null ? firstLine.getId() : null;
@@ -140,10 +163,33 @@ public class ApprovalService {
      * @param reportId 수정할 문서 ID
      * @param req      수정할 내용 및 목표 상태(status)가 담긴 DTO
      * @param writerId 현재 사용자 ID (권한 확인용)
+     * @param newFiles 새로 추가할 첨부파일 (트랜잭션 밖에서 업로드)
      * @return 수정된 문서의 전체 상세 정보
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ReportDetailResDto updateReport(Long reportId, ReportUpdateReqDto req, Long writerId, List<MultipartFile> newFiles) {
+        List<AttachmentJsonReqDto> newAttachments = uploadSessionService.resolveAttachments(
+                req.getUploadSessionId(), req.getAttachmentKeys(), writerId);
+        List<AttachmentJsonReqDto> uploaded = attachmentStorageService.uploadAll(newFiles);
+        newAttachments.addAll(uploaded);
+        try {
+            ReportDetailResDto res = self.saveReportUpdate(reportId, req, writerId, newAttachments);
+            uploadSessionService.consume(req.getUploadSessionId(), req.getAttachmentKeys());
+            return res;
+        } catch (RuntimeException e) {
+            attachmentStorageService.deleteQuietly(uploaded);
+            throw e;
+        }
+    }
+
+    /**
+     * 문서 수정/상신 (새 첨부파일 업로드가 끝난 뒤의 DB 트랜잭션 구간)
+     *
+     * @param newAttachments 이번 요청에서 새로 업로드된 첨부파일 (기존 첨부 목록 뒤에 추가)
+     */
     @Transactional
-    public ReportDetailResDto updateReport(Long reportId, ReportUpdateReqDto req, Long writerId) {
+    public ReportDetailResDto saveReportUpdate(Long reportId, ReportUpdateReqDto req, Long writerId,
+                                               List<AttachmentJsonReqDto> newAttachments) {
 
         // 1. ID로 문서를 먼저 찾습니다. 상태 조건 없이 ID로만 조회합니다.
         Reports report = reportsRepository.findById(reportId)
@@ -161,28 +207,32 @@ public class ApprovalService {
         }
 
         // 4. 엔티티의 내용을 DTO로부터 업데이트합니다. (이때 상태 전이도 함께 처리됩니다)
+        ReportBoxCounterService.BoxSnapshot before = boxCounterService.snapshot(report);
+        ApprovalOutboxService.TransitionState beforeState = outboxService.capture(report);
+        ReportDetail detailBefore = report.getDetail();
         report.updateFromDto(req);
 
-        // 5. 첨부파일 및 참조자 정보를 detail JSON에 업데이트합니다.
-        // (이 로직은 기존과 동일하나, newFiles 처리 로직이 추가될 수 있습니다)
-        Map<String, Object> detailMap = new HashMap<>();
-        if (req.getAttachments() != null) {
-            detailMap.put("attachments", req.getAttachments());
-        }
+        // 5. 첨부파일 정보는 detail 에, 참조자는 report_references 테이블에 반영합니다.
         if (req.getReferences() != null) {
-            detailMap.put("references", req.getReferences());
+            report.replaceReferences(toReferenceIds(req.getReferences()));
         }
-        // TODO: newFiles에 대한 업로드 및 detailMap에 추가하는 로직이 필요하다면 여기에 구현합니다.
-        if (!detailMap.isEmpty()) {
-            try {
-                report.setDetail(objectMapper.writeValueAsString(detailMap));
-            } catch (JsonProcessingException e) {
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "detail JSON 생성 실패", e);
+        if (req.getAttachments() != null || !newAttachments.isEmpty()) {
+            List<AttachmentJsonReqDto> attachments = new ArrayList<>();
+            if (req.getAttachments() != null) {
+                attachments.addAll(req.getAttachments());
             }
+            attachments.addAll(newAttachments);
+            // attachments 외의 기존 키(이전 형식 데이터)는 그대로 유지합니다.
+            report.setDetail(report.getDetail().withAttachments(attachments));
         }
 
         // 6. 변경된 내용을 데이터베이스에 저장합니다.
         Reports updated = reportsRepository.save(report);
+        boxCounterService.applyChange(before, updated);
+        outboxService.recordTransition(beforeState, updated);
+        attachmentBlobService.reconcile(detailBefore, updated.getDetail());
+        // 결재선/참조자/첨부가 바뀌었을 수 있으므로 첨부파일 접근 권한 캐시를 커밋 후 비웁니다.
+        reportAccessCache.evict(updated.getId());
 
         // 7. 만약 상태가 'IN_PROGRESS'(상신)로 변경되었다면, 관련자들에게 알림을 보냅니다.
         if (updated.getReportStatus() == ReportStatus.IN_PROGRESS) {
@@ -195,8 +245,8 @@ public class ApprovalService {
                 req.getReferences().forEach(ref -> usersToNotify.add(ref.getEmployeeId())); // 참조자
             }
 
-            // NotificationService가 주입되어 있다는 가정 하에, 아래 주석을 해제하여 사용합니다.
-            // usersToNotify.forEach(notificationService::notifyUser);
+            // 첫 결재자에게 보낼 결재 요청 알림은 위에서 아웃박스에 기록되었고,
+            // ApprovalNotificationDispatcher 가 트랜잭션 밖에서 발송합니다.
             log.info("문서 ID {}가 상신되었습니다. 알림 대상: {}", updated.getId(), usersToNotify);
         }
 
@@ -212,62 +262,47 @@ public class ApprovalService {
      * @param files
      * @return
      */
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ReportCreateResDto progressReport(
             ReportCreateReqDto req,
             Long writerId,
             List<MultipartFile> files
     ) throws JsonProcessingException {
-        Reports report = Reports.fromDtoForInProgress(req, writerId);
-        List<AttachmentJsonReqDto> attachments = new ArrayList<>();
-
-        if (files != null) {
-            for (MultipartFile file : files) {
-                try {
-                    String key = UUID.randomUUID() + "_" + file.getOriginalFilename();
-                    byte[] data = file.getBytes();
-                    String url = awsS3Config.uploadToS3Bucket(data, key);
-                    attachments.add(new AttachmentJsonReqDto(
-                            file.getOriginalFilename(),
-                            url
-                    ));
-                } catch (IOException e) {
-                    log.error("S3 업로드 실패: {}", file.getOriginalFilename(), e);
-                    throw new ResponseStatusException(
-                            HttpStatus.INTERNAL_SERVER_ERROR,
-                            "파일 업로드에 실패했습니다: " + file.getOriginalFilename(), e);
-
-                }
-            }
+        // 직접 업로드(Pre-signed PUT)된 파일은 먼저 검증하고, multipart 파일은 트랜잭션 밖에서 업로드합니다.
+        List<AttachmentJsonReqDto> attachments = uploadSessionService.resolveAttachments(
+                req.getUploadSessionId(), req.getAttachmentKeys(), writerId);
+        List<AttachmentJsonReqDto> uploaded = attachmentStorageService.uploadAll(files);
+        attachments.addAll(uploaded);
+        try {
+            ReportCreateResDto res = self.saveInProgressReport(req, writerId, attachments);
+            uploadSessionService.consume(req.getUploadSessionId(), req.getAttachmentKeys());
+            return res;
+        } catch (RuntimeException | JsonProcessingException e) {
+            attachmentStorageService.deleteQuietly(uploaded);
+            throw e;
         }
+    }
 
-        Map<String, Object> detailMap = new HashMap<>();
-        if (!attachments.isEmpty()) {
-            detailMap.put("attachments", attachments);
-        }
-        if (req.getReferences() != null && !req.getReferences().isEmpty()) {
-            detailMap.put("references", req.getReferences());
-        }
-        if (!detailMap.isEmpty()) {
-            try {
-                String detailJson = objectMapper.writeValueAsString(detailMap);
-                log.debug(" → 직렬화된 detail JSON: {}", detailJson);
-                report.setDetail(objectMapper.writeValueAsString(detailMap));
-            } catch (JsonProcessingException e) {
-                log.error("detail JSON 생성 실패", e);
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "detail JSON 생성 실패", e);
-            }
-        }
+    /**
+     * 보고서 저장 및 상신 (첨부파일 업로드가 끝난 뒤의 DB 트랜잭션 구간)
+     */
+    @Transactional(rollbackFor = JsonProcessingException.class)
+    public ReportCreateResDto saveInProgressReport(
+            ReportCreateReqDto req,
+            Long writerId,
+            List<AttachmentJsonReqDto> attachments
+    ) throws JsonProcessingException {
+        Reports report = Reports.fromDtoForInProgress(req, writerId);
+        report.replaceReferences(toReferenceIds(req.getReferences()));
+
+        // 첨부파일 정보는 타입 값(ReportDetail)으로 저장되고, 컬럼 변환은 ReportDetailConverter 가 담당합니다.
+        report.setDetail(ReportDetail.ofAttachments(attachments));
 
         Map<String, Object> templateMap = Collections.emptyMap();
         if (req.getTemplateId() != null) {
-            ReportTemplate tpl = templateRepository.findById(req.getTemplateId())
+            templateMap = templateCache.findTemplate(req.getTemplateId())
+                    .map(TemplateCache.CachedTemplate::structure)
                     .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "양식이 없습니다."));
-            templateMap = objectMapper.readValue(
-                    tpl.getTemplate(),
-                    new TypeReference<>() {
-                    }
-            );
         }
         // 3) 폼 데이터 파싱
         Map<String, Object> formDataMap = Collections.emptyMap();
@@ -280,6 +315,9 @@ public class ApprovalService {
         }
 
         Reports saved = reportsRepository.save(report);
+        boxCounterService.applyChange(ReportBoxCounterService.BoxSnapshot.empty(), saved);
+        attachmentBlobService.reconcile(null, saved.getDetail());
+        outboxService.recordTransition(ApprovalOutboxService.TransitionState.NONE, saved);
 
         ApprovalLine firstLine = saved.getApprovalLines().stream().findFirst().orElse(null);
         Long firstApprovalId = firstLine != null ? firstLine.getId() : null;
@@ -310,53 +348,51 @@ public class ApprovalService {
      * @param files    첨부 파일
      * @return 생성된 보고서 정보
      */
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ReportCreateResDto scheduleReport(
             @Valid ReportCreateReqDto req, // ★ 새로운 DTO를 사용하는 것이 좋습니다. (아래 설명 참고)
             Long writerId,
             List<MultipartFile> files
+    ) {
+        // 첨부 파일은 트랜잭션 밖에서 먼저 업로드 (progressReport 메소드와 동일)
+        // 직접 업로드(Pre-signed PUT)된 파일은 먼저 검증하고, multipart 파일은 트랜잭션 밖에서 업로드합니다.
+        List<AttachmentJsonReqDto> attachments = uploadSessionService.resolveAttachments(
+                req.getUploadSessionId(), req.getAttachmentKeys(), writerId);
+        List<AttachmentJsonReqDto> uploaded = attachmentStorageService.uploadAll(files);
+        attachments.addAll(uploaded);
+        try {
+            ReportCreateResDto res = self.saveScheduledReport(req, writerId, attachments);
+            uploadSessionService.consume(req.getUploadSessionId(), req.getAttachmentKeys());
+            return res;
+        } catch (RuntimeException e) {
+            attachmentStorageService.deleteQuietly(uploaded);
+            throw e;
+        }
+    }
+
+    /**
+     * 예약 보고서 저장 (첨부파일 업로드가 끝난 뒤의 DB 트랜잭션 구간)
+     */
+    @Transactional
+    public ReportCreateResDto saveScheduledReport(
+            ReportCreateReqDto req,
+            Long writerId,
+            List<AttachmentJsonReqDto> attachments
     ) {
         // 1. DTO를 Reports 엔티티로 변환 (예약용 fromDto 메소드 필요)
         Reports report = Reports.fromDtoForScheduled(req, writerId);
+        report.replaceReferences(toReferenceIds(req.getReferences()));
 
-        // 2. 첨부 파일 처리 로직 (progressReport 메소드와 동일)
-        List<AttachmentJsonReqDto> attachments = new ArrayList<>();
-        if (files != null) {
-            for (MultipartFile file : files) {
-                try {
-                    String key = UUID.randomUUID() + "_" + file.getOriginalFilename();
-                    byte[] data = file.getBytes();
-                    String url = awsS3Config.uploadToS3Bucket(data, key);
-                    attachments.add(new AttachmentJsonReqDto(file.getOriginalFilename(), url));
-                } catch (IOException e) {
-                    log.error("S3 업로드 실패: {}", file.getOriginalFilename(), e);
-                    throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "파일 업로드 실패: " + file.getOriginalFilename());
-                }
-            }
-        }
-
-        // 3. detail JSON 처리 로직 (progressReport 메소드와 동일)
-        Map<String, Object> detailMap = new HashMap<>();
-        if (!attachments.isEmpty()) {
-            detailMap.put("attachments", attachments);
-        }
-        if (req.getReferences() != null && !req.getReferences().isEmpty()) {
-            detailMap.put("references", req.getReferences());
-        }
-        if (!detailMap.isEmpty()) {
-            try {
-                report.setDetail(objectMapper.writeValueAsString(detailMap));
-            } catch (JsonProcessingException e) {
-                log.error("detail JSON 생성 실패", e);
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "detail JSON 생성 실패");
-            }
-        }
+        // 3. 첨부파일 정보 (progressReport 메소드와 동일, 참조자는 report_references 테이블에 저장)
+        report.setDetail(ReportDetail.ofAttachments(attachments));
 
         // 4. 예약 정보 설정 (가장 중요한 부분)
         report.schedule(req.getScheduledAt());
 
         // 5. DB에 저장
         Reports saved = reportsRepository.save(report);
+        boxCounterService.applyChange(ReportBoxCounterService.BoxSnapshot.empty(), saved);
+        attachmentBlobService.reconcile(null, saved.getDetail());
 
         // 6. 응답 DTO 생성 (progressReport 메소드와 동일)
         ApprovalLine firstLine = saved.getApprovalLines().stream().findFirst().orElse(null);
@@ -392,64 +428,17 @@ public class ApprovalService {
         // 1. 정렬 기준 설정: 'scheduledAt' 기준 오름차순 (곧 실행될 예약이 위로)
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.ASC, "scheduledAt"));
 
-        // 2. Repository를 호출하여 데이터 조회
-        Page<Reports> scheduledReportsPage = reportsRepository.findByWriterIdAndReportStatus(
+        // 2. 목록 컬럼만 읽는 프로젝션으로 조회 (본문/JSON 컬럼 제외)
+        Page<ReportListView> scheduledReportsPage = reportsRepository.findListViewsByWriterIdAndReportStatus(
                 writerId,
                 ReportStatus.SCHEDULED,
                 pageable
         );
 
+        // 3. 결재선 요약을 한 번에 조회하고 이름은 캐시에서 일괄 조회해 DTO로 변환합니다.
+        List<ReportListResDto.ReportSimpleDto> reportDtos = toReportSimpleDtos(scheduledReportsPage.getContent());
 
-        // 2. [추가] 조회된 문서들의 작성자, 결재자 ID를 모두 수집합니다.
-        Set<Long> employeeIdsToFetch = new HashSet<>();
-        scheduledReportsPage.getContent().forEach(report -> {
-            employeeIdsToFetch.add(report.getWriterId());
-            report.getApprovalLines().forEach(line -> employeeIdsToFetch.add(line.getEmployeeId()));
-        });
-
-        // 3. [추가] Feign Client를 한 번만 호출하여 모든 직원 이름을 가져옵니다.
-        Map<Long, String> employeeNamesMap = Collections.emptyMap();
-        if (!employeeIdsToFetch.isEmpty()) {
-            try {
-                ResponseEntity<Map<Long, String>> response = employeeFeignClient.getEmployeeNamesByEmployeeIds(new ArrayList<>(employeeIdsToFetch));
-                employeeNamesMap = Optional.ofNullable(response.getBody()).orElse(Collections.emptyMap());
-            } catch (Exception e) {
-                log.error("Error fetching employee names from hr-service", e);
-                // 오류 발생 시 비어있는 맵을 사용합니다.
-            }
-        }
-        final Map<Long, String> finalEmployeeNamesMap = employeeNamesMap;
-
-        // 4. 조회된 엔티티 목록을 DTO로 변환합니다.
-        List<ReportListResDto.ReportSimpleDto> reportDtos = scheduledReportsPage.getContent().stream()
-                .map(report -> {
-                    // [수정] 위에서 가져온 이름 맵에서 기안자 이름을 찾습니다.
-                    String writerName = finalEmployeeNamesMap.getOrDefault(report.getWriterId(), "알 수 없는 사용자");
-
-                    // [수정] 결재선 정보를 DTO 리스트로 만듭니다.
-                    List<ReportListResDto.ApprovalLineSimpleDto> approvalLineSimpleDtos = report.getApprovalLines().stream()
-                            .map(line -> ReportListResDto.ApprovalLineSimpleDto.builder()
-                                    .employeeId(line.getEmployeeId())
-                                    .employeeName(finalEmployeeNamesMap.getOrDefault(line.getEmployeeId(), "알 수 없는 사용자"))
-                                    .approvalStatus(line.getApprovalStatus())
-                                    .build())
-                            .collect(Collectors.toList());
-
-                    // [수정] DTO 빌더에 모든 값을 정확히 채워 넣습니다.
-                    return ReportListResDto.ReportSimpleDto.builder()
-                            .id(report.getId())
-                            .title(report.getTitle())
-                            .name(writerName) // 수정된 부분
-                            .reportCreatedAt(report.getReportCreatedAt() != null ? report.getReportCreatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : null)
-                            .reportStatus(report.getReportStatus())
-                            .currentApprover(null)
-                            .approvalLine(approvalLineSimpleDtos) // 수정된 부분
-                            .scheduledAt(report.getScheduledAt())
-                            .build();
-                })
-                .collect(Collectors.toList());
-
-        // 5. 최종적으로 페이징 정보와 함께 ReportListResDto를 만들어 반환합니다.
+        // 4. 최종적으로 페이징 정보와 함께 ReportListResDto를 만들어 반환합니다.
         return ReportListResDto.builder()
                 .reports(reportDtos)
                 .totalPages(scheduledReportsPage.getTotalPages())
@@ -462,18 +451,18 @@ public class ApprovalService {
     /**
      * 템플릿 기반 결재 문서 생성 및 상신
      */
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ReportCreateResDto reportFromTemplate(
             ReportFromTemplateReqDto req,
-            String writerEmail,
+            Long writerId,
             List<MultipartFile> files
     ) throws JsonProcessingException {
         // 1. 템플릿 조회
-        ReportTemplate template = templateRepository.findById(req.getTemplateId())
+        TemplateCache.CachedTemplate template = templateCache.findTemplate(req.getTemplateId())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "템플릿을 찾을 수 없습니다."));
 
         // 2. 보고서 내용 생성
-        String reportContent = generateContentFromTemplate(template.getTemplate(), req.getValues());
+        String reportContent = generateContentFromTemplate(template.contentTemplate(), req.getValues());
 
         // 3. 기존 DTO로 변환
         ReportCreateReqDto newProgressReq = new ReportCreateReqDto();
@@ -481,58 +470,34 @@ public class ApprovalService {
         newProgressReq.setContent(reportContent);
         newProgressReq.setApprovalLine(req.getApprovalLine());
         newProgressReq.setReferences(req.getReferences());
+        newProgressReq.setUploadSessionId(req.getUploadSessionId());
+        newProgressReq.setAttachmentKeys(req.getAttachmentKeys());
 
-        Long writerId;
         newProgressReq.setTemplateId(req.getTemplateId());
         newProgressReq.setReportTemplateData(objectMapper.writeValueAsString(req.getValues()));
 
-        try {
-            // (수정) 올바른 메소드 호출: `findIdByEmail`에 `writerEmail`을 파라미터로 전달
-            ResponseEntity<Long> response = employeeFeignClient.findIdByEmail(writerEmail);
-
-            // 응답 상태 코드 및 본문 null 체크
-            if (response.getStatusCode() != HttpStatus.OK || response.getBody() == null) {
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "사용자 정보를 찾을 수 없습니다: " + writerEmail);
-            }
-            writerId = response.getBody();
-
-        } catch (Exception e) {
-            log.error("Failed to fetch writerId for email: {}", writerEmail, e);
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "사용자 정보를 조회하는 중 오류가 발생했습니다.");
-        }
-
-        // 5. '즉시 상신' 메소드를 호출
-        return progressReport(newProgressReq, writerId, files);
+        // 4. '즉시 상신' 메소드를 호출 (writerId는 컨트롤러에서 식별 캐시를 통해 결정됨)
+        return self.progressReport(newProgressReq, writerId, files);
     }
 
     /**
      * 약속된 JSON 구조를 기반으로 보고서 내용을 생성합니다.
      */
-    private String generateContentFromTemplate(String templateJson, Map<String, Object> values) {
-        try {
-            // 템플릿 전체 JSON을 파싱합니다.
-            JsonNode root = objectMapper.readTree(templateJson);
-            // "contentTemplate" 키에 해당하는 HTML 문자열을 가져옵니다.
-            String contentTemplate = root.path("contentTemplate").asText();
-
-            if (contentTemplate.isEmpty()) {
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "템플릿 양식이 비어있습니다.");
-            }
+    private String generateContentFromTemplate(String contentTemplate, Map<String, Object> values) {
+        // "contentTemplate" HTML 은 템플릿 캐시에서 이미 파싱된 값을 받습니다.
+        if (contentTemplate.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "템플릿 양식이 비어있습니다.");
+        }
 
-            String finalContent = contentTemplate;
-            if (values != null) {
-                // values 맵을 순회하며 {{key}} 형식의 플레이스홀더를 실제 값으로 치환합니다.
-                for (Map.Entry<String, Object> entry : values.entrySet()) {
-                    finalContent = finalContent.replace("{{" + entry.getKey() + "}}", String.valueOf(entry.getValue()));
-                }
+        String finalContent = contentTemplate;
+        if (values != null) {
+            // values 맵을 순회하며 {{key}} 형식의 플레이스홀더를 실제 값으로 치환합니다.
+            for (Map.Entry<String, Object> entry : values.entrySet()) {
+                finalContent = finalContent.replace("{{" + entry.getKey() + "}}", String.valueOf(entry.getValue()));
             }
-
-            return finalContent;
-
-        } catch (JsonProcessingException e) {
-            log.error("템플릿 contentTemplate 파싱 실패", e);
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "템플릿 양식을 처리하는 중 오류가 발생했습니다.");
         }
+
+        return finalContent;
     }
 
     /**
@@ -544,77 +509,178 @@ public class ApprovalService {
                                        @RequestParam(defaultValue = "DESC") String sortOrder) {
 
         Sort.Direction direction = sortOrder.equalsIgnoreCase("ASC") ? Sort.Direction.ASC : Sort.Direction.DESC;
+
+        // 키워드는 FULLTEXT 검색식으로 바꿔 역할/상태 조건과 같은 쿼리에서 찾습니다.
+        Optional<String> fullTextQuery = reportSearchService.toFullTextQuery(keyword);
+        Specification<Reports> spec = ReportSpecifications.withDynamicQuery(
+                role, status, keyword, fullTextQuery.orElse(null), writerId);
+
+        if ("relevance".equalsIgnoreCase(sortBy) && fullTextQuery.isPresent()) {
+            return getReportsByRelevance(spec, fullTextQuery.get(), page, size);
+        }
+
         String sortProperty = "createdAt".equalsIgnoreCase(sortBy) ? "reportCreatedAt" : "id";
-        Sort sort = Sort.by(direction, sortProperty);
+        // 정렬 값이 같은 문서가 있어도 페이지 경계가 흔들리지 않도록 id를 보조 정렬로 둡니다.
+        Sort sort = "id".equals(sortProperty)
+                ? Sort.by(direction, "id")
+                : Sort.by(direction, sortProperty).and(Sort.by(direction, "id"));
 
         // 2. 페이징(Pageable) 객체 생성
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        // 3. 동적 검색 조건(Specification) 생성
-        // ReportSpecifications 클래스의 정적 메소드를 호출하여 조건을 조합합니다.
-        Specification<Reports> spec = ReportSpecifications.withDynamicQuery(role, status, keyword, writerId);
-        // 4. Repository의 findAll 메소드를 단 한 번만 호출하여 데이터 조회
-        // JpaSpecificationExecutor를 상속받았기 때문에 이 메소드를 사용할 수 있습니다.
-        Page<Reports> pr = reportsRepository.findAll(spec, pageable);
+        // 4. 2단계 페이징
+        //  4-1) 좁은 쿼리로 현재 페이지의 보고서 ID만 조회 (+ 필요 시 COUNT)
+        Page<Long> idPage = reportsRepository.findReportIds(spec, pageable);
+        //  4-2) 해당 보고서와 결재선을 한 번에 조회한 뒤, 1단계의 정렬 순서대로 재배열
+        List<ReportListView> reports = findReportListViews(idPage.getContent());
+        Page<ReportListView> pr = new PageImpl<>(reports, pageable, idPage.getTotalElements());
 
-        Set<Long> employeeIdsToFetch = new HashSet<>();
-        pr.getContent().forEach(report -> {
-            employeeIdsToFetch.add(report.getWriterId());
-            if (report.getCurrentApproverId() != null) {
-                employeeIdsToFetch.add(report.getCurrentApproverId());
-            }
-            report.getApprovalLines().forEach(line -> employeeIdsToFetch.add(line.getEmployeeId()));
-        });
+        List<ReportListResDto.ReportSimpleDto> simples = toReportSimpleDtos(pr.getContent());
+
+        return ReportListResDto.builder()
+                .reports(simples)
+                .totalPages(pr.getTotalPages())
+                .totalElements(pr.getTotalElements())
+                .size(pr.getSize())
+                .number(pr.getNumber())
+                .build();
+    }
 
-        Map<Long, String> employeeNamesMap = Collections.emptyMap();
+    /**
+     * 키워드 관련도 순 목록 조회 (FULLTEXT 점수 내림차순, 동점이면 ID 내림차순)
+     */
+    private ReportListResDto getReportsByRelevance(Specification<Reports> spec, String fullTextQuery,
+                                                   int page, int size) {
+        Pageable pageable = PageRequest.of(page, size);
+        Page<Long> idPage = reportsRepository.findReportIdsByRelevance(spec, fullTextQuery, pageable);
+        List<ReportListView> reports = findReportListViews(idPage.getContent());
+        Page<ReportListView> pr = new PageImpl<>(reports, pageable, idPage.getTotalElements());
 
-        if (!employeeIdsToFetch.isEmpty()) {
-            try {
-                ResponseEntity<Map<Long, String>> response = employeeFeignClient.getEmployeeNamesByEmployeeIds(new ArrayList<>(employeeIdsToFetch));
-                employeeNamesMap = Optional.ofNullable(response.getBody()).orElse(Collections.emptyMap());
-                log.info("Successfully fetched {} employee names.", employeeNamesMap.size());
-            } catch (Exception e) {
-                log.error("Error fetching employee names from hr-service", e);
-                employeeNamesMap = Collections.emptyMap();
-            }
+        return ReportListResDto.builder()
+                .reports(toReportSimpleDtos(pr.getContent()))
+                .totalPages(pr.getTotalPages())
+                .totalElements(pr.getTotalElements())
+                .size(pr.getSize())
+                .number(pr.getNumber())
+                .build();
+    }
+
+    /**
+     * 보고서 목록 조회 (커서 기반)
+     * (reportCreatedAt, id) 기준 keyset 페이징으로, 얼마나 깊이 스크롤해도 조회 비용이 일정합니다.
+     * 전체 개수(COUNT)는 includeTotal=true 일 때만 계산합니다.
+     */
+    public ReportCursorResDto getReportsByCursor(String role, ReportStatus status, String keyword,
+                                                 String cursorToken, int size, Long writerId,
+                                                 String sortOrder, boolean includeTotal) {
+        if (size < 1 || size > cursorMaxPageSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "size는 1 이상 " + cursorMaxPageSize + " 이하여야 합니다.");
+        }
+        Sort.Direction direction = "ASC".equalsIgnoreCase(sortOrder) ? Sort.Direction.ASC : Sort.Direction.DESC;
+        ReportCursor cursor = ReportCursor.decode(cursorToken);
+        Specification<Reports> spec = ReportSpecifications.withDynamicQuery(
+                role, status, keyword, reportSearchService.toFullTextQuery(keyword).orElse(null), writerId);
+
+        // 다음 페이지 존재 여부를 알기 위해 한 건 더 조회
+        List<ReportsRepositoryCustom.ReportKey> keys = reportsRepository.findReportKeysAfter(
+                spec,
+                cursor != null ? cursor.reportCreatedAt() : null,
+                cursor != null ? cursor.id() : null,
+                direction,
+                size + 1);
+
+        boolean hasNext = keys.size() > size;
+        if (hasNext) {
+            keys = keys.subList(0, size);
+        }
+
+        List<Long> ids = keys.stream().map(ReportsRepositoryCustom.ReportKey::id).collect(Collectors.toList());
+        List<ReportListResDto.ReportSimpleDto> simples = toReportSimpleDtos(findReportListViews(ids));
+
+        String nextCursor = null;
+        if (hasNext) {
+            ReportsRepositoryCustom.ReportKey last = keys.get(keys.size() - 1);
+            nextCursor = new ReportCursor(last.reportCreatedAt(), last.id()).encode();
+        }
+
+        return ReportCursorResDto.builder()
+                .reports(simples)
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .size(simples.size())
+                .totalElements(includeTotal ? reportsRepository.count(spec) : null)
+                .build();
+    }
+
+    /**
+     * 목록 화면용 DTO 변환
+     * 결재선 요약은 보고서 ID 목록으로 한 번에 조회하고, 작성자/결재자 이름은 캐시에서 일괄 조회합니다.
+     */
+    private List<ReportListResDto.ReportSimpleDto> toReportSimpleDtos(List<ReportListView> reports) {
+        if (reports.isEmpty()) {
+            return new ArrayList<>();
         }
+        List<Long> reportIds = reports.stream().map(ReportListView::id).toList();
+        Map<Long, List<ApprovalLineView>> linesByReportId = approvalRepository.findLineViewsByReportIdIn(reportIds)
+                .stream()
+                .collect(Collectors.groupingBy(ApprovalLineView::reportId));
+
+        Set<Long> employeeIdsToFetch = new HashSet<>();
+        reports.forEach(report -> {
+            employeeIdsToFetch.add(report.writerId());
+            if (report.currentApproverId() != null) {
+                employeeIdsToFetch.add(report.currentApproverId());
+            }
+        });
+        linesByReportId.values().forEach(lines -> lines.forEach(line -> employeeIdsToFetch.add(line.employeeId())));
 
-        final Map<Long, String> finalEmployeeNamesMap = employeeNamesMap;
+        // 이름 캐시 조회 (일반적인 경우 원격 호출 없음)
+        final Map<Long, String> finalEmployeeNamesMap = employeeNameCache.getNames(employeeIdsToFetch);
 
-        List<ReportListResDto.ReportSimpleDto> simples = pr.getContent().stream()
+        return reports.stream()
                 .map(r -> {
-                    String writerName = finalEmployeeNamesMap.getOrDefault(r.getWriterId(), "알 수 없는 사용자");
-                    String approverName = r.getCurrentApproverId() != null
-                            ? finalEmployeeNamesMap.getOrDefault(r.getCurrentApproverId(), "알 수 없는 사용자")
+                    String writerName = finalEmployeeNamesMap.getOrDefault(r.writerId(), "알 수 없는 사용자");
+                    String approverName = r.currentApproverId() != null
+                            ? finalEmployeeNamesMap.getOrDefault(r.currentApproverId(), "알 수 없는 사용자")
                             : null;
-                    // 각 보고서의 결재선 정보를 DTO 리스트로 만듭니다.
-                    List<ReportListResDto.ApprovalLineSimpleDto> approvalLineSimpleDtos = r.getApprovalLines().stream()
+                    // 각 보고서의 결재선 정보를 DTO 리스트로 만듭니다. (결재 순서대로 조회됨)
+                    List<ReportListResDto.ApprovalLineSimpleDto> approvalLineSimpleDtos = linesByReportId
+                            .getOrDefault(r.id(), Collections.emptyList()).stream()
                             .map(line -> ReportListResDto.ApprovalLineSimpleDto.builder()
-                                    .employeeId(line.getEmployeeId())
-                                    .employeeName(finalEmployeeNamesMap.getOrDefault(line.getEmployeeId(), "알 수 없는 사용자"))
-                                    .approvalStatus(line.getApprovalStatus())
+                                    .employeeId(line.employeeId())
+                                    .employeeName(finalEmployeeNamesMap.getOrDefault(line.employeeId(), "알 수 없는 사용자"))
+                                    .approvalStatus(line.approvalStatus())
                                     .build())
                             .collect(Collectors.toList());
 
                     return ReportListResDto.ReportSimpleDto.builder()
-                            .id(r.getId())
-                            .title(r.getTitle())
+                            .id(r.id())
+                            .title(r.title())
                             .name(writerName)
-                            .reportCreatedAt(r.getReportCreatedAt().format(fmt))
-                            .reportStatus(r.getReportStatus())
+                            .reportCreatedAt(r.reportCreatedAt() != null ? r.reportCreatedAt().format(fmt) : null)
+                            .reportStatus(r.reportStatus())
                             .currentApprover(approverName)
                             .approvalLine(approvalLineSimpleDtos)
+                            .scheduledAt(r.scheduledAt())
                             .build();
                 })
                 .collect(Collectors.toList());
+    }
 
-        return ReportListResDto.builder()
-                .reports(simples)
-                .totalPages(pr.getTotalPages())
-                .totalElements(pr.getTotalElements())
-                .size(pr.getSize())
-                .number(pr.getNumber())
-                .build();
+    /**
+     * ID 목록에 해당하는 보고서의 목록 프로젝션을 조회하고, 전달된 ID 순서대로 정렬해 반환합니다.
+     */
+    private List<ReportListView> findReportListViews(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, ReportListView> byId = reportsRepository.findListViewsByIdIn(ids).stream()
+                .collect(Collectors.toMap(ReportListView::id, r -> r));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 
     /**
@@ -634,26 +700,6 @@ public class ApprovalService {
         // 리팩토링
         checkReadAccess(report, writerId);
 
-
-        boolean isReference = false;
-        if (report.getDetail() != null && !report.getDetail().isBlank()) {
-            try {
-                JsonNode root = objectMapper.readTree(report.getDetail());
-                JsonNode referencesNode = root.path("references");
-                if (referencesNode.isArray()) {
-                    for (JsonNode refNode : referencesNode) {
-                        if (refNode.path("employeeId").asLong() == writerId) {
-                            isReference = true;
-                            break;
-                        }
-                    }
-                }
-            } catch (JsonProcessingException e) {
-                log.error("getApprovalHistory 권한 체크 중 detail JSON 파싱 실패, reportId: {}", reportId, e);
-            }
-        }
-        isUserInReferences(report, writerId);
-
         // 3. API 호출을 위한 모든 관련 직원 ID를 수집합니다.
         Set<Long> employeeIdsToFetch = new HashSet<>();
 
@@ -663,22 +709,13 @@ public class ApprovalService {
         }
         report.getApprovalLines().forEach(line -> employeeIdsToFetch.add(line.getEmployeeId())); // 결재 라인의 모든 직원 ID
 
-        Map<String, Object> templateStructure = new HashMap<>();
+        // 템플릿 구조는 캐시에 미리 파싱된 Map 을 그대로 사용합니다. (템플릿이 없으면 빈 Map)
+        Map<String, Object> templateStructure = templateCache.findTemplate(report.getReportTemplateId())
+                .map(TemplateCache.CachedTemplate::structure)
+                .orElseGet(HashMap::new);
         Map<String, Object> formData = new HashMap<>();
 
         try {
-            // 템플릿 ID가 있는지 확인
-            if (report.getReportTemplateId() != null) {
-                // 템플릿 ID로 ReportTemplate 엔티티를 DB에서 조회
-                ReportTemplate template = templateRepository.findById(report.getReportTemplateId())
-                        .orElse(null);
-
-                // 템플릿이 존재하면, template JSON 문자열을 Map으로 변환
-                if (template != null && template.getTemplate() != null) {
-                    templateStructure = objectMapper.readValue(template.getTemplate(), new TypeReference<>() {
-                    });
-                }
-            }
 
             // 템플릿에 입력된 데이터(formData)가 있는지 확인
             if (report.getReportTemplateData() != null && !report.getReportTemplateData().isBlank()) {
@@ -692,54 +729,61 @@ public class ApprovalService {
             // 프론트엔드가 null 대신 빈 객체를 받아 안정적으로 처리할 수 있도록 합니다.
         }
 
-        // 4. 단 한 번의 Feign API 호출로 모든 직원 이름을 가져옵니다.
-        Map<Long, String> employeeNamesMap = Collections.emptyMap();
-        if (!employeeIdsToFetch.isEmpty()) {
-            ResponseEntity<Map<Long, String>> response = employeeFeignClient.getEmployeeNamesByEmployeeIds(new ArrayList<>(employeeIdsToFetch));
-            employeeNamesMap = Optional.ofNullable(response.getBody()).orElse(Collections.emptyMap());
-        }
-        final Map<Long, String> finalEmployeeNamesMap = employeeNamesMap;
+        // 4. 이름 캐시에서 모든 직원 이름을 가져옵니다. (캐시 미스인 ID만 한 번의 Feign 호출)
+        final Map<Long, String> finalEmployeeNamesMap = employeeNameCache.getNames(employeeIdsToFetch);
 
-        // 5. 첨부파일 및 참조 정보 파싱 (JSON)
-        List<ReportDetailResDto.AttachmentResDto> atts = Collections.emptyList();
-        List<ReportDetailResDto.ReferenceJsonResDto> refs = Collections.emptyList();
-        if (report.getDetail() != null && !report.getDetail().isBlank()) {
+        // 5. 첨부파일 (엔티티 로딩 시 한 번 파싱된 ReportDetail) 및 참조자 조회 (report_references 테이블)
+        List<ReportDetailResDto.AttachmentResDto> atts = report.getAttachments().stream()
+                .map(a -> new ReportDetailResDto.AttachmentResDto(a.fileName(), a.url(), null))
+                .collect(Collectors.toList());
+        List<ReportDetailResDto.ReferenceJsonResDto> refs = report.getReferenceEmployeeIds().stream()
+                .map(ReportDetailResDto.ReferenceJsonResDto::new)
+                .collect(Collectors.toList());
+        // 첨부파일 Pre-signed URL은 캐시 미스만 병렬로 서명합니다. ('inline'은 브라우저에서 바로 열리도록 하는 옵션)
+        Map<String, String> fileKeys = new HashMap<>();
+        for (ReportDetailResDto.AttachmentResDto attachment : atts) {
             try {
-                JsonNode root = objectMapper.readTree(report.getDetail());
-                // 첨부파일 파싱
-                atts = Optional.of(root.path("attachments"))
-                        .filter(JsonNode::isArray)
-                        .map(arr -> objectMapper.convertValue(arr, new TypeReference<List<AttachmentJsonReqDto>>() {
-                        }))
-                        .orElse(Collections.emptyList())
-                        .stream()
-                        .map(a -> new ReportDetailResDto.AttachmentResDto(a.getFileName(), a.getUrl()))
-                        .collect(Collectors.toList());
-                // 참조자 파싱
-                refs = Optional.of(root.path("references"))
-                        .filter(JsonNode::isArray)
-                        .map(arr -> objectMapper.convertValue(arr, new TypeReference<List<ReferenceJsonReqDto>>() {
-                        }))
-                        .orElse(Collections.emptyList())
-                        .stream()
-                        .map(rj -> new ReportDetailResDto.ReferenceJsonResDto(rj.getEmployeeId()))
-                        .collect(Collectors.toList());
-            } catch (JsonProcessingException e) {
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "detail JSON 파싱 실패", e);
+                fileKeys.put(attachment.getUrl(), extractS3KeyFromUrl(attachment.getUrl()));
+            } catch (Exception e) {
+                log.error("S3 키 추출 실패: {}", attachment.getUrl(), e);
+            }
+        }
+        // 이미지/PDF 는 준비된 미리보기(썸네일)도 같이 서명하고, 아직 없으면 생성을 예약합니다.
+        Map<String, String> fileNamesByKey = new HashMap<>();
+        for (ReportDetailResDto.AttachmentResDto attachment : atts) {
+            String fileKey = fileKeys.get(attachment.getUrl());
+            if (fileKey != null) {
+                fileNamesByKey.putIfAbsent(fileKey, attachment.getFileName());
             }
         }
+        Map<String, String> previewKeys = attachmentPreviewService.findReadyPreviewKeys(fileNamesByKey);
+        // 내용 주소 기반 키(해시)는 파일명이 아니므로, 내려받을 때 원래 파일명이 보이도록 함께 서명합니다.
+        Map<String, S3Service.PresignTarget> originalTargets = new HashMap<>();
+        Map<String, S3Service.PresignTarget> previewTargets = new HashMap<>();
+        for (ReportDetailResDto.AttachmentResDto attachment : atts) {
+            String fileKey = fileKeys.get(attachment.getUrl());
+            if (fileKey == null) {
+                continue;
+            }
+            originalTargets.put(attachment.getUrl(), new S3Service.PresignTarget(fileKey, attachment.getFileName()));
+            String previewKey = previewKeys.get(fileKey);
+            if (previewKey != null) {
+                previewTargets.put(attachment.getUrl(), new S3Service.PresignTarget(
+                        previewKey, AttachmentPreviewService.previewFileNameOf(attachment.getFileName())));
+            }
+        }
+        List<S3Service.PresignTarget> targets = new ArrayList<>(originalTargets.values());
+        targets.addAll(previewTargets.values());
+        Map<S3Service.PresignTarget, String> presignedUrls = s3Service.generatePresignedUrls(targets, "inline");
         List<ReportDetailResDto.AttachmentResDto> finalAttachments = atts.stream()
                 .map(attachment -> {
-                    try {
-                        String fileKey = extractS3KeyFromUrl(attachment.getUrl());
-                        // 'inline'은 브라우저에서 바로 열리도록 하는 옵션입니다.
-                        String presignedUrl = s3Service.generatePresignedUrl(fileKey, "inline");
-                        return new ReportDetailResDto.AttachmentResDto(attachment.getFileName(), presignedUrl);
-                    } catch (Exception e) {
-                        log.error("Pre-signed URL 생성 실패: {}", attachment.getUrl(), e);
-                        // 실패 시에는 빈 URL이나 원본 URL을 그대로 반환할 수 있습니다.
-                        return new ReportDetailResDto.AttachmentResDto(attachment.getFileName(), "");
-                    }
+                    S3Service.PresignTarget original = originalTargets.get(attachment.getUrl());
+                    // 실패 시에는 빈 URL을 반환합니다.
+                    String presignedUrl = original != null ? presignedUrls.getOrDefault(original, "") : "";
+                    // 미리보기가 아직 없으면 null (프론트는 아이콘 등으로 대체)
+                    S3Service.PresignTarget preview = previewTargets.get(attachment.getUrl());
+                    String previewUrl = preview != null ? presignedUrls.get(preview) : null;
+                    return new ReportDetailResDto.AttachmentResDto(attachment.getFileName(), presignedUrl, previewUrl);
                 })
                 .collect(Collectors.toList());
 
@@ -792,9 +836,16 @@ public class ApprovalService {
 
     /**
      * 결재 처리 (Approve/Rejected)
+     * 보고서/결재선은 @Version 으로 충돌을 감지하고, 충돌하면 새 트랜잭션에서 제한된 횟수만큼 다시 시도합니다.
      */
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ApprovalProcessResDto processApproval(Long reportId, Long writerId, ApprovalProcessReqDto req) {
+        return optimisticLockRetry.execute("결재 처리 reportId=" + reportId,
+                () -> self.applyApproval(reportId, writerId, req));
+    }
+
+    @Transactional
+    public ApprovalProcessResDto applyApproval(Long reportId, Long writerId, ApprovalProcessReqDto req) {
 
 
         Reports submit = reportsRepository.findById(reportId)
@@ -805,15 +856,12 @@ public class ApprovalService {
                 .orElseThrow(() -> new ResponseStatusException(
                         HttpStatus.FORBIDDEN, "결재 권한이 없거나, 이미 처리된 결재입니다."));
 
+        ReportBoxCounterService.BoxSnapshot before = boxCounterService.snapshot(submit);
+        ApprovalOutboxService.TransitionState beforeState = outboxService.capture(submit);
+
 
         // ② action에 따라 approve/rejected 호출 (approvalDateTime, approvalComment가 세팅됨)
-        if (req.getApprovalStatus() == ApprovalStatus.APPROVED) {
-            currentline.approve(req.getComment());
-        } else if (req.getApprovalStatus() == ApprovalStatus.REJECTED) {
-            currentline.rejected(req.getComment());
-        } else {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "알 수 없는 action 입니다.");
-        }
+        applyDecision(currentline, req.getApprovalStatus(), req.getComment());
 
         approvalRepository.save(currentline);
 
@@ -823,11 +871,12 @@ public class ApprovalService {
 
         report.moveToNextOrComplete(currentline);
         reportsRepository.save(report);
+        boxCounterService.applyChange(before, report);
+        outboxService.recordTransition(beforeState, report);
 
-        // 다음 결재자 이름 조회
+        // 다음 결재자 이름 조회 (이름 캐시 → 미스만 Feign 배치 API)
         String nextName = report.getCurrentApproverId() != null
-                ? employeeFeignClient.getById(report.getCurrentApproverId())
-                .getBody().getName()
+                ? employeeNameCache.getNames(Set.of(report.getCurrentApproverId())).get(report.getCurrentApproverId())
                 : null;
 
         // DTO 반환
@@ -839,6 +888,148 @@ public class ApprovalService {
                 .build();
     }
 
+    /**
+     * 일괄 결재 처리 (문서별 승인/반려)
+     * 문서를 청크 단위로 나눠 청크마다 한 트랜잭션에서 처리하고, 다음 결재자 이름은 마지막에 한 번에 조회합니다.
+     * 처리할 수 없는 문서(권한 없음, 이미 처리됨 등)는 실패로 기록하고 나머지는 계속 처리합니다.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkApprovalResDto processBulkApproval(Long approverId, BulkApprovalReqDto req) {
+        List<BulkApprovalReqDto.ItemReqDto> items = req.getItems();
+        if (items.size() > bulkApprovalMaxItems) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "한 번에 최대 " + bulkApprovalMaxItems + "건까지 결재할 수 있습니다.");
+        }
+
+        List<ApprovalOutcome> outcomes = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += bulkApprovalChunkSize) {
+            List<BulkApprovalReqDto.ItemReqDto> chunk = items.subList(from, Math.min(from + bulkApprovalChunkSize, items.size()));
+            try {
+                // 다른 요청과 충돌하면 청크를 다시 읽어 재시도 (그 사이 처리된 문서는 실패로 기록됨)
+                outcomes.addAll(optimisticLockRetry.execute("일괄 결재 approverId=" + approverId,
+                        () -> self.processApprovalChunk(approverId, chunk)));
+            } catch (Exception e) {
+                // 청크 트랜잭션이 롤백되었으므로 청크 전체를 실패로 기록
+                log.error("일괄 결재 청크 처리 실패: approverId={}, reportIds={}", approverId,
+                        chunk.stream().map(BulkApprovalReqDto.ItemReqDto::getReportId).toList(), e);
+                chunk.forEach(item -> outcomes.add(ApprovalOutcome.failed(item.getReportId(), "일괄 처리 중 오류가 발생했습니다.")));
+            }
+        }
+
+        // 다음 결재자 이름을 한 번에 조회 (이름 캐시 → 미스만 Feign 배치 API)
+        Set<Long> nextApproverIds = outcomes.stream()
+                .map(ApprovalOutcome::nextApproverId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, String> names = nextApproverIds.isEmpty()
+                ? Collections.emptyMap()
+                : employeeNameCache.getNames(nextApproverIds);
+
+        List<BulkApprovalResDto.ItemResDto> results = outcomes.stream()
+                .map(o -> {
+                    BulkApprovalResDto.ItemResDto result = o.result();
+                    if (o.nextApproverId() != null) {
+                        result.setNextApprover(names.get(o.nextApproverId()));
+                    }
+                    return result;
+                })
+                .collect(Collectors.toList());
+        int succeeded = (int) results.stream().filter(BulkApprovalResDto.ItemResDto::isSuccess).count();
+
+        return BulkApprovalResDto.builder()
+                .requested(items.size())
+                .succeeded(succeeded)
+                .failed(results.size() - succeeded)
+                .results(results)
+                .build();
+    }
+
+    /**
+     * 일괄 결재의 한 청크를 한 트랜잭션에서 처리합니다.
+     * 보고서와 결재선을 한 번에 읽고, 변경 내용은 커밋 시점에 함께 flush 됩니다.
+     */
+    @Transactional
+    public List<ApprovalOutcome> processApprovalChunk(Long approverId, List<BulkApprovalReqDto.ItemReqDto> chunk) {
+        Set<Long> reportIds = chunk.stream()
+                .map(BulkApprovalReqDto.ItemReqDto::getReportId)
+                .collect(Collectors.toSet());
+        Map<Long, Reports> reportsById = reportsRepository.findAllWithApprovalLinesByIdIn(reportIds).stream()
+                .collect(Collectors.toMap(Reports::getId, r -> r));
+
+        Set<Long> processed = new HashSet<>();
+        List<ApprovalOutcome> outcomes = new ArrayList<>();
+        for (BulkApprovalReqDto.ItemReqDto item : chunk) {
+            Long reportId = item.getReportId();
+            Reports report = reportsById.get(reportId);
+            if (report == null) {
+                outcomes.add(ApprovalOutcome.failed(reportId, "보고서를 찾을 수 없습니다"));
+                continue;
+            }
+            if (!processed.add(reportId)) {
+                outcomes.add(ApprovalOutcome.failed(reportId, "중복된 결재 요청입니다."));
+                continue;
+            }
+            if (item.getApprovalStatus() != ApprovalStatus.APPROVED && item.getApprovalStatus() != ApprovalStatus.REJECTED) {
+                outcomes.add(ApprovalOutcome.failed(reportId, "알 수 없는 action 입니다."));
+                continue;
+            }
+            Optional<ApprovalLine> pendingLine = report.getApprovalLines().stream()
+                    .filter(l -> l.getEmployeeId().equals(approverId) && l.getApprovalStatus() == ApprovalStatus.PENDING)
+                    .findFirst();
+            if (pendingLine.isEmpty()) {
+                outcomes.add(ApprovalOutcome.failed(reportId, "결재 권한이 없거나, 이미 처리된 결재입니다."));
+                continue;
+            }
+
+            ReportBoxCounterService.BoxSnapshot before = boxCounterService.snapshot(report);
+            ApprovalOutboxService.TransitionState beforeState = outboxService.capture(report);
+            ApprovalLine line = pendingLine.get();
+            applyDecision(line, item.getApprovalStatus(), item.getComment());
+            report.moveToNextOrComplete(line);
+            boxCounterService.applyChange(before, report);
+            outboxService.recordTransition(beforeState, report);
+
+            outcomes.add(new ApprovalOutcome(
+                    BulkApprovalResDto.ItemResDto.builder()
+                            .reportId(reportId)
+                            .success(true)
+                            .approvalStatus(line.getApprovalStatus())
+                            .reportStatus(report.getReportStatus())
+                            .build(),
+                    report.getCurrentApproverId()));
+        }
+        return outcomes;
+    }
+
+    /**
+     * 일괄 결재 문서별 처리 결과 (다음 결재자 이름은 청크 처리 후 한 번에 채웁니다)
+     */
+    public record ApprovalOutcome(BulkApprovalResDto.ItemResDto result, Long nextApproverId) {
+
+        static ApprovalOutcome failed(Long reportId, String message) {
+            return new ApprovalOutcome(
+                    BulkApprovalResDto.ItemResDto.builder()
+                            .reportId(reportId)
+                            .success(false)
+                            .errorMessage(message)
+                            .build(),
+                    null);
+        }
+    }
+
+    /**
+     * 결재선에 승인/반려를 반영합니다. (approvalDateTime, approvalComment가 세팅됨)
+     */
+    private void applyDecision(ApprovalLine line, ApprovalStatus decision, String comment) {
+        if (decision == ApprovalStatus.APPROVED) {
+            line.approve(comment);
+        } else if (decision == ApprovalStatus.REJECTED) {
+            line.rejected(comment);
+        } else {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "알 수 없는 action 입니다.");
+        }
+    }
+
     /**
      * 결재 이력/상세 확인
      */
@@ -850,24 +1041,6 @@ public class ApprovalService {
                         HttpStatus.NOT_FOUND, "보고서를 찾을 수 없습니다. id=" + reportId));
 
         checkReadAccess(report, writerId);
-        boolean isReference = false;
-        if (report.getDetail() != null && !report.getDetail().isBlank()) {
-            try {
-                JsonNode root = objectMapper.readTree(report.getDetail());
-                JsonNode referencesNode = root.path("references");
-                if (referencesNode.isArray()) {
-                    for (JsonNode refNode : referencesNode) {
-                        if (refNode.path("employeeId").asLong() == writerId) {
-                            isReference = true;
-                            break;
-                        }
-                    }
-                }
-            } catch (JsonProcessingException e) {
-                log.error("getApprovalHistory 권한 체크 중 detail JSON 파싱 실패, reportId: {}", reportId, e);
-            }
-        }
-        isUserInReferences(report, writerId);
         List<ApprovalLine> lines = approvalRepository
                 .findApprovalLinesByReportId(reportId);
 
@@ -875,15 +1048,13 @@ public class ApprovalService {
             return Collections.emptyList();
         }
 
-        // 3) 사번에 대한 이름을 한 번에 조회 (Feign 배치 API 필요)
+        // 3) 사번에 대한 이름을 한 번에 조회 (이름 캐시 → 미스만 Feign 배치 API)
         List<Long> employeeIds = lines.stream()
                 .map(ApprovalLine::getEmployeeId)
                 .distinct()
                 .collect(Collectors.toList());
 
-        // Feign 클라이언트의 반환 타입이 ResponseEntity<Map>이므로 .getBody()를 호출해야 합니다.
-        ResponseEntity<Map<Long, String>> response = employeeFeignClient.getEmployeeNamesByEmployeeIds(employeeIds);
-        Map<Long, String> nameMap = Optional.ofNullable(response.getBody()).orElse(Collections.emptyMap());
+        Map<Long, String> nameMap = employeeNameCache.getNames(employeeIds);
 
         // 4) DTO로 변환
         return lines.stream()
@@ -900,11 +1071,74 @@ public class ApprovalService {
     }
 
 
+    /**
+     * chain_root_id 가 백필되지 않은 기존 재상신 문서면 previous_report_id 체인을 따라 계보 정보를 채웁니다.
+     * 쓰기 트랜잭션 안이면 보정한 값이 함께 저장됩니다.
+     */
+    private void restoreLegacyLineage(Reports report) {
+        if (!report.hasLegacyLineage()) {
+            return;
+        }
+        Long rootId = report.getPreviousReportId();
+        int depth = 1;
+        // 잘못된 데이터로 순환이 있어도 끝나도록 최대 깊이를 둡니다.
+        while (depth < MAX_LINEAGE_WALK) {
+            Optional<Long> previous = reportsRepository.findPreviousReportIdById(rootId);
+            if (previous.isEmpty()) {
+                break;
+            }
+            rootId = previous.get();
+            depth++;
+        }
+        log.info("기존 재상신 문서의 계보 보정: reportId={}, rootId={}, depth={}", report.getId(), rootId, depth);
+        report.restoreLineage(rootId, depth);
+    }
+
+    /**
+     * 재상신 계보 조회
+     * 보고서가 속한 계보(최초 보고서 + 모든 재상신 문서)를 chain_root_id 로 한 번에 조회합니다.
+     */
+    @Transactional(readOnly = true)
+    public ReportLineageResDto getResubmitLineage(Long reportId, Long userId) {
+        Reports report = reportsRepository.findById(reportId)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND, "보고서를 찾을 수 없습니다. id=" + reportId));
+
+        checkReadAccess(report, userId);
+
+        restoreLegacyLineage(report);
+        Long rootId = report.getLineageRootId();
+        List<ReportLineageResDto.LineageReportDto> lineage = reportsRepository.findLineageByRootId(rootId).stream()
+                .map(v -> ReportLineageResDto.LineageReportDto.builder()
+                        .reportId(v.id())
+                        .previousReportId(v.previousReportId())
+                        .resubmitDepth(v.resubmitDepth())
+                        .title(v.title())
+                        .reportStatus(v.reportStatus())
+                        .reportCreatedAt(v.reportCreatedAt())
+                        .submittedAt(v.submittedAt())
+                        .returnAt(v.returnAt())
+                        .build())
+                .collect(Collectors.toList());
+
+        return ReportLineageResDto.builder()
+                .rootReportId(rootId)
+                .reports(lineage)
+                .build();
+    }
+
     /**
      * 보고서 회수 처리
      */
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ReportRecallResDto recallReport(Long reportId, Long writerId) {
+        // 결재와 회수가 동시에 들어오면 @Version 충돌로 감지하고 제한된 횟수만큼 재시도합니다.
+        return optimisticLockRetry.execute("보고서 회수 reportId=" + reportId,
+                () -> self.applyRecall(reportId, writerId));
+    }
+
+    @Transactional
+    public ReportRecallResDto applyRecall(Long reportId, Long writerId) {
         Reports report = reportsRepository.findById(reportId)
                 .orElseThrow(() -> new ResponseStatusException(
                         HttpStatus.NOT_FOUND, "보고서를 찾을 수 없습니다. id=" + reportId));
@@ -917,8 +1151,12 @@ public class ApprovalService {
         if (!report.getWriterId().equals(writerId) && report.getReportStatus() != ReportStatus.IN_PROGRESS && report.getReportStatus() != ReportStatus.SCHEDULED) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "회수 권한이 없습니다.");
         }
+        ReportBoxCounterService.BoxSnapshot before = boxCounterService.snapshot(report);
+        ApprovalOutboxService.TransitionState beforeState = outboxService.capture(report);
         report.recall();
         Reports updated = reportsRepository.save(report);
+        boxCounterService.applyChange(before, updated);
+        outboxService.recordTransition(beforeState, updated);
         return ReportRecallResDto.builder()
                 .id(updated.getId())
                 .reportStatus(updated.getReportStatus())
@@ -948,9 +1186,9 @@ public class ApprovalService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "반려되거나 회수된 보고서만 재상신할 수 있습니다.");
         }
 
-        // 재상신 횟수를 단 한 번의 쿼리로 계산합니다.
-        Integer resubmitCount = reportsRepository.countResubmitChainDepth(originalReportId);
-        int currentResubmits = (resubmitCount == null) ? 0 : resubmitCount;
+        // 재상신 횟수는 보고서에 저장된 계보 깊이로 바로 확인합니다. (백필 전 기존 문서는 체인을 따라 보정)
+        restoreLegacyLineage(originalReport);
+        int currentResubmits = originalReport.getResubmitDepth();
         log.info("Report ID: {} 의 현재 재상신 횟수: {}", originalReportId, currentResubmits);
 
         // 재상신 횟수가 3회 이상이면 차단합니다.
@@ -982,22 +1220,17 @@ public class ApprovalService {
                 newReport.getReportTemplateId(),
                 newReport.getReportTemplateData());
 
-        // 1) 기존 detail JSON 파싱
-        Map<String, Object> detailMap = new HashMap<>();
-        if (originalReport.getDetail() != null && !originalReport.getDetail().isBlank()) {
-            detailMap = objectMapper.readValue(
-                    originalReport.getDetail(),
-                    new TypeReference<>() {
-                    }
-            );
-        }
-
-        // 2) 요청에 포함된 새로운 attachments/references 덮어쓰기
-        if (req.getAttachments() != null && !req.getAttachments().isEmpty()) {
-            detailMap.put("attachments", req.getAttachments());
-        }
+        // 1) 요청에 포함된 새로운 attachments 로 덮어쓰고, 없으면 원본 첨부파일을 승계
+        //    참조자도 요청값이 없으면 원본 참조자를 승계 (report_references 테이블)
+        newReport.setDetail(req.getAttachments() != null && !req.getAttachments().isEmpty()
+                ? ReportDetail.ofAttachments(req.getAttachments())
+                : originalReport.getDetail());
         if (req.getReferences() != null && !req.getReferences().isEmpty()) {
-            detailMap.put("references", req.getReferences());
+            newReport.replaceReferences(req.getReferences().stream()
+                    .map(ReportDetailResDto.ReferenceJsonResDto::getEmployeeId)
+                    .toList());
+        } else {
+            newReport.replaceReferences(originalReport.getReferenceEmployeeIds());
         }
 
         Long templateId = req.getTemplateId() != null ? req.getTemplateId() : originalReport.getReportTemplateId();
@@ -1010,33 +1243,28 @@ public class ApprovalService {
             newReport.markDraft();
         }
 
-
-        if (!detailMap.isEmpty()) {
-            newReport.setDetail(objectMapper.writeValueAsString(detailMap));
-        }
         // 3. 새로운 보고서를 저장합니다. (cascade 설정으로 결재라인도 함께 저장됨)
         Reports savedNewReport = reportsRepository.save(newReport);
+        boxCounterService.applyChange(ReportBoxCounterService.BoxSnapshot.empty(), savedNewReport);
+        // 원본에서 승계한 첨부도 새 보고서의 참조로 셉니다.
+        attachmentBlobService.reconcile(null, savedNewReport.getDetail());
+        outboxService.recordTransition(ApprovalOutboxService.TransitionState.NONE, savedNewReport);
         log.info("[DEBUG] savedNewReport.templateId={}, templateData={}",
                 savedNewReport.getReportTemplateId(),
                 savedNewReport.getReportTemplateData());
 
         // 4. 원본 보고서의 상태를 변경하여 더 이상 유효하지 않음을 표시합니다.
+        ReportBoxCounterService.BoxSnapshot originalBefore = boxCounterService.snapshot(originalReport);
         originalReport.markAsResubmitted();
         reportsRepository.save(originalReport);
+        boxCounterService.applyChange(originalBefore, originalReport);
 
         // 5. 템플릿 및 폼 데이터 파싱
-        Map<String, Object> templateMap = new HashMap<>();
+        Map<String, Object> templateMap = templateCache.findTemplate(savedNewReport.getReportTemplateId())
+                .map(TemplateCache.CachedTemplate::structure)
+                .orElseGet(HashMap::new);
         Map<String, Object> formDataMap = new HashMap<>();
         try {
-            if (savedNewReport.getReportTemplateId() != null) {
-                ReportTemplate template = templateRepository.findById(savedNewReport.getReportTemplateId())
-                        .orElse(null);
-                if (template != null && template.getTemplate() != null) {
-                    templateMap = objectMapper.readValue(template.getTemplate(), new TypeReference<>() {
-                    });
-                }
-            }
-
             if (savedNewReport.getReportTemplateData() != null && !savedNewReport.getReportTemplateData().isBlank()) {
                 formDataMap = objectMapper.readValue(savedNewReport.getReportTemplateData(), new TypeReference<>() {
                 });
@@ -1059,8 +1287,24 @@ public class ApprovalService {
 
 
 
-    @Transactional
+    /**
+     * 참조자 추가 처리
+     * (직원, 보고서) 유일 인덱스가 동시 추가를 막으므로, 충돌하면 먼저 추가된 참조자를 그대로 반환합니다.
+     * 카운터는 행을 실제로 넣은 트랜잭션에서만 증가합니다.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ReferenceResDto addReference(Long reportId, Long writerId, ReferenceReqDto req) {
+        try {
+            return self.insertReference(reportId, writerId, req);
+        } catch (DataIntegrityViolationException e) {
+            log.debug("[참조자 추가] 동시에 추가된 참조자를 반환합니다: reportId={}, employeeId={}",
+                    reportId, req.getEmployeeId());
+            return self.findReference(reportId, req.getEmployeeId());
+        }
+    }
+
+    @Transactional
+    public ReferenceResDto insertReference(Long reportId, Long writerId, ReferenceReqDto req) {
         Reports report = reportsRepository.findById(reportId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "보고서를 찾을 수 없습니다."));
 
@@ -1068,40 +1312,28 @@ public class ApprovalService {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "참조자 추가 권한이 없습니다.");
         }
 
-        try {
-            // 1. 기존 detail JSON을 Map으로 파싱
-            Map<String, Object> detailMap;
-            if (report.getDetail() != null && !report.getDetail().isBlank()) {
-                detailMap = objectMapper.readValue(report.getDetail(), new TypeReference<>() {
-                });
-            } else {
-                detailMap = new HashMap<>();
-            }
-
-            // 2. references 리스트를 가져오거나 새로 생성
-            List<Map<String, Long>> references = (List<Map<String, Long>>) detailMap.getOrDefault("references", new ArrayList<>());
-
-            // 3. 이미 존재하는 참조자인지 확인 (중복 추가 방지)
-            boolean exists = references.stream().anyMatch(ref -> req.getEmployeeId().equals(ref.get("employeeId")));
-            if (!exists) {
-                references.add(Map.of("employeeId", req.getEmployeeId()));
-            }
-
-            // 4. 수정된 references 리스트를 다시 detailMap에 넣기
-            detailMap.put("references", references);
+        // 참조자는 report_references 테이블에만 기록합니다. (detail JSON 재작성 없음)
+        Optional<ReportReferences> existing = referenceRepository.findByReportsIdAndEmployeeId(reportId, req.getEmployeeId());
+        if (existing.isPresent()) {
+            return ReferenceResDto.fromReportReferences(existing.get());
+        }
 
-            // 5. Map을 다시 JSON 문자열로 변환하여 report에 저장
-            report.setDetail(objectMapper.writeValueAsString(detailMap));
+        // 먼저 INSERT 를 내보내 유일 인덱스 충돌이면 카운터를 건드리기 전에 실패하게 합니다.
+        ReportReferences reference = referenceRepository.saveAndFlush(report.addReference(req.getEmployeeId()));
+        boxCounterService.adjustReference(req.getEmployeeId(), 1);
+        reportAccessCache.evict(reportId);
 
-            // Response DTO는 상황에 맞게 생성하여 반환 (이 부분은 단순 예시)
-            return ReferenceResDto.builder()
-                    .reportId(reportId)
-                    .employeeId(req.getEmployeeId())
-                    .build();
+        return ReferenceResDto.fromReportReferences(reference);
+    }
 
-        } catch (JsonProcessingException e) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "참조자 정보 처리 중 오류가 발생했습니다.", e);
-        }
+    /**
+     * 이미 존재하는 참조자 조회 (방금 다른 트랜잭션이 커밋한 행이므로 주 DB 에서 읽습니다)
+     */
+    @Transactional
+    public ReferenceResDto findReference(Long reportId, Long employeeId) {
+        return referenceRepository.findByReportsIdAndEmployeeId(reportId, employeeId)
+                .map(ReferenceResDto::fromReportReferences)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.CONFLICT, "참조자 추가 중 충돌이 발생했습니다. 다시 시도해 주세요."));
     }
 
     /**
@@ -1118,7 +1350,9 @@ public class ApprovalService {
         }
 
         // 2) 참조 삭제
-        referenceRepository.deleteByReportsIdAndEmployeeId(reportId, employeeId);
+        long deleted = referenceRepository.deleteByReportsIdAndEmployeeId(reportId, employeeId);
+        boxCounterService.adjustReference(employeeId, -deleted);
+        reportAccessCache.evict(reportId);
 
         // 3) 응답 DTO 반환
         return ReportReferencesResDto.builder()
@@ -1131,7 +1365,7 @@ public class ApprovalService {
     public ReportFormResDto getReportForm(Long reportId, Long templateId, Long userId) {
         try {
             Reports report = null;
-            ReportTemplate template;
+            TemplateCache.CachedTemplate template;
 
             // ----------------------------------------------------
             // 1. 보고서(report)와 템플릿(template) 엔티티 조회 (이 부분은 그대로)
@@ -1148,20 +1382,20 @@ public class ApprovalService {
                 if (reportTemplateId == null) {
                     throw new IllegalStateException("DB 데이터 오류: report_id=" + reportId + "의 report_template_id가 NULL입니다.");
                 }
-                template = templateRepository.findById(reportTemplateId)
+                template = templateCache.findTemplate(reportTemplateId)
                         .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "양식을 찾을 수 없습니다."));
 
             } else {
-                template = templateRepository.findById(templateId)
+                template = templateCache.findTemplate(templateId)
                         .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "양식을 찾을 수 없습니다."));
             }
 
             // ----------------------------------------------------
             // 2. '구조(template)'와 '데이터(formData)' 파싱
             // ----------------------------------------------------
-            Map<String, Object> templateStructure = objectMapper.readValue(template.getTemplate(), new TypeReference<>() {
-            });
-            templateStructure.put("id", template.getTemplateId());
+            // 캐시된 구조는 공유 객체이므로 복사한 뒤 id 를 추가합니다.
+            Map<String, Object> templateStructure = new HashMap<>(template.structure());
+            templateStructure.put("id", template.templateId());
 
 
             Map<String, Object> formData;
@@ -1219,29 +1453,26 @@ public class ApprovalService {
     }
 
     /**
-     * 보고서의 detail JSON을 파싱하여 참조자 목록에 특정 사용자가 있는지 확인하는 헬퍼 메소드
+     * report_references 테이블에서 특정 사용자가 참조자로 지정되어 있는지 확인하는 헬퍼 메소드
      */
     private boolean isUserInReferences(Reports report, Long userId) {
-        if (report.getDetail() != null && !report.getDetail().isBlank()) {
-            try {
-                JsonNode root = objectMapper.readTree(report.getDetail());
-                JsonNode referencesNode = root.path("references");
-                if (referencesNode.isArray()) {
-                    for (JsonNode refNode : referencesNode) {
-                        if (refNode.path("employeeId").asLong() == userId) {
-                            return true;
-                        }
-                    }
-                }
-            } catch (JsonProcessingException e) {
-                log.error("참조자 권한 체크 중 JSON 파싱 실패, reportId: {}", report.getId(), e);
-            }
+        return referenceRepository.existsByReportsIdAndEmployeeId(report.getId(), userId);
+    }
+
+    /**
+     * 요청 DTO의 참조자 목록을 직원 ID 목록으로 변환합니다.
+     */
+    private List<Long> toReferenceIds(List<ReferenceJsonReqDto> references) {
+        if (references == null) {
+            return Collections.emptyList();
         }
-        return false;
+        return references.stream()
+                .map(ReferenceJsonReqDto::getEmployeeId)
+                .toList();
     }
 
     /**
-     * 문서 카운트 서비스 (실제 목록 조회 로직과 100% 일치하도록 수정)
+     * 문서 카운트 서비스 (사용자별 카운터 테이블 단건 조회)
      *
      * @param userId 현재 사용자의 ID
      * @return 각 문서함별 개수가 담긴 DTO
@@ -1252,43 +1483,8 @@ public class ApprovalService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "사용자 ID가 필요합니다.");
         }
 
-        // Specification을 사용하여 각 조건에 맞는 문서 개수를 정확하게 카운트합니다.
-
-        Specification<Reports> inProgressSpec =
-                ReportSpecifications.withDynamicQuery("writer,approver,involved", ReportStatus.IN_PROGRESS, null, userId);
-
-        // 1. 내가 결재할 문서 (결재 대기)
-        // role='approver'는 현재 결재자(currentApproverId)를 기준으로 하므로, 별도 count 메소드가 더 정확하고 빠릅니다.
-        long pendingCount = reportsRepository.countByCurrentApproverIdAndReportStatus(userId, ReportStatus.IN_PROGRESS);
-
-        // 2. 내가 올린 문서 (상태별)
-        long inProgressCount = reportsRepository.count(inProgressSpec);
-        long rejectedCount = reportsRepository.countByWriterIdAndReportStatus(userId, ReportStatus.REJECTED);
-        long draftsCount = reportsRepository.countByWriterIdAndReportStatusIn(
-                userId,
-                List.of(ReportStatus.DRAFT, ReportStatus.RECALLED)
-        );
-        long scheduledCount = reportsRepository.countByWriterIdAndReportStatus(userId, ReportStatus.SCHEDULED);
-
-        // ★★★ 핵심 수정 부분: 참조 문서 개수 ★★★
-        // 3. 내가 참조된 문서
-        // 목록 조회와 동일한 Specification을 사용하여 개수를 셉니다.
-        Specification<Reports> referenceSpec = ReportSpecifications.withDynamicQuery("reference", null, null, userId);
-        long referenceCount = reportsRepository.count(referenceSpec);
-
-        // ★★★ 핵심 수정 부분: 결재 완료 문서 개수 ★★★
-        // 프론트엔드 요청에 따라, '내가 기안한(writer)' 완료 문서만 카운트합니다.
-        long completedCount = reportsRepository.countByWriterIdAndReportStatus(userId, ReportStatus.APPROVED);
-
-        // 4. 조회된 결과를 DTO에 담아 반환
-        return new ReportCountResDto(
-                pendingCount,
-                inProgressCount,
-                rejectedCount,
-                draftsCount,
-                scheduledCount,
-                referenceCount,
-                completedCount
-        );
+        // 상태 변경 시점마다 증감되는 사용자별 카운터를 PK 한 번으로 조회합니다.
+        // (원본 테이블 기준 재집계는 ReportBoxCounterService.reconcile 이 주기적으로 수행)
+        return boxCounterService.getCounts(userId);
     }
 }
@@ -0,0 +1,172 @@
+package com.playdata.approvalservice.approval.service;
+
+import com.playdata.approvalservice.approval.entity.AttachmentBlob;
+import com.playdata.approvalservice.approval.entity.ReportDetail;
+import com.playdata.approvalservice.approval.repository.AttachmentBlobRepository;
+import com.playdata.approvalservice.common.config.AwsS3Config;
+import com.playdata.approvalservice.common.lock.RedisLease;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.net.URL;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * 내용 주소 기반 첨부파일 객체의 참조 수 관리와 정리
+ *
+ * - 업로드 시 touch 로 객체 행을 만들거나 갱신합니다. (refCount 는 그대로)
+ * - 보고서 저장 트랜잭션 안에서 reconcile 로 이전/이후 첨부 목록의 차이만큼 refCount 를 증감하므로,
+ *   보고서 저장이 롤백되면 참조 수도 함께 롤백됩니다.
+ * - refCount 가 0 이고 유예 시간 동안 업로드되지 않은 객체는 주기적으로 S3 와 DB 에서 삭제합니다. (한 인스턴스에서만 실행)
+ * 이전 방식(UUID_파일명 키)으로 저장된 첨부는 참조 수 관리 대상이 아닙니다.
+ */
+@Service
+@Slf4j
+public class AttachmentBlobService {
+
+    public static final String KEY_PREFIX = "attachments/sha256/";
+    private static final String GC_LEASE = "approval-attachment-gc";
+
+    private final AttachmentBlobRepository blobRepository;
+    private final AwsS3Config awsS3Config;
+    private final RedisLease redisLease;
+    private final AttachmentPreviewService attachmentPreviewService;
+
+    // 참조 없는 객체를 삭제하기 전 유예 시간 (업로드 후 보고서 저장 전인 객체 보호)
+    @Value("${approval.attachments.gc-grace-hours:24}")
+    private long gcGraceHours;
+
+    @Value("${approval.attachments.gc-batch-size:500}")
+    private int gcBatchSize;
+
+    // 자기 자신을 주입받기 위한 필드 (Lazy 로딩으로 순환참조 방지)
+    @Autowired
+    @Lazy
+    private AttachmentBlobService self;
+
+    public AttachmentBlobService(AttachmentBlobRepository blobRepository,
+                                 AwsS3Config awsS3Config,
+                                 RedisLease redisLease,
+                                 AttachmentPreviewService attachmentPreviewService) {
+        this.blobRepository = blobRepository;
+        this.awsS3Config = awsS3Config;
+        this.redisLease = redisLease;
+        this.attachmentPreviewService = attachmentPreviewService;
+    }
+
+    /**
+     * 업로드한(또는 이미 있는) 객체를 기록하고 정리 유예 시간을 갱신합니다.
+     * 반드시 S3 존재 확인(HEAD) 전에 호출해야 정리 작업과 겹치지 않습니다.
+     */
+    @Transactional
+    public void touch(String contentHash, String objectKey, long size) {
+        blobRepository.touch(contentHash, objectKey, size, LocalDateTime.now());
+    }
+
+    /**
+     * 보고서 첨부 목록이 before → after 로 바뀐 만큼 참조 수를 증감합니다. (보고서 저장 트랜잭션 안에서 호출)
+     *
+     * @param before 변경 전 첨부 (새 보고서면 null)
+     * @param after  변경 후 첨부 (null 이면 첨부 없음)
+     */
+    @Transactional
+    public void reconcile(ReportDetail before, ReportDetail after) {
+        // 같은 객체를 공유하는 두 보고서 트랜잭션이 서로 다른 순서로 행을 잠가 교착되지 않도록 키 순서로 갱신합니다.
+        Map<String, Integer> deltas = new TreeMap<>();
+        countKeys(after).forEach((key, n) -> deltas.merge(key, n, Integer::sum));
+        countKeys(before).forEach((key, n) -> deltas.merge(key, -n, Integer::sum));
+        deltas.forEach((key, delta) -> {
+            if (delta != 0) {
+                blobRepository.adjustRefCount(key, delta);
+            }
+        });
+    }
+
+    /**
+     * 참조 없는 오래된 객체를 S3 와 DB 에서 삭제합니다.
+     */
+    @Scheduled(cron = "${approval.attachments.gc-cron:0 0 5 * * *}")
+    public void collectGarbage() {
+        Optional<String> lease = redisLease.tryAcquire(GC_LEASE, Duration.ofMinutes(30));
+        if (lease.isEmpty()) {
+            return;
+        }
+        try {
+            LocalDateTime before = LocalDateTime.now().minusHours(gcGraceHours);
+            int deleted = 0;
+            for (String hash : blobRepository.findOrphanHashes(before, gcBatchSize)) {
+                try {
+                    if (self.deleteOrphan(hash, before)) {
+                        deleted++;
+                    }
+                } catch (Exception e) {
+                    log.error("[첨부 정리] 객체 삭제 실패: hash={}", hash, e);
+                }
+            }
+            log.info("[첨부 정리] 참조 없는 첨부 객체 {}건 삭제", deleted);
+        } finally {
+            redisLease.release(GC_LEASE, lease.get());
+        }
+    }
+
+    /**
+     * 행을 잠근 채로 다시 확인하고 S3 객체(미리보기 포함) → DB 행 순서로 삭제합니다.
+     * 잠금 동안 같은 내용을 업로드하는 요청은 touch 에서 기다렸다가 새 행을 만들고 다시 PUT 합니다.
+     */
+    @Transactional
+    public boolean deleteOrphan(String contentHash, LocalDateTime before) throws Exception {
+        Optional<AttachmentBlob> blob = blobRepository.lockOrphan(contentHash, before);
+        if (blob.isEmpty()) {
+            return false;
+        }
+        awsS3Config.deleteFromS3Bucket(awsS3Config.getS3Url(blob.get().getObjectKey()));
+        attachmentPreviewService.deletePreviewQuietly(blob.get().getObjectKey());
+        blobRepository.delete(blob.get());
+        return true;
+    }
+
+    /**
+     * 첨부 URL 이 내용 주소 기반 객체면 객체 키를, 아니면 null 을 반환합니다.
+     */
+    public static String objectKeyOf(String url) {
+        String key = s3KeyOf(url);
+        return key != null && key.startsWith(KEY_PREFIX) ? key : null;
+    }
+
+    /**
+     * 첨부 URL 의 S3 객체 키 (이전 방식 키 포함, 해석할 수 없으면 null)
+     */
+    public static String s3KeyOf(String url) {
+        if (url == null) {
+            return null;
+        }
+        try {
+            return URLDecoder.decode(new URL(url).getPath(), StandardCharsets.UTF_8).substring(1);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private Map<String, Integer> countKeys(ReportDetail detail) {
+        if (detail == null) {
+            return Collections.emptyMap();
+        }
+        Map<String, Integer> counts = new HashMap<>();
+        for (ReportDetail.Attachment attachment : detail.attachments()) {
+            String key = objectKeyOf(attachment.url());
+            if (key != null) {
+                counts.merge(key, 1, Integer::sum);
+            }
+        }
+        return counts;
+    }
+}
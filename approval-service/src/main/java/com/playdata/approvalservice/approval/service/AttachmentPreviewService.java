@@ -0,0 +1,379 @@
+package com.playdata.approvalservice.approval.service;
+
+import com.playdata.approvalservice.common.config.AwsS3Config;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import net.coobird.thumbnailator.Thumbnails;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.io.RandomAccessReadBuffer;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 첨부파일 미리보기(썸네일) 생성
+ *
+ * 업로드가 끝난 이미지/PDF 는 전용 워커 풀에서 원본을 S3 에서 읽어 축소 JPEG(PDF 는 첫 페이지)를 만들고,
+ * 원본 옆({원본 키}.preview.jpg)에 저장합니다. 상세 화면은 원본 대신 이 미리보기 URL 을 받아 표시합니다.
+ *
+ * - 생성이 끝난 원본 키는 Redis SET 에 기록해 상세 조회 시 한 번의 SMISMEMBER 로 여러 첨부의 준비 여부를 확인합니다.
+ * - 아직 미리보기가 없는 첨부(기존 첨부, 직접 업로드 등)는 상세 조회 시점에 생성을 예약합니다.
+ * - 큐가 가득 차면 생성을 건너뛰며, 다음 상세 조회 때 다시 예약됩니다.
+ * - 읽을 수 없거나 너무 큰 원본, 생성에 실패한 원본은 TTL 이 있는 표시를 남겨 그동안 다시 시도하지 않습니다.
+ * - 이미지는 헤더의 픽셀 수를 먼저 확인하고 건너뛰며 읽고, PDF 는 렌더링 배율을 제한해 메모리 사용량을 묶어 둡니다.
+ */
+@Service
+@Slf4j
+public class AttachmentPreviewService {
+
+    public static final String PREVIEW_SUFFIX = ".preview.jpg";
+    private static final String READY_SET = "approval:attachment-previews";
+    // 생성 실패/생략 표시 (approval:attachment-previews:skip:{원본 키}, TTL 후 다시 시도)
+    private static final String SKIP_KEY_PREFIX = "approval:attachment-previews:skip:";
+    private static final Set<String> IMAGE_EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif", "bmp");
+
+    private final AwsS3Config awsS3Config;
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final Counter generated;
+    private final Counter failed;
+
+    // 이 인스턴스에서 생성 중이거나 대기 중인 원본 키 (중복 예약 방지)
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    @Value("${approval.preview.threads:2}")
+    private int threads;
+
+    @Value("${approval.preview.queue-capacity:500}")
+    private int queueCapacity;
+
+    @Value("${approval.preview.width:320}")
+    private int width;
+
+    @Value("${approval.preview.height:320}")
+    private int height;
+
+    // PDF 첫 페이지 렌더링 해상도
+    @Value("${approval.preview.pdf-dpi:72}")
+    private float pdfDpi;
+
+    // 이보다 큰 원본은 미리보기를 만들지 않습니다.
+    @Value("${approval.preview.max-source-mb:30}")
+    private long maxSourceMb;
+
+    // 이미지 헤더의 가로×세로가 이보다 크면 미리보기를 만들지 않습니다.
+    @Value("${approval.preview.max-source-pixels:100000000}")
+    private long maxSourcePixels;
+
+    // 디코딩할 최대 픽셀 수 (넘으면 건너뛰며 읽음, 4M px ≒ 16MB)
+    @Value("${approval.preview.max-decode-pixels:4000000}")
+    private long maxDecodePixels;
+
+    // PDF 렌더링 결과의 최대 긴 변 (px)
+    @Value("${approval.preview.max-render-px:1600}")
+    private float maxRenderPx;
+
+    // 형식을 읽을 수 없거나 너무 큰 원본은 이 시간 동안 다시 시도하지 않습니다.
+    @Value("${approval.preview.skip-ttl-hours:168}")
+    private long skipTtlHours;
+
+    // 생성 중 오류가 난 원본은 이 시간 뒤에 다시 시도합니다.
+    @Value("${approval.preview.failure-ttl-minutes:60}")
+    private long failureTtlMinutes;
+
+    private ThreadPoolExecutor previewExecutor;
+
+    public AttachmentPreviewService(AwsS3Config awsS3Config,
+                                    StringRedisTemplate stringRedisTemplate,
+                                    MeterRegistry meterRegistry) {
+        this.awsS3Config = awsS3Config;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.generated = Counter.builder("approval.preview.generated")
+                .description("생성된 첨부파일 미리보기 수")
+                .register(meterRegistry);
+        this.failed = Counter.builder("approval.preview.failed")
+                .description("미리보기 생성 실패 수")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    private void initialize() {
+        AtomicInteger seq = new AtomicInteger();
+        this.previewExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+            Thread t = new Thread(r, "attachment-preview-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    private void close() {
+        previewExecutor.shutdownNow();
+    }
+
+    public static String previewKeyOf(String objectKey) {
+        return objectKey + PREVIEW_SUFFIX;
+    }
+
+    /**
+     * 미리보기를 내려받을 때 표시할 파일명 (예: 보고서.pdf → 보고서-preview.jpg)
+     */
+    public static String previewFileNameOf(String fileName) {
+        if (fileName == null) {
+            return null;
+        }
+        int dot = fileName.lastIndexOf('.');
+        return (dot > 0 ? fileName.substring(0, dot) : fileName) + "-preview.jpg";
+    }
+
+    /**
+     * 미리보기를 만들 수 있는 파일인지 (파일명 확장자 기준)
+     */
+    public static boolean isPreviewable(String fileName) {
+        String ext = extensionOf(fileName);
+        return ext != null && (IMAGE_EXTENSIONS.contains(ext) || "pdf".equals(ext));
+    }
+
+    /**
+     * 미리보기 생성을 예약합니다. (미리보기 대상이 아니거나 이미 예약된 경우 무시)
+     *
+     * @param objectKey 원본 S3 객체 키
+     * @param fileName  원본 파일명 (형식 판별용)
+     */
+    public void schedule(String objectKey, String fileName) {
+        if (objectKey == null || !isPreviewable(fileName) || !inFlight.add(objectKey)) {
+            return;
+        }
+        try {
+            previewExecutor.execute(() -> {
+                try {
+                    generate(objectKey, fileName);
+                } finally {
+                    inFlight.remove(objectKey);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(objectKey);
+            log.debug("[미리보기] 대기열이 가득 차 생성을 건너뜁니다: {}", objectKey);
+        }
+    }
+
+    /**
+     * 미리보기가 준비된 첨부의 미리보기 키를 반환하고, 준비되지 않은 미리보기 대상은 생성을 예약합니다.
+     *
+     * @param fileNamesByKey 원본 객체 키 → 원본 파일명
+     * @return 원본 객체 키 → 미리보기 객체 키 (준비된 것만)
+     */
+    public Map<String, String> findReadyPreviewKeys(Map<String, String> fileNamesByKey) {
+        List<String> candidates = fileNamesByKey.entrySet().stream()
+                .filter(e -> isPreviewable(e.getValue()))
+                .map(Map.Entry::getKey)
+                .toList();
+        if (candidates.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<Object, Boolean> ready;
+        try {
+            ready = stringRedisTemplate.opsForSet().isMember(READY_SET, candidates.toArray());
+        } catch (Exception e) {
+            // Redis 장애 시에는 미리보기 없이 원본 URL 만 내려갑니다.
+            log.warn("[미리보기] 준비 여부 확인 실패", e);
+            return Collections.emptyMap();
+        }
+
+        Map<String, String> previewKeys = new HashMap<>();
+        List<String> notReady = new ArrayList<>();
+        for (String key : candidates) {
+            if (ready != null && Boolean.TRUE.equals(ready.get(key))) {
+                previewKeys.put(key, previewKeyOf(key));
+            } else {
+                notReady.add(key);
+            }
+        }
+        scheduleUnlessSkipped(notReady, fileNamesByKey);
+        return previewKeys;
+    }
+
+    /**
+     * 원본이 삭제될 때 미리보기도 함께 지웁니다. (실패는 로그만 남김)
+     */
+    public void deletePreviewQuietly(String objectKey) {
+        try {
+            stringRedisTemplate.opsForSet().remove(READY_SET, objectKey);
+            stringRedisTemplate.delete(SKIP_KEY_PREFIX + objectKey);
+            awsS3Config.deleteFromS3Bucket(awsS3Config.getS3Url(previewKeyOf(objectKey)));
+        } catch (Exception e) {
+            log.warn("[미리보기] 미리보기 삭제 실패: {}", objectKey, e);
+        }
+    }
+
+    /**
+     * 실패/생략 표시가 없는 원본만 생성을 예약합니다. (표시는 한 번의 MGET 으로 확인)
+     */
+    private void scheduleUnlessSkipped(List<String> objectKeys, Map<String, String> fileNamesByKey) {
+        if (objectKeys.isEmpty()) {
+            return;
+        }
+        List<String> skipped;
+        try {
+            skipped = stringRedisTemplate.opsForValue().multiGet(
+                    objectKeys.stream().map(key -> SKIP_KEY_PREFIX + key).toList());
+        } catch (Exception e) {
+            log.warn("[미리보기] 생략 표시 확인 실패", e);
+            return;
+        }
+        for (int i = 0; i < objectKeys.size(); i++) {
+            if (skipped == null || skipped.get(i) == null) {
+                schedule(objectKeys.get(i), fileNamesByKey.get(objectKeys.get(i)));
+            }
+        }
+    }
+
+    private void generate(String objectKey, String fileName) {
+        String previewKey = previewKeyOf(objectKey);
+        try {
+            // 같은 내용의 첨부가 이미 미리보기를 가진 경우
+            if (awsS3Config.existsInS3Bucket(previewKey)) {
+                markReady(objectKey);
+                return;
+            }
+
+            BufferedImage source;
+            try (ResponseInputStream<GetObjectResponse> in = awsS3Config.getObjectFromS3Bucket(objectKey)) {
+                Long length = in.response().contentLength();
+                if (length != null && length > maxSourceMb * 1024 * 1024) {
+                    log.debug("[미리보기] 원본이 커서 생략합니다: {} ({} bytes)", objectKey, length);
+                    in.abort();
+                    markSkipped(objectKey, Duration.ofHours(skipTtlHours));
+                    return;
+                }
+                source = "pdf".equals(extensionOf(fileName)) ? renderFirstPage(in) : readImage(in, objectKey);
+            }
+            if (source == null) {
+                markSkipped(objectKey, Duration.ofHours(skipTtlHours));
+                return;
+            }
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            Thumbnails.of(source)
+                    .size(width, height)
+                    .imageType(BufferedImage.TYPE_INT_RGB) // PNG 투명 배경도 JPEG 로 저장할 수 있도록
+                    .outputFormat("jpg")
+                    .outputQuality(0.8)
+                    .toOutputStream(out);
+            byte[] bytes = out.toByteArray();
+            awsS3Config.uploadToS3Bucket(new ByteArrayInputStream(bytes), bytes.length, previewKey, "image/jpeg");
+
+            markReady(objectKey);
+            generated.increment();
+        } catch (Exception | OutOfMemoryError e) {
+            // 크기 검사를 통과한 파일도 손상/특이한 형식이면 실패할 수 있으므로, 워커 스레드가 죽지 않게 여기서 끝냅니다.
+            failed.increment();
+            log.warn("[미리보기] 생성 실패: {}", objectKey, e);
+            markSkipped(objectKey, Duration.ofMinutes(failureTtlMinutes));
+        }
+    }
+
+    /**
+     * 헤더에서 가로/세로 크기만 먼저 읽고, 디코딩 결과가 max-decode-pixels 이하가 되도록 건너뛰며(subsampling) 읽습니다.
+     * (압축된 파일 크기만으로는 50k×50k 같은 이미지를 걸러낼 수 없어, 그대로 읽으면 수 GB 를 할당합니다)
+     *
+     * @return 읽은 이미지, 형식을 모르거나 픽셀 수가 max-source-pixels 를 넘으면 null
+     */
+    private BufferedImage readImage(InputStream in, String objectKey) throws IOException {
+        try (ImageInputStream iis = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = iis != null ? ImageIO.getImageReaders(iis) : Collections.emptyIterator();
+            if (!readers.hasNext()) {
+                log.debug("[미리보기] 읽을 수 없는 형식입니다: {}", objectKey);
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(iis, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxSourcePixels) {
+                    log.debug("[미리보기] 이미지 픽셀 수가 커서 생략합니다: {} ({}px)", objectKey, pixels);
+                    return null;
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = (int) Math.ceil(Math.sqrt((double) pixels / maxDecodePixels));
+                if (step > 1) {
+                    param.setSourceSubsampling(step, step, 0, 0);
+                }
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * PDF 첫 페이지를 렌더링합니다. 긴 변이 max-render-px 를 넘지 않도록 배율을 제한합니다.
+     * (페이지 크기는 PDF 가 정하므로 DPI 만으로는 렌더링 크기를 제한할 수 없습니다)
+     */
+    private BufferedImage renderFirstPage(InputStream in) throws IOException {
+        // 파싱 중 스트림 캐시는 임시 파일에 둡니다. (큰 PDF 로 힙을 채우지 않도록)
+        try (PDDocument document = Loader.loadPDF(new RandomAccessReadBuffer(in), "", null, null,
+                IOUtils.createTempFileOnlyStreamCache())) {
+            if (document.getNumberOfPages() == 0) {
+                return null;
+            }
+            PDRectangle box = document.getPage(0).getCropBox();
+            float longestPt = Math.max(box.getWidth(), box.getHeight());
+            if (longestPt <= 0) {
+                return null;
+            }
+            float scale = Math.min(pdfDpi / 72f, maxRenderPx / longestPt);
+            return new PDFRenderer(document).renderImage(0, scale, ImageType.RGB);
+        }
+    }
+
+    private void markReady(String objectKey) {
+        stringRedisTemplate.opsForSet().add(READY_SET, objectKey);
+    }
+
+    /**
+     * 생성하지 않은(실패/생략) 원본을 TTL 동안 기록해 상세 조회마다 같은 파일을 다시 내려받지 않도록 합니다.
+     */
+    private void markSkipped(String objectKey, Duration ttl) {
+        try {
+            stringRedisTemplate.opsForValue().set(SKIP_KEY_PREFIX + objectKey, "1", ttl);
+        } catch (Exception e) {
+            log.warn("[미리보기] 생략 표시 실패: {}", objectKey, e);
+        }
+    }
+
+    private static String extensionOf(String fileName) {
+        if (fileName == null) {
+            return null;
+        }
+        int dot = fileName.lastIndexOf('.');
+        return dot < 0 ? null : fileName.substring(dot + 1).toLowerCase(Locale.ROOT);
+    }
+}
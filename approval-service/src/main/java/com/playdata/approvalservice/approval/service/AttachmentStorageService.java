@@ -0,0 +1,191 @@
+package com.playdata.approvalservice.approval.service;
+
+import com.playdata.approvalservice.approval.dto.request.AttachmentJsonReqDto;
+import com.playdata.approvalservice.common.config.AwsS3Config;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 보고서 첨부파일 S3 업로드/정리
+ * - MultipartFile 의 입력 스트림을 그대로 S3로 전송 (byte[] 버퍼링 없음)
+ * - 여러 파일은 전용 스레드 풀에서 동시에 업로드
+ * - DB 트랜잭션 밖에서 호출하며, 저장 실패 시 {@link #deleteQuietly(List)} 로 보상 삭제
+ * - 내용의 SHA-256 을 키로 저장(attachments/sha256/{hash})해서 같은 파일은 S3 에 한 번만 올라가고,
+ *   이미 있는 내용이면 HEAD 한 번으로 끝납니다. 참조 수 관리/정리는 {@link AttachmentBlobService} 가 담당합니다.
+ * - 이미지/PDF 미리보기 생성은 {@link AttachmentPreviewService} 에 예약만 합니다.
+ */
+@Service
+@Slf4j
+public class AttachmentStorageService {
+
+    private final AwsS3Config awsS3Config;
+    private final AttachmentBlobService attachmentBlobService;
+    private final AttachmentPreviewService attachmentPreviewService;
+
+    private final Counter dedupHits;
+    private final Counter dedupMisses;
+
+    @Value("${approval.s3.upload-threads:4}")
+    private int uploadThreads;
+
+    private ExecutorService uploadExecutor;
+
+    public AttachmentStorageService(AwsS3Config awsS3Config,
+                                    AttachmentBlobService attachmentBlobService,
+                                    AttachmentPreviewService attachmentPreviewService,
+                                    MeterRegistry meterRegistry) {
+        this.awsS3Config = awsS3Config;
+        this.attachmentBlobService = attachmentBlobService;
+        this.attachmentPreviewService = attachmentPreviewService;
+        this.dedupHits = Counter.builder("approval.attachments.upload")
+                .description("첨부파일 업로드 (hit=같은 내용이 있어 PUT 생략)")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.dedupMisses = Counter.builder("approval.attachments.upload")
+                .description("첨부파일 업로드 (hit=같은 내용이 있어 PUT 생략)")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    private void initialize() {
+        AtomicInteger seq = new AtomicInteger();
+        this.uploadExecutor = Executors.newFixedThreadPool(uploadThreads, r -> {
+            Thread t = new Thread(r, "s3-upload-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    private void close() {
+        uploadExecutor.shutdown();
+    }
+
+    /**
+     * 파일들을 동시에 업로드하고, 모두 끝날 때까지 기다립니다.
+     * 하나라도 실패하면 이미 올라간 파일을 삭제한 뒤 예외를 던집니다.
+     *
+     * @param files 업로드할 파일 목록 (null 가능)
+     * @return 업로드된 첨부파일 정보 (요청 순서 유지)
+     */
+    public List<AttachmentJsonReqDto> uploadAll(List<MultipartFile> files) {
+        if (files == null || files.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<CompletableFuture<AttachmentJsonReqDto>> futures = files.stream()
+                .map(file -> CompletableFuture.supplyAsync(() -> upload(file), uploadExecutor))
+                .toList();
+
+        List<AttachmentJsonReqDto> uploaded = new ArrayList<>();
+        ResponseStatusException failure = null;
+        for (CompletableFuture<AttachmentJsonReqDto> future : futures) {
+            try {
+                uploaded.add(future.join());
+            } catch (CompletionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof ResponseStatusException rse
+                            ? rse
+                            : new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "파일 업로드에 실패했습니다.", e.getCause());
+                }
+            }
+        }
+
+        if (failure != null) {
+            deleteQuietly(uploaded);
+            throw failure;
+        }
+        return uploaded;
+    }
+
+    /**
+     * 업로드된 파일을 삭제합니다. (보상 처리용, 실패는 로그만 남김)
+     */
+    public void deleteQuietly(List<AttachmentJsonReqDto> attachments) {
+        if (attachments == null) {
+            return;
+        }
+        for (AttachmentJsonReqDto attachment : attachments) {
+            // 내용 주소 기반 객체는 다른 보고서와 공유될 수 있으므로 지우지 않습니다. (참조가 없으면 정리 작업이 삭제)
+            if (AttachmentBlobService.objectKeyOf(attachment.getUrl()) != null) {
+                continue;
+            }
+            try {
+                awsS3Config.deleteFromS3Bucket(attachment.getUrl());
+                log.info("보상 삭제 완료: {}", attachment.getUrl());
+                // 이전 방식 키에 만들어진 미리보기(와 준비 표시)도 함께 지웁니다.
+                String key = AttachmentBlobService.s3KeyOf(attachment.getUrl());
+                if (key != null) {
+                    attachmentPreviewService.deletePreviewQuietly(key);
+                }
+            } catch (Exception e) {
+                log.error("보상 삭제 실패 (수동 정리 필요): {}", attachment.getUrl(), e);
+            }
+        }
+    }
+
+    private AttachmentJsonReqDto upload(MultipartFile file) {
+        try {
+            // 1. 내용의 SHA-256 으로 객체 키를 정합니다. (같은 내용이면 같은 키)
+            byte[] digest = sha256(file);
+            String contentHash = HexFormat.of().formatHex(digest);
+            String key = AttachmentBlobService.KEY_PREFIX + contentHash;
+
+            // 2. 정리 작업이 지우지 않도록 먼저 기록한 뒤, 이미 있으면 PUT 을 생략합니다.
+            attachmentBlobService.touch(contentHash, key, file.getSize());
+            if (awsS3Config.existsInS3Bucket(key)) {
+                dedupHits.increment();
+                log.debug("같은 내용의 첨부파일이 이미 있어 업로드를 생략합니다: {} → {}", file.getOriginalFilename(), key);
+            } else {
+                try (InputStream in = file.getInputStream()) {
+                    awsS3Config.uploadToS3Bucket(in, file.getSize(), key, file.getContentType(),
+                            Base64.getEncoder().encodeToString(digest));
+                }
+                dedupMisses.increment();
+            }
+            // 3. 미리보기는 응답을 기다리지 않고 별도 풀에서 만듭니다. (이미 있으면 확인만)
+            attachmentPreviewService.schedule(key, file.getOriginalFilename());
+            return new AttachmentJsonReqDto(file.getOriginalFilename(), awsS3Config.getS3Url(key));
+        } catch (IOException | RuntimeException e) {
+            log.error("S3 업로드 실패: {}", file.getOriginalFilename(), e);
+            throw new ResponseStatusException(
+                    HttpStatus.INTERNAL_SERVER_ERROR,
+                    "파일 업로드에 실패했습니다: " + file.getOriginalFilename(), e);
+        }
+    }
+
+    private byte[] sha256(MultipartFile file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return digest.digest();
+    }
+}
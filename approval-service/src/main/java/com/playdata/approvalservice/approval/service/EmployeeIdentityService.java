@@ -0,0 +1,89 @@
+package com.playdata.approvalservice.approval.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.playdata.approvalservice.approval.feign.EmployeeFeignClient;
+import com.playdata.approvalservice.common.auth.TokenUserInfo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+
+/**
+ * 요청자의 직원 ID를 결정하는 서비스
+ * 1순위: 게이트웨이가 전달한 X-User-Id 헤더 (TokenUserInfo.employeeId)
+ * 2순위: 이메일 → 직원 ID 로컬 캐시 (크기 제한 + TTL)
+ * 3순위: hr-service Feign 호출 (캐시 미스일 때만)
+ */
+@Service
+@Slf4j
+public class EmployeeIdentityService {
+
+    private final EmployeeFeignClient employeeFeignClient;
+
+    // 이메일 → 직원 ID 캐시
+    private final Cache<String, Long> emailToIdCache;
+
+    public EmployeeIdentityService(
+            EmployeeFeignClient employeeFeignClient,
+            @Value("${approval.identity-cache.max-size:10000}") long maxSize,
+            @Value("${approval.identity-cache.ttl-minutes:30}") long ttlMinutes
+    ) {
+        this.employeeFeignClient = employeeFeignClient;
+        this.emailToIdCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .build();
+    }
+
+    /**
+     * 인증 정보로부터 현재 사용자의 직원 ID를 반환합니다.
+     *
+     * @param userInfo 필터에서 주입된 사용자 정보
+     * @return 직원 ID
+     */
+    public Long resolveEmployeeId(TokenUserInfo userInfo) {
+        if (userInfo == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "인증 정보가 없습니다.");
+        }
+        if (userInfo.getEmployeeId() != null) {
+            // 헤더로 받은 값은 폴백 경로에서도 재사용할 수 있도록 캐시에 기록해 둡니다.
+            if (userInfo.getEmail() != null) {
+                emailToIdCache.put(userInfo.getEmail(), userInfo.getEmployeeId());
+            }
+            return userInfo.getEmployeeId();
+        }
+        return resolveEmployeeId(userInfo.getEmail());
+    }
+
+    /**
+     * 이메일로 직원 ID를 조회합니다. 캐시에 없을 때만 hr-service를 호출합니다.
+     *
+     * @param email 직원 이메일
+     * @return 직원 ID
+     */
+    public Long resolveEmployeeId(String email) {
+        if (email == null || email.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "사용자 이메일 정보가 없습니다.");
+        }
+        Long employeeId = emailToIdCache.get(email, this::fetchEmployeeId);
+        if (employeeId == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "직원을 찾을 수 없습니다: " + email);
+        }
+        return employeeId;
+    }
+
+    private Long fetchEmployeeId(String email) {
+        try {
+            ResponseEntity<Long> response = employeeFeignClient.findIdByEmail(email);
+            return response.getBody();
+        } catch (Exception e) {
+            log.error("Employee-Service 통신 실패: {}", email, e);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "사용자 정보를 조회하는 중 오류가 발생했습니다.");
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.playdata.approvalservice.approval.service;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.playdata.approvalservice.approval.feign.EmployeeFeignClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 직원 ID → 이름 로컬 캐시 (목록/상세/이력 화면용)
+ * - 크기 제한(LRU 계열 eviction) + TTL
+ * - 캐시 미스인 ID만 모아서 hr-service에 한 번에 조회
+ * - 자주 조회되는 항목은 만료 전에 백그라운드에서 갱신
+ * - 적중/미스/로드 시간은 actuator 메트릭(cache.*{cache=approval.employee-names})으로 노출
+ */
+@Component
+@Slf4j
+public class EmployeeNameCache {
+
+    public static final String CACHE_NAME = "approval.employee-names";
+
+    private final EmployeeFeignClient employeeFeignClient;
+    private final LoadingCache<Long, String> cache;
+
+    public EmployeeNameCache(
+            EmployeeFeignClient employeeFeignClient,
+            MeterRegistry meterRegistry,
+            @Value("${approval.name-cache.max-size:20000}") long maxSize,
+            @Value("${approval.name-cache.ttl-minutes:60}") long ttlMinutes,
+            @Value("${approval.name-cache.refresh-minutes:45}") long refreshMinutes
+    ) {
+        this.employeeFeignClient = employeeFeignClient;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                // 만료 전에 다시 조회된 항목은 기존 값을 돌려주면서 비동기로 갱신
+                .refreshAfterWrite(Duration.ofMinutes(refreshMinutes))
+                .recordStats()
+                .build(new CacheLoader<Long, String>() {
+                    @Override
+                    public String load(Long employeeId) {
+                        return fetchNames(Set.of(employeeId)).get(employeeId);
+                    }
+
+                    @Override
+                    public Map<Long, String> loadAll(Set<? extends Long> employeeIds) {
+                        return fetchNames(employeeIds);
+                    }
+                });
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * 여러 직원의 이름을 조회합니다. 캐시에 없는 ID만 한 번의 Feign 호출로 가져옵니다.
+     * hr-service 장애 시에는 캐시에 남아 있는 값만 반환합니다.
+     *
+     * @param employeeIds 조회할 직원 ID 목록
+     * @return 직원 ID와 이름이 매핑된 Map (찾지 못한 ID는 포함되지 않음)
+     */
+    public Map<Long, String> getNames(Collection<Long> employeeIds) {
+        Set<Long> ids = employeeIds.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        try {
+            return cache.getAll(ids);
+        } catch (Exception e) {
+            log.error("Error fetching employee names from hr-service", e);
+            return cache.getAllPresent(ids);
+        }
+    }
+
+    /**
+     * 단일 직원의 이름을 조회합니다.
+     *
+     * @param employeeId 직원 ID
+     * @return 직원 이름 (찾지 못하면 null)
+     */
+    public String getName(Long employeeId) {
+        if (employeeId == null) {
+            return null;
+        }
+        return getNames(List.of(employeeId)).get(employeeId);
+    }
+
+    private Map<Long, String> fetchNames(Set<? extends Long> employeeIds) {
+        ResponseEntity<Map<Long, String>> response =
+                employeeFeignClient.getEmployeeNamesByEmployeeIds(new ArrayList<>(employeeIds));
+        Map<Long, String> names = Optional.ofNullable(response.getBody()).orElse(Collections.emptyMap());
+        log.debug("Fetched {} employee names from hr-service (requested {})", names.size(), employeeIds.size());
+        return names;
+    }
+}
@@ -0,0 +1,212 @@
+package com.playdata.approvalservice.approval.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.playdata.approvalservice.approval.entity.ReportDetail;
+import com.playdata.approvalservice.approval.repository.ApprovalRepository;
+import com.playdata.approvalservice.approval.repository.ReferenceRepository;
+import com.playdata.approvalservice.approval.repository.ReportAclView;
+import com.playdata.approvalservice.approval.repository.ReportsRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 보고서별 첨부파일 접근 권한(ACL) 캐시
+ *
+ * 작성자/결재자/참조자 직원 ID 집합과 첨부파일 URL(→ 파일명) 목록을 보고서마다 한 번만 구성해 두고,
+ * 미리보기/다운로드 권한 검사는 집합 조회(O(1))로 끝냅니다. 캐시 미스일 때만 가벼운 프로젝션 쿼리 세 번으로 다시 구성합니다.
+ *
+ * - 작성자/결재선/참조자/첨부파일이 바뀌는 쓰기(수정, 참조자 추가·삭제)는 커밋 후 evict 를 호출하고,
+ *   Redis 채널로 다른 인스턴스에도 무효화를 전파합니다.
+ * - 메시지를 놓친 경우를 대비해 항목은 TTL 이 지나면 다시 구성합니다.
+ * - 무효화마다 버전을 올리고, 구성을 시작한 뒤 버전이 바뀌었으면 결과를 캐시하지 않습니다.
+ *   (커밋 전 데이터를 읽은 구성이 커밋 후 evict 뒤에 다시 들어가지 않도록, TemplateCache 와 같은 방식)
+ * - 구성은 항상 주 DB 에서 새 트랜잭션으로 읽습니다. 호출 측 readOnly 트랜잭션을 따라 지연된 복제본에서 읽으면
+ *   evict 직후에도 이전 권한이 TTL 동안 캐시될 수 있기 때문입니다.
+ */
+@Component
+@Slf4j
+public class ReportAccessCache implements MessageListener {
+
+    public static final String CACHE_NAME = "approval.report-acl";
+    private static final String INVALIDATE_CHANNEL = "approval:report-acl:invalidate";
+    // 자신이 발행한 메시지를 구분하기 위한 인스턴스 식별자
+    private static final String INSTANCE_ID = UUID.randomUUID().toString();
+
+    private final ReportsRepository reportsRepository;
+    private final ApprovalRepository approvalRepository;
+    private final ReferenceRepository referenceRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final Cache<Long, ReportAcl> cache;
+    private final TransactionTemplate primaryReadTemplate;
+
+    // 무효화 버전 (무효화될 때마다 증가)
+    private final AtomicLong version = new AtomicLong();
+
+    public ReportAccessCache(ReportsRepository reportsRepository,
+                             ApprovalRepository approvalRepository,
+                             ReferenceRepository referenceRepository,
+                             StringRedisTemplate stringRedisTemplate,
+                             RedisMessageListenerContainer listenerContainer,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${approval.report-acl.max-size:20000}") long maxSize,
+                             @Value("${approval.report-acl.ttl-minutes:30}") long ttlMinutes) {
+        this.reportsRepository = reportsRepository;
+        this.approvalRepository = approvalRepository;
+        this.referenceRepository = referenceRepository;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        // readOnly 가 아닌 새 트랜잭션 → 라우팅 DataSource 가 주 DB 커넥션을 사용합니다.
+        this.primaryReadTemplate = new TransactionTemplate(transactionManager);
+        this.primaryReadTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATE_CHANNEL));
+    }
+
+    /**
+     * 보고서의 ACL 을 반환합니다. (없으면 주 DB 에서 구성해서 캐시)
+     *
+     * @throws ResponseStatusException 보고서가 없으면 404 (캐시하지 않음)
+     */
+    public ReportAcl get(Long reportId) {
+        ReportAcl cached = cache.getIfPresent(reportId);
+        if (cached != null) {
+            return cached;
+        }
+        long loadingVersion = version.get();
+        ReportAcl loaded = primaryReadTemplate.execute(status -> load(reportId));
+        // 구성하는 동안 무효화가 있었으면 (이전 데이터일 수 있으므로) 캐시하지 않고 이번 요청에만 사용합니다.
+        cache.asMap().compute(reportId, (id, current) -> version.get() == loadingVersion ? loaded : current);
+        return loaded;
+    }
+
+    /**
+     * 보고서의 작성자/결재선/참조자/첨부파일이 바뀐 뒤 호출합니다.
+     * 트랜잭션 안이면 커밋된 뒤에, 아니면 즉시 로컬 항목을 지우고 다른 인스턴스에 무효화를 전파합니다.
+     */
+    public void evict(Long reportId) {
+        if (reportId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictAndBroadcast(reportId);
+                }
+            });
+        } else {
+            evictAndBroadcast(reportId);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        // 메시지 형식: {instanceId}:{reportId}
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int sep = body.lastIndexOf(':');
+        if (sep < 0 || INSTANCE_ID.equals(body.substring(0, sep))) {
+            return;
+        }
+        try {
+            invalidateLocal(Long.parseLong(body.substring(sep + 1)));
+        } catch (NumberFormatException e) {
+            log.warn("[ACL 캐시] 잘못된 무효화 메시지: {}", body);
+        }
+    }
+
+    private void evictAndBroadcast(Long reportId) {
+        invalidateLocal(reportId);
+        try {
+            stringRedisTemplate.convertAndSend(INVALIDATE_CHANNEL, INSTANCE_ID + ":" + reportId);
+        } catch (Exception e) {
+            // 전파에 실패해도 다른 인스턴스는 TTL 이 지나면 다시 구성합니다.
+            log.warn("[ACL 캐시] 무효화 신호 발행 실패: reportId={}", reportId, e);
+        }
+    }
+
+    private void invalidateLocal(Long reportId) {
+        // 버전을 먼저 올려야 진행 중인 구성이 지운 뒤에 다시 넣지 못합니다.
+        version.incrementAndGet();
+        cache.invalidate(reportId);
+    }
+
+    private ReportAcl load(Long reportId) {
+        ReportAclView view = reportsRepository.findAclViewById(reportId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "문서를 찾을 수 없습니다. ID: " + reportId));
+
+        Set<Long> participants = new HashSet<>();
+        participants.add(view.writerId());
+        participants.addAll(approvalRepository.findEmployeeIdsByReportId(reportId));
+        participants.addAll(referenceRepository.findEmployeeIdsByReportId(reportId));
+
+        Map<String, String> attachments = view.detail() == null ? Map.of()
+                : view.detail().attachments().stream()
+                .filter(a -> a.url() != null && !a.url().isBlank())
+                .collect(Collectors.toUnmodifiableMap(ReportDetail.Attachment::url,
+                        a -> a.fileName() != null ? a.fileName() : "", (a, b) -> a));
+
+        return new ReportAcl(Set.copyOf(participants), attachments);
+    }
+
+    /**
+     * 보고서 한 건의 접근 권한
+     *
+     * @param participants 작성자 + 결재자 + 참조자 직원 ID
+     * @param attachments  보고서에 첨부된 파일 URL → 파일명
+     */
+    public record ReportAcl(Set<Long> participants, Map<String, String> attachments) {
+
+        public boolean canRead(Long employeeId) {
+            return employeeId != null && participants.contains(employeeId);
+        }
+
+        public boolean hasAttachment(String url) {
+            return url != null && attachments.containsKey(url);
+        }
+
+        /**
+         * 첨부 URL 의 원래 파일명 (다운로드 파일명용, 없으면 null)
+         */
+        public String fileName(String url) {
+            String name = url != null ? attachments.get(url) : null;
+            return name == null || name.isEmpty() ? null : name;
+        }
+    }
+}
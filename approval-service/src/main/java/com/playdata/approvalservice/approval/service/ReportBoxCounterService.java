@@ -0,0 +1,281 @@
+package com.playdata.approvalservice.approval.service;
+
+import com.playdata.approvalservice.approval.dto.response.ReportCountResDto;
+import com.playdata.approvalservice.approval.entity.ApprovalLine;
+import com.playdata.approvalservice.approval.entity.ReportBoxCounter;
+import com.playdata.approvalservice.approval.entity.ReportReferences;
+import com.playdata.approvalservice.approval.entity.ReportStatus;
+import com.playdata.approvalservice.approval.entity.Reports;
+import com.playdata.approvalservice.approval.repository.ReportBoxCounterRepository;
+import com.playdata.approvalservice.common.lock.RedisLease;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * 사용자별 문서함 개수(report_box_counters) 관리
+ *
+ * 사용법: 상태를 바꾸기 전에 {@link #snapshot(Reports)} 로 보고서의 기여분을 떠 두고,
+ * 변경 후 {@link #applyChange(BoxSnapshot, Reports)} 를 호출하면 차이만큼만 카운터가 증감됩니다.
+ * 호출한 쪽의 트랜잭션에 참여하므로 보고서 변경과 카운터 변경은 함께 커밋/롤백됩니다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReportBoxCounterService {
+
+    private static final String RECONCILE_LEASE = "box-counter-reconcile";
+
+    private final ReportBoxCounterRepository counterRepository;
+    private final RedisLease redisLease;
+    private final JdbcTemplate jdbcTemplate;
+
+    // 재집계 결과를 한 트랜잭션에서 반영할 직원 수
+    @Value("${approval.box-counter.reconcile-range-size:500}")
+    private int rangeSize;
+
+    // 자기 자신을 주입받기 위한 필드 (Lazy 로딩으로 순환참조 방지)
+    @Autowired
+    @Lazy
+    private ReportBoxCounterService self;
+
+    /**
+     * 대시보드 배지용 개수를 한 번의 PK 조회로 반환합니다.
+     */
+    @Transactional(readOnly = true)
+    public ReportCountResDto getCounts(Long employeeId) {
+        ReportBoxCounter c = counterRepository.findById(employeeId)
+                .orElseGet(() -> ReportBoxCounter.builder().employeeId(employeeId).build());
+        return new ReportCountResDto(
+                c.getPendingCount(),
+                c.getInProgressCount(),
+                c.getRejectedCount(),
+                c.getDraftCount(),
+                c.getScheduledCount(),
+                c.getReferenceCount(),
+                c.getCompletedCount()
+        );
+    }
+
+    /**
+     * 현재 보고서 상태가 각 사용자의 문서함 개수에 기여하는 값을 복사해 둡니다.
+     * (엔티티는 이후 변경되므로 값으로 보관)
+     */
+    public BoxSnapshot snapshot(Reports report) {
+        Map<Long, BoxCounts> contributions = new HashMap<>();
+        if (report == null || report.getReportStatus() == null) {
+            return new BoxSnapshot(contributions);
+        }
+
+        Long writerId = report.getWriterId();
+        ReportStatus status = report.getReportStatus();
+
+        switch (status) {
+            case IN_PROGRESS -> {
+                // 기안자, 결재선 구성원, 현재 결재자는 각각 한 번씩 '진행 중'에 집계
+                Set<Long> involved = new HashSet<>();
+                involved.add(writerId);
+                for (ApprovalLine line : report.getApprovalLines()) {
+                    involved.add(line.getEmployeeId());
+                }
+                if (report.getCurrentApproverId() != null) {
+                    involved.add(report.getCurrentApproverId());
+                    add(contributions, report.getCurrentApproverId(), BoxCounts.PENDING);
+                }
+                involved.forEach(id -> add(contributions, id, BoxCounts.IN_PROGRESS));
+            }
+            case REJECTED -> add(contributions, writerId, BoxCounts.REJECTED);
+            case DRAFT, RECALLED -> add(contributions, writerId, BoxCounts.DRAFT);
+            case SCHEDULED -> add(contributions, writerId, BoxCounts.SCHEDULED);
+            case APPROVED -> add(contributions, writerId, BoxCounts.COMPLETED);
+        }
+
+        // 참조 문서는 상태와 무관하게 집계
+        Set<Long> referenceIds = new HashSet<>();
+        for (ReportReferences ref : report.getReportReferences()) {
+            referenceIds.add(ref.getEmployeeId());
+        }
+        referenceIds.forEach(id -> add(contributions, id, BoxCounts.REFERENCE));
+
+        return new BoxSnapshot(contributions);
+    }
+
+    /**
+     * 변경 전 스냅샷과 변경 후 보고서를 비교해 차이만큼 카운터를 증감합니다.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyChange(BoxSnapshot before, Reports after) {
+        applyChange(before, snapshot(after));
+    }
+
+    /**
+     * 두 스냅샷의 차이만큼 카운터를 증감합니다.
+     * 여러 사용자의 행을 갱신하므로 데드락을 피하기 위해 항상 직원 ID 순서로 갱신합니다.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyChange(BoxSnapshot before, BoxSnapshot after) {
+        Set<Long> employeeIds = new TreeSet<>();
+        employeeIds.addAll(before.contributions().keySet());
+        employeeIds.addAll(after.contributions().keySet());
+
+        for (Long employeeId : employeeIds) {
+            BoxCounts delta = after.get(employeeId).minus(before.get(employeeId));
+            if (delta.isZero()) {
+                continue;
+            }
+            counterRepository.increment(employeeId,
+                    delta.pending(), delta.inProgress(), delta.rejected(), delta.drafts(),
+                    delta.scheduled(), delta.reference(), delta.completed());
+        }
+    }
+
+    /**
+     * 참조자 단건 추가/삭제처럼 보고서 전체를 다시 볼 필요가 없는 경우의 참조 문서 개수 증감
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void adjustReference(Long employeeId, long delta) {
+        if (employeeId == null || delta == 0) {
+            return;
+        }
+        counterRepository.increment(employeeId, 0, 0, 0, 0, 0, delta, 0);
+    }
+
+    /**
+     * 원본 테이블 기준으로 전체 카운터를 다시 계산합니다. (증감 누락/동시성으로 인한 오차 보정)
+     * 기본값: 매일 04:00
+     *
+     * 한 트랜잭션으로 전체를 다시 쓰면 모든 카운터 행과 원본 행이 재집계가 끝날 때까지 잠겨 상신/결재/참조 변경이 멈추므로,
+     * 1) READ COMMITTED 트랜잭션에서 원본을 잠그지 않고 읽어 스테이징 테이블에 집계한 뒤
+     * 2) 직원 ID 구간(reconcile-range-size 명)마다 짧은 트랜잭션으로 카운터에 덮어씁니다.
+     * 집계 이후 구간 반영 전에 커밋된 증감은 덮어써질 수 있으며, 다음 재집계에서 바로잡힙니다.
+     * 이 메서드 자체는 트랜잭션 밖에서 실행되므로 리스는 모든 구간이 커밋된 뒤에 해제됩니다.
+     */
+    @Scheduled(cron = "${approval.box-counter.reconcile-cron:0 0 4 * * *}")
+    public void reconcile() {
+        // 여러 인스턴스가 동시에 재집계하지 않도록 리스를 잡은 노드만 실행
+        Optional<String> lease = redisLease.tryAcquire(RECONCILE_LEASE, Duration.ofMinutes(10));
+        if (lease.isEmpty()) {
+            log.debug("[문서함 카운터 재집계] 다른 인스턴스가 실행 중입니다.");
+            return;
+        }
+        try {
+            long started = System.currentTimeMillis();
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + ReportBoxCounterRepository.STAGING_TABLE +
+                    " LIKE report_box_counters");
+            int staged = self.stageCounts();
+
+            int ranges = 0;
+            long afterId = Long.MIN_VALUE;
+            Long lastId;
+            while ((lastId = self.applyNextRange(afterId, rangeSize)) != null) {
+                afterId = lastId;
+                ranges++;
+            }
+            log.info("[문서함 카운터 재집계] {}명 집계, {}개 구간 반영 ({}ms)",
+                    staged, ranges, System.currentTimeMillis() - started);
+        } finally {
+            redisLease.release(RECONCILE_LEASE, lease.get());
+        }
+    }
+
+    /**
+     * 재집계 1~2단계: 원본을 잠그지 않고 읽어 스테이징 테이블에 사용자별 개수를 씁니다.
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public int stageCounts() {
+        counterRepository.clearStaging();
+        return counterRepository.stageFromSource();
+    }
+
+    /**
+     * 재집계 3단계: afterId 다음 직원 ID 구간의 카운터를 스테이징 값으로 덮어씁니다.
+     *
+     * @return 반영한 구간의 마지막 직원 ID (더 반영할 구간이 없으면 null)
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public Long applyNextRange(long afterId, int limit) {
+        List<Long> ids = counterRepository.findRebuildRange(afterId, limit);
+        if (ids.isEmpty()) {
+            return null;
+        }
+        long fromId = ids.get(0);
+        long toId = ids.get(ids.size() - 1);
+        counterRepository.applyStagedRange(fromId, toId);
+        counterRepository.resetUnstagedRange(fromId, toId);
+        return toId;
+    }
+
+    /**
+     * 최초 배포 시처럼 카운터 테이블이 비어 있으면 기동 직후 한 번 재집계합니다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeIfEmpty() {
+        if (counterRepository.count() == 0) {
+            reconcile();
+        }
+    }
+
+    private static void add(Map<Long, BoxCounts> contributions, Long employeeId, BoxCounts counts) {
+        if (employeeId == null) {
+            return;
+        }
+        contributions.merge(employeeId, counts, BoxCounts::plus);
+    }
+
+    /**
+     * 보고서 한 건이 사용자별 문서함 개수에 기여하는 값
+     */
+    public record BoxSnapshot(Map<Long, BoxCounts> contributions) {
+
+        public static BoxSnapshot empty() {
+            return new BoxSnapshot(Collections.emptyMap());
+        }
+
+        BoxCounts get(Long employeeId) {
+            return contributions.getOrDefault(employeeId, BoxCounts.ZERO);
+        }
+    }
+
+    /**
+     * 문서함별 개수 (증감값으로도 사용)
+     */
+    public record BoxCounts(long pending, long inProgress, long rejected, long drafts,
+                            long scheduled, long reference, long completed) {
+
+        static final BoxCounts ZERO = new BoxCounts(0, 0, 0, 0, 0, 0, 0);
+        static final BoxCounts PENDING = new BoxCounts(1, 0, 0, 0, 0, 0, 0);
+        static final BoxCounts IN_PROGRESS = new BoxCounts(0, 1, 0, 0, 0, 0, 0);
+        static final BoxCounts REJECTED = new BoxCounts(0, 0, 1, 0, 0, 0, 0);
+        static final BoxCounts DRAFT = new BoxCounts(0, 0, 0, 1, 0, 0, 0);
+        static final BoxCounts SCHEDULED = new BoxCounts(0, 0, 0, 0, 1, 0, 0);
+        static final BoxCounts REFERENCE = new BoxCounts(0, 0, 0, 0, 0, 1, 0);
+        static final BoxCounts COMPLETED = new BoxCounts(0, 0, 0, 0, 0, 0, 1);
+
+        BoxCounts plus(BoxCounts o) {
+            return new BoxCounts(pending + o.pending, inProgress + o.inProgress, rejected + o.rejected,
+                    drafts + o.drafts, scheduled + o.scheduled, reference + o.reference, completed + o.completed);
+        }
+
+        BoxCounts minus(BoxCounts o) {
+            return new BoxCounts(pending - o.pending, inProgress - o.inProgress, rejected - o.rejected,
+                    drafts - o.drafts, scheduled - o.scheduled, reference - o.reference, completed - o.completed);
+        }
+
+        boolean isZero() {
+            return equals(ZERO);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.playdata.approvalservice.approval.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 보고서 목록 커서 페이징의 위치 정보 (reportCreatedAt, id)
+ * 클라이언트에는 내용을 알 수 없는 문자열(Base64 URL-safe) 토큰으로만 전달합니다.
+ */
+public record ReportCursor(LocalDateTime reportCreatedAt, Long id) {
+
+    private static final String DELIMITER = "|";
+
+    /**
+     * 커서를 토큰 문자열로 변환합니다.
+     */
+    public String encode() {
+        String raw = reportCreatedAt + DELIMITER + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 토큰 문자열을 커서로 변환합니다. 비어 있으면 첫 페이지를 의미하므로 null을 반환합니다.
+     *
+     * @param token 클라이언트가 전달한 커서 토큰
+     * @return 커서 (첫 페이지면 null)
+     */
+    public static ReportCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int idx = raw.lastIndexOf(DELIMITER);
+            if (idx < 0) {
+                throw new IllegalArgumentException("delimiter not found");
+            }
+            return new ReportCursor(
+                    LocalDateTime.parse(raw.substring(0, idx)),
+                    Long.parseLong(raw.substring(idx + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "유효하지 않은 커서입니다.");
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.playdata.approvalservice.approval.service;
+
+import com.playdata.approvalservice.approval.entity.ReportStatus;
+import com.playdata.approvalservice.approval.entity.Reports;
+import com.playdata.approvalservice.approval.repository.ApprovalLineView;
+import com.playdata.approvalservice.approval.repository.ApprovalRepository;
+import com.playdata.approvalservice.approval.repository.ReportExportRow;
+import com.playdata.approvalservice.approval.repository.ReportSpecifications;
+import com.playdata.approvalservice.approval.repository.ReportsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 보고서 목록 CSV 내보내기 (감사용)
+ *
+ * 목록 조회와 같은 조건(역할/상태/키워드) + 작성일 범위로 보고서를 forward-only 커서로 읽어 바로 응답 스트림에 씁니다.
+ * 작성자/결재자 이름과 결재선(결재자 전원)은 nameBatchSize 행마다 한 번에 조회하므로,
+ * 메모리에는 한 배치 분량만 머물고 전체 행 수와 무관합니다.
+ * 커서는 readOnly 트랜잭션 안에서 열어 복제본 라우팅이 켜져 있으면 복제본에서 읽습니다. (주 DB 부하 분리)
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ReportExportService {
+
+    private static final String UNKNOWN_USER = "알 수 없는 사용자";
+    private static final String[] HEADER = {
+            "문서번호", "제목", "상태", "기안자", "현재 결재자", "결재선", "작성일시", "상신일시", "완료일시", "반려/회수일시"};
+
+    private final ReportsRepository reportsRepository;
+    private final ApprovalRepository approvalRepository;
+    private final EmployeeNameCache employeeNameCache;
+    private final ReportSearchService reportSearchService;
+    private final PlatformTransactionManager transactionManager;
+
+    // JDBC fetch size (MySQL 기본값 Integer.MIN_VALUE = 행 단위 스트리밍, 양수는 useCursorFetch=true 필요)
+    @Value("${approval.export.fetch-size:-2147483648}")
+    private int fetchSize;
+
+    // 이름을 한 번에 조회할 행 수
+    @Value("${approval.export.name-batch-size:500}")
+    private int nameBatchSize;
+
+    private final DateTimeFormatter fmt = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    /**
+     * 내보내기 역할 조건을 확인합니다.
+     * 알 수 없는 역할은 역할 조건 없이 전체 보고서가 조회되므로 거부합니다.
+     */
+    public void validateRole(String role) {
+        if (!ReportSpecifications.isKnownRoles(role)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "role 은 " + ReportSpecifications.ROLES + " 중 하나 이상이어야 합니다: " + role);
+        }
+    }
+
+    /**
+     * 조건에 맞는 보고서를 CSV 로 out 에 씁니다. (UTF-8 BOM 포함, Excel 에서 바로 열림)
+     * 키워드는 목록 조회와 같이 FULLTEXT 검색식(쓸 수 없으면 LIKE)으로 같은 쿼리에서 거릅니다.
+     *
+     * @param from 작성일 시작 (포함, null 이면 제한 없음)
+     * @param to   작성일 끝 (포함, null 이면 제한 없음)
+     * @return 내보낸 행 수
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long exportCsv(String role, ReportStatus status, String keyword,
+                          LocalDate from, LocalDate to, Long userId, OutputStream out) throws IOException {
+        validateRole(role);
+        Specification<Reports> spec = ReportSpecifications.withDynamicQuery(
+                        role, status, keyword, reportSearchService.toFullTextQuery(keyword).orElse(null), userId)
+                .and(ReportSpecifications.createdBetween(
+                        from != null ? from.atStartOfDay() : null,
+                        to != null ? to.plusDays(1).atStartOfDay() : null));
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write('\uFEFF');
+        writeLine(writer, HEADER);
+
+        List<ReportExportRow> batch = new ArrayList<>(nameBatchSize);
+        long[] count = {0};
+        long started = System.currentTimeMillis();
+        // 커서와 배치별 결재선 조회만 readOnly 트랜잭션으로 묶어 복제본으로 보냅니다.
+        TransactionTemplate replicaReadTemplate = new TransactionTemplate(transactionManager);
+        replicaReadTemplate.setReadOnly(true);
+        try {
+            replicaReadTemplate.executeWithoutResult(tx -> {
+                reportsRepository.streamExportRows(spec, fetchSize, row -> {
+                    batch.add(row);
+                    if (batch.size() >= nameBatchSize) {
+                        count[0] += flush(writer, batch);
+                    }
+                });
+                count[0] += flush(writer, batch);
+            });
+            writer.flush();
+        } catch (UncheckedIOException e) {
+            // 클라이언트가 다운로드를 중단한 경우 등
+            throw e.getCause();
+        }
+
+        log.info("[내보내기] 보고서 {}건 CSV 내보내기 완료 ({}ms)", count[0], System.currentTimeMillis() - started);
+        return count[0];
+    }
+
+    /**
+     * 모인 행의 결재선과 이름을 한 번에 조회해 CSV 로 쓰고 배치를 비웁니다.
+     */
+    private int flush(Writer writer, List<ReportExportRow> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        Map<Long, List<ApprovalLineView>> linesByReport = approvalRepository
+                .findLineViewsByReportIdIn(batch.stream().map(ReportExportRow::id).toList()).stream()
+                .collect(Collectors.groupingBy(ApprovalLineView::reportId));
+
+        Set<Long> employeeIds = new HashSet<>();
+        batch.forEach(row -> {
+            employeeIds.add(row.writerId());
+            if (row.currentApproverId() != null) {
+                employeeIds.add(row.currentApproverId());
+            }
+        });
+        linesByReport.values().forEach(lines -> lines.forEach(line -> employeeIds.add(line.employeeId())));
+        Map<Long, String> names = employeeNameCache.getNames(employeeIds);
+
+        try {
+            for (ReportExportRow row : batch) {
+                writeLine(writer, new String[]{
+                        String.valueOf(row.id()),
+                        row.title(),
+                        row.reportStatus() != null ? row.reportStatus().name() : "",
+                        names.getOrDefault(row.writerId(), UNKNOWN_USER),
+                        row.currentApproverId() != null ? names.getOrDefault(row.currentApproverId(), UNKNOWN_USER) : "",
+                        formatLine(linesByReport.getOrDefault(row.id(), List.of()), names),
+                        format(row.reportCreatedAt()),
+                        format(row.submittedAt()),
+                        format(row.completedAt()),
+                        format(row.returnAt())
+                });
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        int size = batch.size();
+        batch.clear();
+        return size;
+    }
+
+    /**
+     * 결재선을 결재 순서대로 "이름(상태) > 이름(상태)" 형식으로 씁니다.
+     */
+    private String formatLine(List<ApprovalLineView> lines, Map<Long, String> names) {
+        return lines.stream()
+                .map(line -> names.getOrDefault(line.employeeId(), UNKNOWN_USER)
+                        + (line.approvalStatus() != null ? "(" + line.approvalStatus().name() + ")" : ""))
+                .collect(Collectors.joining(" > "));
+    }
+
+    private String format(LocalDateTime value) {
+        return value != null ? value.format(fmt) : "";
+    }
+
+    private void writeLine(Writer writer, String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escape(values[i]));
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * RFC 4180 이스케이프 + 스프레드시트 수식 주입 방지 (=, +, -, @ 로 시작하는 값 앞에 ' 추가)
+     */
+    private String escape(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        String v = value;
+        char first = v.charAt(0);
+        if (first == '=' || first == '+' || first == '-' || first == '@') {
+            v = "'" + v;
+        }
+        if (v.indexOf(',') >= 0 || v.indexOf('"') >= 0 || v.indexOf('\n') >= 0 || v.indexOf('\r') >= 0) {
+            return '"' + v.replace("\"", "\"\"") + '"';
+        }
+        return v;
+    }
+}
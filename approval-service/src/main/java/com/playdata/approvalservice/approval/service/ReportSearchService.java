@@ -0,0 +1,83 @@
+package com.playdata.approvalservice.approval.service;
+
+import com.playdata.approvalservice.approval.migration.ReportFullTextIndexInitializer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * 보고서 제목/본문 키워드 검색
+ *
+ * 키워드를 MySQL FULLTEXT(ngram) BOOLEAN MODE 검색식으로 바꿔 주고, 호출 측은 이 검색식을
+ * 역할/상태 조건과 같은 쿼리(ReportSpecifications)에 넣어 한 번에 조회합니다.
+ * ngram 토큰보다 짧은 키워드이거나 인덱스가 없으면 빈 값을 반환하며, 이때는 기존 LIKE 검색을 사용합니다.
+ *
+ * 인덱스 존재 여부는 기동 시(인덱스 생성 후) 한 번만 확인합니다.
+ * 요청마다 검색 쿼리를 시도하고 실패를 잡는 방식은 호출 측 트랜잭션을 rollback-only 로 만들기 때문입니다.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ReportSearchService {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // MySQL ngram_token_size 와 같아야 합니다.
+    @Value("${approval.search.ngram-token-size:2}")
+    private int ngramTokenSize;
+
+    private volatile boolean fullTextAvailable;
+
+    /**
+     * ReportFullTextIndexInitializer(ApplicationRunner) 가 끝난 뒤 인덱스가 있는지 확인합니다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void detectFullTextIndex() {
+        try {
+            Integer exists = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM information_schema.statistics " +
+                            "WHERE table_schema = DATABASE() AND table_name = 'reports' AND index_name = ?",
+                    Integer.class, ReportFullTextIndexInitializer.INDEX_NAME);
+            fullTextAvailable = exists != null && exists > 0;
+        } catch (Exception e) {
+            fullTextAvailable = false;
+            log.warn("FULLTEXT 인덱스 확인 실패", e);
+        }
+        if (!fullTextAvailable) {
+            log.warn("FULLTEXT 인덱스 {} 가 없어 키워드 검색은 LIKE 로 동작합니다.", ReportFullTextIndexInitializer.INDEX_NAME);
+        }
+    }
+
+    /**
+     * 키워드를 FULLTEXT 검색식으로 바꿉니다.
+     *
+     * @param keyword 검색어
+     * @return BOOLEAN MODE 검색식, FULLTEXT 를 쓸 수 없으면 Optional.empty()
+     */
+    public Optional<String> toFullTextQuery(String keyword) {
+        if (!fullTextAvailable || keyword == null || keyword.isBlank()) {
+            return Optional.empty();
+        }
+        String phrase = toPhrase(keyword);
+        if (phrase.codePointCount(0, phrase.length()) < ngramTokenSize) {
+            return Optional.empty();
+        }
+        // 기존 LIKE '%keyword%' 와 같은 의미가 되도록 키워드 전체를 하나의 구문으로 검색합니다.
+        return Optional.of("\"" + phrase + "\"");
+    }
+
+    /**
+     * BOOLEAN MODE 연산자로 해석될 수 있는 문자를 제거하고 공백을 정리합니다.
+     */
+    private String toPhrase(String keyword) {
+        return keyword.replaceAll("[\"+\\-<>()~*@]", " ")
+                .trim()
+                .replaceAll("\\s+", " ");
+    }
+}
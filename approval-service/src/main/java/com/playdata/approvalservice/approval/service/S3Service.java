@@ -1,5 +1,12 @@
 package com.playdata.approvalservice.approval.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Value;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -7,18 +14,29 @@ import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
 import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
 
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 @Slf4j
 public class S3Service {
 
+    public static final String CACHE_NAME = "approval.presigned-urls";
+
     // application.yml (또는 properties) 파일에 설정된 AWS S3 관련 값들을 주입받습니다.
     @Value("${spring.cloud.aws.credentials.accessKey}")
     private String accessKey;
@@ -32,61 +50,213 @@ public class S3Service {
     @Value("${spring.cloud.aws.s3.bucket}")
     private String bucketName;
 
+    // Pre-signed URL 유효 시간 (기본 10분)
+    @Value("${approval.s3.presign-duration-minutes:10}")
+    private long presignDurationMinutes;
+
+    // 만료 이 시간 전부터는 캐시된 URL 대신 새로 서명 (클라이언트가 받은 직후 만료되는 것 방지)
+    @Value("${approval.s3.presign-refresh-margin-seconds:60}")
+    private long refreshMarginSeconds;
+
+    @Value("${approval.s3.presign-cache-max-size:10000}")
+    private long cacheMaxSize;
+
+    // 상세 화면 첨부파일 서명 병렬 처리 스레드 수
+    @Value("${approval.s3.presign-threads:4}")
+    private int presignThreads;
+
+    private final MeterRegistry meterRegistry;
+
+    // 애플리케이션 수명 동안 재사용하는 Presigner (스레드 안전)
+    private S3Presigner presigner;
+
+    // (fileKey, disposition) → 서명된 URL
+    private Cache<PresignKey, PresignedUrl> urlCache;
+
+    private ExecutorService presignExecutor;
+
+    public S3Service(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    private void initialize() {
+        this.presigner = S3Presigner.builder()
+                .region(Region.of(region))
+                .credentialsProvider(
+                        StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey))
+                )
+                .build();
+
+        long marginNanos = TimeUnit.SECONDS.toNanos(refreshMarginSeconds);
+        this.urlCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new Expiry<PresignKey, PresignedUrl>() {
+                    @Override
+                    public long expireAfterCreate(PresignKey key, PresignedUrl value, long currentTime) {
+                        long untilExpiry = Duration.between(Instant.now(), value.expiresAt()).toNanos();
+                        return Math.max(0, untilExpiry - marginNanos);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(PresignKey key, PresignedUrl value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(PresignKey key, PresignedUrl value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, urlCache, CACHE_NAME);
+
+        AtomicInteger seq = new AtomicInteger();
+        this.presignExecutor = Executors.newFixedThreadPool(presignThreads, r -> {
+            Thread t = new Thread(r, "s3-presign-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    private void close() {
+        presignExecutor.shutdown();
+        presigner.close();
+    }
+
     /**
      * S3 객체에 대한 임시 접근 URL(Pre-signed URL)을 생성합니다.
      * 이 URL은 썸네일 미리보기(inline) 또는 파일 다운로드(attachment)에 사용됩니다.
+     * 같은 (fileKey, dispositionType) 요청은 만료 직전까지 캐시된 URL을 반환합니다.
      *
      * @param fileKey         S3 버킷 내 파일의 전체 경로 (예: uuid_파일명.png)
      * @param dispositionType 브라우저가 파일을 처리할 방식 ('inline' 또는 'attachment')
      * @return 생성된 Pre-signed URL 문자열
      */
     public String generatePresignedUrl(String fileKey, String dispositionType) {
-        log.info("Generating presigned URL for key: {}, type: {}", fileKey, dispositionType);
+        return generatePresignedUrl(fileKey, null, dispositionType);
+    }
 
-        // S3 Presigner 객체를 생성합니다. AWS 자격 증명과 리전을 설정합니다.
-        S3Presigner presigner = S3Presigner.builder()
-                .region(Region.of(region))
-                .credentialsProvider(
-                        StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey))
-                )
+    /**
+     * 내려받을 때 표시할 파일명을 지정해 Pre-signed URL을 생성합니다.
+     * (내용 주소 기반 키처럼 객체 키가 파일명이 아닌 경우)
+     *
+     * @param fileName 표시할 파일명 (null 이면 객체 키를 사용)
+     */
+    public String generatePresignedUrl(String fileKey, String fileName, String dispositionType) {
+        return urlCache.get(new PresignKey(fileKey, fileName, dispositionType), this::presign).url();
+    }
+
+    /**
+     * 여러 파일의 Pre-signed URL을 한 번에 생성합니다. 캐시에 없는 항목만 병렬로 서명합니다.
+     * 개별 파일 서명에 실패하면 해당 항목은 결과에서 빠집니다.
+     *
+     * @param targets         (S3 객체 키, 표시할 파일명) 목록
+     * @param dispositionType 'inline' 또는 'attachment'
+     * @return 대상 → Pre-signed URL
+     */
+    public Map<PresignTarget, String> generatePresignedUrls(Collection<PresignTarget> targets, String dispositionType) {
+        Map<PresignTarget, String> result = new HashMap<>();
+        Map<PresignTarget, CompletableFuture<String>> pending = new LinkedHashMap<>();
+
+        for (PresignTarget target : new LinkedHashSet<>(targets)) {
+            PresignedUrl cached = urlCache.getIfPresent(
+                    new PresignKey(target.fileKey(), target.fileName(), dispositionType));
+            if (cached != null) {
+                result.put(target, cached.url());
+            } else {
+                pending.put(target, CompletableFuture.supplyAsync(
+                        () -> generatePresignedUrl(target.fileKey(), target.fileName(), dispositionType), presignExecutor));
+            }
+        }
+
+        pending.forEach((target, future) -> {
+            try {
+                result.put(target, future.join());
+            } catch (Exception e) {
+                log.error("Pre-signed URL 생성 실패. fileKey: {}", target.fileKey(), e);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 클라이언트가 S3에 직접 업로드할 수 있는 PUT용 Pre-signed URL을 생성합니다. (캐시하지 않음)
+     *
+     * @param fileKey     업로드될 객체 키
+     * @param contentType   업로드 시 사용할 Content-Type (없으면 null)
+     * @param contentLength 업로드할 파일 크기 (서명에 포함되어 다른 크기의 업로드는 거부됩니다)
+     * @param duration      URL 유효 시간
+     * @return 생성된 Pre-signed URL 문자열
+     */
+    public String generatePresignedPutUrl(String fileKey, String contentType, long contentLength, Duration duration) {
+        PutObjectRequest objectRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(fileKey)
+                .contentType(contentType)
+                .contentLength(contentLength)
+                .build();
+
+        PutObjectPresignRequest presignRequest = PutObjectPresignRequest.builder()
+                .putObjectRequest(objectRequest)
+                .signatureDuration(duration)
                 .build();
 
+        return presigner.presignPutObject(presignRequest).url().toString();
+    }
+
+    private PresignedUrl presign(PresignKey key) {
+        log.debug("Generating presigned URL for key: {}, type: {}", key.fileKey(), key.dispositionType());
         try {
             // ★★★ 핵심 수정 부분: 파일 이름을 표준에 맞게 인코딩 ★★★
             // 파일 이름을 UTF-8로 URL 인코딩합니다. Java의 URLEncoder는 공백을 '+'로 바꾸므로,
             // 웹 표준인 '%20'으로 다시 치환해줍니다.
-            String encodedFileName = URLEncoder.encode(fileKey, StandardCharsets.UTF_8).replace("+", "%20");
+            String displayName = key.fileName() != null ? key.fileName() : key.fileKey();
+            String encodedFileName = URLEncoder.encode(displayName, StandardCharsets.UTF_8).replace("+", "%20");
 
             // RFC 5987 표준에 따라 Content-Disposition 헤더를 구성합니다.
             // 이렇게 하면 한글, 공백, 특수문자가 포함된 파일 이름도 모든 브라우저에서 안전하게 처리됩니다.
-            String contentDisposition = dispositionType + "; filename*=UTF-8''" + encodedFileName;
+            String contentDisposition = key.dispositionType() + "; filename*=UTF-8''" + encodedFileName;
 
             // S3 객체를 가져오기 위한 기본 요청 객체를 생성합니다.
             GetObjectRequest getObjectRequest = GetObjectRequest.builder()
                     .bucket(bucketName)
-                    .key(fileKey) // S3에 저장된 실제 객체 키는 인코딩되지 않은 원본을 사용합니다.
+                    .key(key.fileKey()) // S3에 저장된 실제 객체 키는 인코딩되지 않은 원본을 사용합니다.
                     .responseContentDisposition(contentDisposition) // 응답 헤더에만 인코딩된 파일 이름 정보를 포함시킵니다.
                     .build();
 
-            // Pre-signed URL 생성 요청 객체를 만듭니다. URL의 유효 시간은 10분으로 설정합니다.
+            // Pre-signed URL 생성 요청 객체를 만듭니다. URL의 유효 시간은 기본 10분입니다.
             GetObjectPresignRequest presignRequest = GetObjectPresignRequest.builder()
-                    .signatureDuration(Duration.ofMinutes(10))
+                    .signatureDuration(Duration.ofMinutes(presignDurationMinutes))
                     .getObjectRequest(getObjectRequest)
                     .build();
 
-            // URL을 생성합니다.
+            // URL을 생성합니다. (공유 presigner 사용, 요청마다 생성/종료하지 않음)
             PresignedGetObjectRequest presignedRequest = presigner.presignGetObject(presignRequest);
 
-            // 사용이 끝난 presigner 리소스를 정리합니다.
-            presigner.close();
-
-            // 생성된 URL을 문자열로 반환합니다.
-            return presignedRequest.url().toString();
+            return new PresignedUrl(presignedRequest.url().toString(), presignedRequest.expiration());
 
         } catch (Exception e) {
-            log.error("Pre-signed URL 생성 중 인코딩 실패. fileKey: {}", fileKey, e);
+            log.error("Pre-signed URL 생성 중 인코딩 실패. fileKey: {}", key.fileKey(), e);
             // 예외 발생 시 런타임 예외를 던져서 상위 서비스에서 처리하도록 합니다.
             throw new RuntimeException("Pre-signed URL 생성에 실패했습니다.", e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 일괄 서명 대상
+     *
+     * @param fileKey  S3 객체 키
+     * @param fileName 내려받을 때 표시할 파일명 (null 이면 객체 키를 사용)
+     */
+    public record PresignTarget(String fileKey, String fileName) {
+    }
+
+    private record PresignKey(String fileKey, String fileName, String dispositionType) {
+    }
+
+    private record PresignedUrl(String url, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,253 @@
+package com.playdata.approvalservice.approval.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.playdata.approvalservice.approval.dto.response.category.CategoryResDto;
+import com.playdata.approvalservice.approval.dto.response.template.TemplateResDto;
+import com.playdata.approvalservice.approval.entity.ReportTemplate;
+import com.playdata.approvalservice.approval.entity.TemplateCategory;
+import com.playdata.approvalservice.approval.repository.ReportTemplateRepository;
+import com.playdata.approvalservice.approval.repository.TemplateCategoryRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 파싱된 결재 양식(템플릿)과 카테고리 메타데이터의 인메모리 캐시
+ *
+ * 템플릿/카테고리는 거의 바뀌지 않지만 상신·상세·양식 조회마다 JSON 을 다시 파싱하고 있었기 때문에,
+ * 전체 템플릿을 한 번에 읽어 JsonNode / Map 으로 파싱해 둔 스냅샷을 버전과 함께 보관합니다.
+ *
+ * - 쓰기(TemplateService, TemplateCategoryService)가 커밋되면 로컬 스냅샷을 버리고
+ *   Redis 채널로 무효화 메시지를 발행해 다른 인스턴스도 스냅샷을 버리도록 합니다.
+ * - 적재 도중 무효화가 들어오면 (버전이 바뀌었으면) 읽어 온 스냅샷은 이번 요청에만 쓰고 저장하지 않습니다.
+ * - 메시지를 놓친 경우를 대비해 스냅샷은 max-age 가 지나면 다시 적재합니다.
+ * - 적재는 항상 주 DB 에서 새 트랜잭션으로 읽습니다. 호출 측 readOnly 트랜잭션을 따라 지연된 복제본에서 읽으면
+ *   무효화 직후에도 이전 스냅샷이 max-age 동안 캐시될 수 있기 때문입니다. (ReportAccessCache 와 같은 방식)
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class TemplateCache implements MessageListener {
+
+    private static final String INVALIDATE_CHANNEL = "approval:template-cache:invalidate";
+    // 자신이 발행한 메시지를 구분하기 위한 인스턴스 식별자
+    private static final String INSTANCE_ID = UUID.randomUUID().toString();
+
+    private final ReportTemplateRepository templateRepository;
+    private final TemplateCategoryRepository categoryRepository;
+    private final ObjectMapper objectMapper;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final PlatformTransactionManager transactionManager;
+
+    // 무효화 신호를 놓쳤을 때를 대비한 스냅샷 최대 수명
+    @Value("${approval.template-cache.max-age-minutes:10}")
+    private long maxAgeMinutes;
+
+    // 무효화될 때마다 증가하는 버전 스탬프
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot snapshot;
+    private TransactionTemplate primaryReadTemplate;
+
+    @PostConstruct
+    void subscribe() {
+        // readOnly 가 아닌 새 트랜잭션 → 라우팅 DataSource 가 주 DB 커넥션을 사용합니다.
+        this.primaryReadTemplate = new TransactionTemplate(transactionManager);
+        this.primaryReadTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATE_CHANNEL));
+    }
+
+    /**
+     * 템플릿 ID로 캐시된 템플릿을 조회합니다.
+     */
+    public Optional<CachedTemplate> findTemplate(Long templateId) {
+        if (templateId == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(current().templates().get(templateId));
+    }
+
+    /**
+     * 전체 템플릿 (템플릿 ID 순)
+     */
+    public List<CachedTemplate> getTemplates() {
+        return List.copyOf(current().templates().values());
+    }
+
+    /**
+     * 특정 카테고리에 속한 템플릿 (템플릿 ID 순)
+     */
+    public List<CachedTemplate> getTemplatesByCategory(Long categoryId) {
+        return current().templates().values().stream()
+                .filter(t -> Objects.equals(t.categoryId(), categoryId))
+                .toList();
+    }
+
+    public List<CategoryResDto> getCategories() {
+        return List.copyOf(current().categories().values());
+    }
+
+    public Optional<CategoryResDto> findCategory(Long categoryId) {
+        if (categoryId == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(current().categories().get(categoryId));
+    }
+
+    /**
+     * 템플릿/카테고리 변경 후 호출합니다.
+     * 트랜잭션 안이면 커밋된 뒤에, 아니면 즉시 로컬 스냅샷을 버리고 다른 인스턴스에 무효화를 전파합니다.
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateAndBroadcast();
+                }
+            });
+        } else {
+            invalidateAndBroadcast();
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String sender = new String(message.getBody(), StandardCharsets.UTF_8);
+        if (INSTANCE_ID.equals(sender)) {
+            return;
+        }
+        log.debug("[템플릿 캐시] 다른 인스턴스의 무효화 신호 수신: {}", sender);
+        invalidateLocal();
+    }
+
+    private void invalidateAndBroadcast() {
+        invalidateLocal();
+        try {
+            stringRedisTemplate.convertAndSend(INVALIDATE_CHANNEL, INSTANCE_ID);
+        } catch (Exception e) {
+            // 전파에 실패해도 다른 인스턴스는 max-age 가 지나면 다시 적재합니다.
+            log.warn("[템플릿 캐시] 무효화 신호 발행 실패", e);
+        }
+    }
+
+    private void invalidateLocal() {
+        version.incrementAndGet();
+        snapshot = null;
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current != null && !current.isExpired(Duration.ofMinutes(maxAgeMinutes))) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (current != null && !current.isExpired(Duration.ofMinutes(maxAgeMinutes))) {
+                return current;
+            }
+            long loadingVersion = version.get();
+            Snapshot loaded = primaryReadTemplate.execute(status -> load(loadingVersion));
+            // 적재 중에 무효화되었다면 이미 낡았을 수 있으므로 저장하지 않습니다.
+            if (version.get() == loadingVersion) {
+                snapshot = loaded;
+            }
+            return loaded;
+        }
+    }
+
+    private Snapshot load(long loadingVersion) {
+        Map<Long, CategoryResDto> categories = new LinkedHashMap<>();
+        for (TemplateCategory category : categoryRepository.findAll()) {
+            categories.put(category.getCategoryId(), CategoryResDto.from(category));
+        }
+
+        Map<Long, CachedTemplate> templates = new LinkedHashMap<>();
+        for (ReportTemplate template : templateRepository.findAllWithCategory()) {
+            try {
+                templates.put(template.getTemplateId(), CachedTemplate.parse(template, objectMapper));
+            } catch (JsonProcessingException e) {
+                log.error("[템플릿 캐시] 템플릿 JSON 파싱 실패, 캐시에서 제외합니다: templateId={}",
+                        template.getTemplateId(), e);
+            }
+        }
+
+        log.info("[템플릿 캐시] 템플릿 {}건, 카테고리 {}건 적재 (version={})",
+                templates.size(), categories.size(), loadingVersion);
+        return new Snapshot(loadingVersion, System.nanoTime(),
+                Collections.unmodifiableMap(templates), Collections.unmodifiableMap(categories));
+    }
+
+    private record Snapshot(long version, long loadedAtNanos,
+                            Map<Long, CachedTemplate> templates,
+                            Map<Long, CategoryResDto> categories) {
+
+        boolean isExpired(Duration maxAge) {
+            return System.nanoTime() - loadedAtNanos > maxAge.toNanos();
+        }
+    }
+
+    /**
+     * 미리 파싱된 템플릿
+     * template / structure 는 여러 요청이 공유하므로 수정하면 안 됩니다. (수정이 필요하면 복사해서 사용)
+     *
+     * @param structure 템플릿 JSON 을 Map 으로 변환한 값 (읽기 전용)
+     */
+    public record CachedTemplate(
+            Long templateId,
+            JsonNode template,
+            Map<String, Object> structure,
+            Long categoryId,
+            String categoryName
+    ) {
+
+        static CachedTemplate parse(ReportTemplate template, ObjectMapper objectMapper) throws JsonProcessingException {
+            JsonNode node = objectMapper.readTree(template.getTemplate());
+            Map<String, Object> structure = objectMapper.convertValue(node, new TypeReference<>() {
+            });
+            return new CachedTemplate(
+                    template.getTemplateId(),
+                    node,
+                    Collections.unmodifiableMap(structure),
+                    template.getCategoryId().getCategoryId(),
+                    template.getCategoryId().getCategoryName()
+            );
+        }
+
+        /**
+         * 본문 생성에 사용하는 "contentTemplate" HTML (없으면 빈 문자열)
+         */
+        public String contentTemplate() {
+            return template.path("contentTemplate").asText();
+        }
+
+        public TemplateResDto toResDto() {
+            return TemplateResDto.builder()
+                    .templateId(templateId)
+                    .template(template)
+                    .categoryId(categoryId)
+                    .categoryName(categoryName)
+                    .build();
+        }
+    }
+}
@@ -13,7 +13,6 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -22,17 +21,16 @@ import java.util.stream.Collectors;
 public class TemplateCategoryService {
 
     private final TemplateCategoryRepository categoryRepository;
+    private final TemplateCache templateCache;
 
     public List<CategoryResDto> getAllCategories() {
-        List<TemplateCategory> categories = categoryRepository.findAll();
-        return categories.stream()
-                .map(CategoryResDto::from)
-                .collect(Collectors.toList());
+        return templateCache.getCategories();
     }
 
     public CategoryResDto getCategoryById(Long categoryId) {
-        TemplateCategory category = findCategoryById(categoryId);
-        return CategoryResDto.from(category);
+        return templateCache.findCategory(categoryId)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND, "카테고리를 찾을 수 없습니다. id=" + categoryId));
     }
 
     @Transactional
@@ -48,6 +46,7 @@ public class TemplateCategoryService {
                 .build();
 
         TemplateCategory savedCategory = categoryRepository.save(newCategory);
+        templateCache.invalidate();
         log.info("New category created: id={}, name={}", savedCategory.getCategoryId(), savedCategory.getCategoryName());
         return CategoryResDto.from(savedCategory);
     }
@@ -70,6 +69,8 @@ public class TemplateCategoryService {
         }
 
 
+        // 카테고리 이름은 캐시된 템플릿에도 들어 있으므로 전체를 무효화합니다.
+        templateCache.invalidate();
         log.info("Category updated: id={}, name={}", category.getCategoryId(), category.getCategoryName());
         return CategoryResDto.from(category);
     }
@@ -77,6 +78,7 @@ public class TemplateCategoryService {
     @Transactional
     public void deleteCategory(Long categoryId) {
         categoryRepository.deleteById(categoryId);
+        templateCache.invalidate();
         log.info("Category deleted: id={}", categoryId);
     }
 
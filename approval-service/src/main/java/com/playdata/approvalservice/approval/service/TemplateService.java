@@ -28,6 +28,7 @@ public class TemplateService {
     private final ReportTemplateRepository templateRepository;
     private final TemplateCategoryRepository categoryRepository;
     private final ObjectMapper objectMapper;
+    private final TemplateCache templateCache;
 
     /**
      * 템플릿 생성
@@ -53,6 +54,7 @@ public class TemplateService {
 
             // 3. 엔티티 저장
             ReportTemplate savedTemplate = templateRepository.save(newTemplate);
+            templateCache.invalidate();
 
             // 4. 응답 DTO로 변환하여 반환
             return TemplateResDto.from(savedTemplate, objectMapper);
@@ -70,13 +72,10 @@ public class TemplateService {
      * @return
      */
     public TemplateResDto getTemplate(Long templateId) {
-        ReportTemplate template = findTemplateById(templateId);
-        try {
-            return TemplateResDto.from(template, objectMapper);
-        } catch (JsonProcessingException e) {
-            log.error("템플릿 JSON 파싱 실패 (조회): templateId={}", templateId, e);
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "저장된 템플릿 데이터 파싱에 실패했습니다.", e);
-        }
+        return templateCache.findTemplate(templateId)
+                .map(TemplateCache.CachedTemplate::toResDto)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND, "템플릿을 찾을 수 없습니다. id=" + templateId));
     }
 
     @Transactional
@@ -99,6 +98,7 @@ public class TemplateService {
             }
             String updatedJson = objectMapper.writeValueAsString(req.getTemplate());
             template.setTemplate(updatedJson);
+            templateCache.invalidate();
 
             return TemplateResDto.from(template, objectMapper);
 
@@ -112,6 +112,7 @@ public class TemplateService {
     public void deleteTemplate(Long templateId) {
         ReportTemplate template = findTemplateById(templateId);
         templateRepository.delete(template);
+        templateCache.invalidate();
     }
 
     /**
@@ -127,29 +128,22 @@ public class TemplateService {
      * 특정 카테고리에 속한 모든 템플릿 조회
      */
     public List<TemplateResDto> getTemplates(Long categoryId) {
-        // 1. Repository에 정의한 메소드를 사용하여 특정 카테고리의 템플릿만 조회
-        List<ReportTemplate> templates;
+        // 파싱된 템플릿 캐시에서 조회 (DB/JSON 파싱은 캐시가 무효화된 뒤 처음 한 번만 수행)
+        List<TemplateCache.CachedTemplate> templates;
 
         if (categoryId != null) {
             // categoryId가 제공되면, 해당 카테고리의 템플릿만 조회
             log.info("카테고리 ID로 템플릿 필터링: {}", categoryId);
-            templates = templateRepository.findByCategoryId_categoryId(categoryId);
+            templates = templateCache.getTemplatesByCategory(categoryId);
         } else {
             // categoryId가 null이면, 모든 템플릿 조회
             log.info("모든 템플릿 조회");
-            templates = templateRepository.findAll();
+            templates = templateCache.getTemplates();
         }
 
-        // 조회된 템플릿 리스트를 DTO 리스트로 변환
-        return templates.stream().map(template -> {
-            try {
-                // objectMapper는 이미 주입받았으므로 new로 생성할 필요 없습니다.
-                return TemplateResDto.from(template, this.objectMapper);
-            } catch (JsonProcessingException e) {
-                log.error("DB의 템플릿 JSON 파싱 실패: templateId={}", template.getTemplateId(), e);
-                throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "저장된 템플릿 데이터 파싱 오류");
-            }
-        }).collect(Collectors.toList());
+        return templates.stream()
+                .map(TemplateCache.CachedTemplate::toResDto)
+                .collect(Collectors.toList());
     }
 
 
@@ -159,16 +153,8 @@ public class TemplateService {
      * @return
      */
     public List<TemplateResDto> getAllTemplates() {
-        List<ReportTemplate> templates = templateRepository.findAll();
-        return templates.stream().map(
-                reportTemplate -> {
-                    try {
-                        return TemplateResDto.from(reportTemplate, new ObjectMapper());
-                    } catch (JsonProcessingException e) {
-                        throw new RuntimeException(e);
-                    }
-                }
-        ).toList();
-
+        return templateCache.getTemplates().stream()
+                .map(TemplateCache.CachedTemplate::toResDto)
+                .toList();
     }
 }
\ No newline at end of file
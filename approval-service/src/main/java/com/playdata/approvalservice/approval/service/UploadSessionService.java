@@ -0,0 +1,238 @@
+package com.playdata.approvalservice.approval.service;
+
+import com.playdata.approvalservice.approval.dto.request.AttachmentJsonReqDto;
+import com.playdata.approvalservice.approval.dto.request.UploadSessionReqDto;
+import com.playdata.approvalservice.approval.dto.response.UploadSessionResDto;
+import com.playdata.approvalservice.common.auth.TokenUserInfo;
+import com.playdata.approvalservice.common.config.AwsS3Config;
+import com.playdata.approvalservice.common.lock.RedisLease;
+import lombok.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * 첨부파일 직접 업로드(Pre-signed PUT) 세션 관리
+ *
+ * 1) 클라이언트가 업로드할 파일 목록으로 세션을 만들면, 파일마다 객체 키와 PUT URL을 발급합니다.
+ * 2) 클라이언트는 S3에 직접 업로드한 뒤, 보고서 저장 요청에 세션 ID와 객체 키만 담아 보냅니다.
+ * 3) 저장 시 세션 소유자/발급 키 여부와 실제 객체 존재 여부를 확인한 뒤 detail 에 기록합니다.
+ *
+ * 세션은 Redis 에 TTL 과 함께 저장되며, 저장에 사용된 키는 세션에서 제거됩니다.
+ *
+ * - 파일 크기는 세션 생성 시 선언받아 최대 크기를 검사하고 PUT URL 에 서명하며, 저장 시 HEAD 크기와 다시 비교합니다.
+ * - 객체 키에는 클라이언트 파일명을 넣지 않습니다. (원본 파일명은 세션에만 보관)
+ * - 발급한 키는 만료 시각과 함께 Redis ZSET 에 기록하고, 저장 요청이 검증을 통과하면 바로 제거합니다.
+ *   세션 만료 후에도 남아 있는 키(업로드만 하고 저장하지 않은 객체)는 정리 작업이 S3 에서 삭제합니다.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class UploadSessionService {
+
+    private static final String KEY_PREFIX = "approval:upload-session:";
+    private static final String OBJECT_KEY_PREFIX = "approval/uploads/";
+    // 아직 보고서에 쓰이지 않은 객체 키 (score = 세션 만료 시각 epoch ms)
+    private static final String PENDING_KEYS = "approval:upload-session:pending";
+    private static final String SWEEP_LEASE = "upload-session-sweep";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final S3Service s3Service;
+    private final AwsS3Config awsS3Config;
+    private final EmployeeIdentityService employeeIdentityService;
+    private final RedisLease redisLease;
+
+    @Value("${approval.upload-session.ttl-minutes:30}")
+    private long ttlMinutes;
+
+    @Value("${approval.upload-session.put-url-minutes:10}")
+    private long putUrlMinutes;
+
+    @Value("${approval.upload-session.max-files:20}")
+    private int maxFiles;
+
+    // 파일 하나의 최대 크기
+    @Value("${approval.upload-session.max-file-mb:30}")
+    private long maxFileMb;
+
+    // 정리 작업 한 번에 삭제할 최대 객체 수
+    @Value("${approval.upload-session.sweep-batch-size:500}")
+    private int sweepBatchSize;
+
+    /**
+     * 업로드 세션을 만들고 파일별 PUT URL을 발급합니다.
+     */
+    public UploadSessionResDto createSession(UploadSessionReqDto req, TokenUserInfo userInfo) {
+        Long ownerId = employeeIdentityService.resolveEmployeeId(userInfo);
+        if (req.getFiles().size() > maxFiles) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "한 번에 업로드할 수 있는 파일은 최대 " + maxFiles + "개입니다.");
+        }
+        long maxBytes = maxFileMb * 1024 * 1024;
+        for (UploadSessionReqDto.FileReqDto file : req.getFiles()) {
+            if (file.getSize() > maxBytes) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "파일 크기는 최대 " + maxFileMb + "MB 입니다: " + file.getFileName());
+            }
+        }
+
+        String sessionId = UUID.randomUUID().toString();
+        Map<String, String> files = new LinkedHashMap<>();
+        Map<String, Long> sizes = new LinkedHashMap<>();
+        List<UploadSessionResDto.UploadResDto> uploads = new ArrayList<>();
+
+        for (UploadSessionReqDto.FileReqDto file : req.getFiles()) {
+            String objectKey = OBJECT_KEY_PREFIX + sessionId + "/" + UUID.randomUUID();
+            String uploadUrl = s3Service.generatePresignedPutUrl(
+                    objectKey, file.getContentType(), file.getSize(), Duration.ofMinutes(putUrlMinutes));
+            files.put(objectKey, file.getFileName());
+            sizes.put(objectKey, file.getSize());
+            uploads.add(UploadSessionResDto.UploadResDto.builder()
+                    .fileName(file.getFileName())
+                    .objectKey(objectKey)
+                    .uploadUrl(uploadUrl)
+                    .build());
+        }
+
+        redisTemplate.opsForValue().set(KEY_PREFIX + sessionId,
+                new UploadSession(ownerId, files, sizes), Duration.ofMinutes(ttlMinutes));
+        long expiresAtMillis = System.currentTimeMillis() + Duration.ofMinutes(ttlMinutes).toMillis();
+        files.keySet().forEach(key -> stringRedisTemplate.opsForZSet().add(PENDING_KEYS, key, expiresAtMillis));
+
+        return UploadSessionResDto.builder()
+                .sessionId(sessionId)
+                .expiresAt(LocalDateTime.now().plusMinutes(ttlMinutes))
+                .uploads(uploads)
+                .build();
+    }
+
+    /**
+     * 보고서 저장 요청의 객체 키들을 검증하고 detail 에 기록할 첨부파일 정보로 변환합니다.
+     * - 세션이 존재하고 요청자가 세션 소유자여야 합니다.
+     * - 모든 키가 이 세션에서 발급된 키여야 합니다.
+     * - 모든 객체가 실제로 버킷에 업로드되어 있어야 하고, 크기가 선언한 크기와 같아야 합니다.
+     * 검증을 통과한 키는 정리 대상에서 제외합니다. (저장이 실패하면 객체가 남을 뿐 삭제되지는 않습니다)
+     *
+     * @return 첨부파일 목록 (세션/키가 없으면 빈 목록)
+     */
+    public List<AttachmentJsonReqDto> resolveAttachments(String sessionId, List<String> objectKeys, Long ownerId) {
+        if (objectKeys == null || objectKeys.isEmpty()) {
+            return new ArrayList<>();
+        }
+        UploadSession session = findSession(sessionId);
+        if (!Objects.equals(session.getOwnerId(), ownerId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "업로드 세션에 대한 권한이 없습니다.");
+        }
+
+        List<AttachmentJsonReqDto> attachments = new ArrayList<>();
+        for (String objectKey : new LinkedHashSet<>(objectKeys)) {
+            String fileName = session.getFiles().get(objectKey);
+            if (fileName == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "업로드 세션에서 발급되지 않은 파일입니다: " + objectKey);
+            }
+            Optional<Long> size = awsS3Config.findObjectSize(objectKey);
+            if (size.isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "업로드가 완료되지 않은 파일입니다: " + fileName);
+            }
+            if (!size.get().equals(session.getSizes().get(objectKey))) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "업로드된 파일 크기가 선언한 크기와 다릅니다: " + fileName);
+            }
+            attachments.add(new AttachmentJsonReqDto(fileName, awsS3Config.getS3Url(objectKey)));
+        }
+        // 세션이 살아 있는 동안 제거하므로, 만료 후에만 도는 정리 작업과 겹치지 않습니다.
+        stringRedisTemplate.opsForZSet().remove(PENDING_KEYS, new LinkedHashSet<>(objectKeys).toArray());
+        return attachments;
+    }
+
+    /**
+     * 보고서 저장에 사용된 키를 세션에서 제거합니다. 남은 키가 없으면 세션을 삭제합니다.
+     */
+    public void consume(String sessionId, List<String> objectKeys) {
+        if (sessionId == null || objectKeys == null || objectKeys.isEmpty()) {
+            return;
+        }
+        // 보고서는 이미 커밋된 뒤이므로, 정리 실패는 저장 결과에 영향을 주지 않도록 로그만 남깁니다. (세션은 TTL로 만료)
+        try {
+            String redisKey = KEY_PREFIX + sessionId;
+            Object value = redisTemplate.opsForValue().get(redisKey);
+            if (!(value instanceof UploadSession session)) {
+                return;
+            }
+            objectKeys.forEach(session.getFiles()::remove);
+            if (session.getFiles().isEmpty()) {
+                redisTemplate.delete(redisKey);
+            } else {
+                Long ttl = redisTemplate.getExpire(redisKey);
+                redisTemplate.opsForValue().set(redisKey, session,
+                        Duration.ofSeconds(ttl != null && ttl > 0 ? ttl : 1));
+            }
+        } catch (Exception e) {
+            log.warn("업로드 세션 정리 실패: sessionId={}", sessionId, e);
+        }
+    }
+
+    /**
+     * 만료된 세션에서 발급됐지만 보고서에 쓰이지 않은 객체를 삭제합니다. (기본값: 매시 15분)
+     * PUT URL 은 세션보다 먼저 만료되므로, 세션 만료 후에는 새로 업로드되거나 저장에 쓰일 수 없습니다.
+     */
+    @Scheduled(cron = "${approval.upload-session.sweep-cron:0 15 * * * *}")
+    public void sweepExpiredUploads() {
+        Optional<String> lease = redisLease.tryAcquire(SWEEP_LEASE, Duration.ofMinutes(30));
+        if (lease.isEmpty()) {
+            return;
+        }
+        try {
+            Set<String> expired = stringRedisTemplate.opsForZSet()
+                    .rangeByScore(PENDING_KEYS, 0, System.currentTimeMillis(), 0, sweepBatchSize);
+            if (expired == null || expired.isEmpty()) {
+                return;
+            }
+            int deleted = 0;
+            for (String objectKey : expired) {
+                try {
+                    awsS3Config.deleteFromS3Bucket(awsS3Config.getS3Url(objectKey));
+                    stringRedisTemplate.opsForZSet().remove(PENDING_KEYS, objectKey);
+                    deleted++;
+                } catch (Exception e) {
+                    log.warn("[업로드 정리] 객체 삭제 실패: {}", objectKey, e);
+                }
+            }
+            log.info("[업로드 정리] 저장되지 않은 업로드 객체 {}건 삭제", deleted);
+        } finally {
+            redisLease.release(SWEEP_LEASE, lease.get());
+        }
+    }
+
+    private UploadSession findSession(String sessionId) {
+        if (sessionId == null || sessionId.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "업로드 세션 ID가 필요합니다.");
+        }
+        Object value = redisTemplate.opsForValue().get(KEY_PREFIX + sessionId);
+        if (!(value instanceof UploadSession session)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "업로드 세션이 없거나 만료되었습니다.");
+        }
+        return session;
+    }
+
+    /**
+     * Redis 에 저장되는 업로드 세션 (소유자, 객체 키 → 원본 파일명, 객체 키 → 선언한 크기)
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class UploadSession {
+        private Long ownerId;
+        private Map<String, String> files = new LinkedHashMap<>();
+        private Map<String, Long> sizes = new LinkedHashMap<>();
+    }
+}
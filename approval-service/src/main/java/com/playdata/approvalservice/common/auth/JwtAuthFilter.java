@@ -24,7 +24,8 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         // 게이트웨이가 토큰 내에 클레임을 헤더에 담아서 보내준다.
         String userEmail = request.getHeader("X-User-Email");
         String userRole = request.getHeader("X-User-Role");
-        log.info("userEmail:{} userRole:{}", userEmail, userRole);
+        Long employeeId = parseEmployeeId(request.getHeader("X-User-Id"));
+        log.info("userEmail:{} userRole:{} employeeId:{}", userEmail, userRole, employeeId);
 
         if (userEmail != null && userRole != null) {
 
@@ -39,7 +40,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             // 인증 완료 처리
             // 위에서 준비한 여러가지 사용자 정보, 인가정보 리스트를 하나의 객체로 포장
             Authentication auth = new UsernamePasswordAuthenticationToken(
-                    new TokenUserInfo(userEmail, Role.valueOf(userRole)), // 컨트롤러 등에서 활용할 유저 정보
+                    new TokenUserInfo(userEmail, Role.valueOf(userRole), employeeId), // 컨트롤러 등에서 활용할 유저 정보
                     "", // 인증된 사용자의 비밀번호: 보통 null 혹은 빈 문자열로 선언.
                     authorityList // 인가 정보 (권한)
             );
@@ -54,4 +55,20 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         // 일단 토큰이 있든 없든 필터를 통과해서 시큐리티한테 검사는 받아야 하니깐...
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * X-User-Id 헤더 값을 직원 ID로 변환합니다.
+     * 헤더가 없거나 숫자가 아니면 null을 반환하고, 이메일 기반 조회로 대체됩니다.
+     */
+    private Long parseEmployeeId(String header) {
+        if (header == null || header.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(header.trim());
+        } catch (NumberFormatException e) {
+            log.warn("잘못된 X-User-Id 헤더 값: {}", header);
+            return null;
+        }
+    }
 }
@@ -12,4 +12,7 @@ public class TokenUserInfo {
     private String email;
     private Role role;
 
+    // 게이트웨이가 X-User-Id 헤더로 전달한 직원 ID (구버전 토큰이면 null)
+    private Long employeeId;
+
 }
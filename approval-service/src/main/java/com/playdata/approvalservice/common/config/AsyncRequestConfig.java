@@ -0,0 +1,25 @@
+package com.playdata.approvalservice.common.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * MVC 비동기 요청 타임아웃 설정
+ *
+ * 지정하지 않으면 컨테이너 기본값(Tomcat 30초)이 적용되어, StreamingResponseBody 로 내보내는
+ * 대용량 CSV(보고서 내보내기)가 중간에 끊깁니다.
+ * SSE(SseEmitter)는 생성 시 자체 타임아웃을 지정하므로 이 값의 영향을 받지 않습니다.
+ */
+@Configuration
+public class AsyncRequestConfig implements WebMvcConfigurer {
+
+    @Value("${approval.export.request-timeout-ms:1800000}")
+    private long requestTimeoutMs;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(requestTimeoutMs);
+    }
+}
@@ -6,14 +6,22 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
 
+import java.io.InputStream;
 import java.net.URL;
 import java.net.URLDecoder;
+import java.util.Optional;
 
 @Component
 @Slf4j
@@ -72,6 +80,101 @@ public class AwsS3Config {
 
     }
 
+    /**
+     * 스트림을 그대로 버킷에 업로드합니다. (파일 전체를 메모리에 올리지 않음)
+     *
+     * @param inputStream   업로드 할 파일의 입력 스트림
+     * @param contentLength 파일 크기 (byte)
+     * @param fileName      업로드 할 파일명
+     * @param contentType   파일의 Content-Type (없으면 null)
+     * @return - 버킷에 업로드 된 버킷 경로(url)
+     */
+    public String uploadToS3Bucket(InputStream inputStream, long contentLength, String fileName, String contentType) {
+        PutObjectRequest request = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(fileName)
+                .contentType(contentType)
+                .contentLength(contentLength)
+                .build();
+
+        s3Client.putObject(request, RequestBody.fromInputStream(inputStream, contentLength));
+
+        return s3Client.utilities()
+                .getUrl(b -> b.bucket(bucketName).key(fileName))
+                .toString();
+    }
+
+    /**
+     * 스트림을 버킷에 업로드하면서 S3 가 SHA-256 체크섬으로 내용을 검증하게 합니다. (내용 주소 기반 저장용)
+     *
+     * @param checksumSha256 내용의 SHA-256 (Base64), 전송된 내용과 다르면 S3 가 업로드를 거부합니다.
+     * @return - 버킷에 업로드 된 버킷 경로(url)
+     */
+    public String uploadToS3Bucket(InputStream inputStream, long contentLength, String fileName, String contentType,
+                                   String checksumSha256) {
+        PutObjectRequest request = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(fileName)
+                .contentType(contentType)
+                .contentLength(contentLength)
+                .checksumSHA256(checksumSha256)
+                .build();
+
+        s3Client.putObject(request, RequestBody.fromInputStream(inputStream, contentLength));
+
+        return getS3Url(fileName);
+    }
+
+    /**
+     * 버킷의 객체를 스트림으로 읽습니다. (호출 측에서 반드시 닫아야 합니다)
+     */
+    public ResponseInputStream<GetObjectResponse> getObjectFromS3Bucket(String key) {
+        return s3Client.getObject(GetObjectRequest.builder().bucket(bucketName).key(key).build());
+    }
+
+    /**
+     * 버킷에 해당 키의 객체가 존재하는지 확인합니다. (HEAD 요청)
+     */
+    public boolean existsInS3Bucket(String key) {
+        try {
+            s3Client.headObject(HeadObjectRequest.builder().bucket(bucketName).key(key).build());
+            return true;
+        } catch (NoSuchKeyException e) {
+            return false;
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 버킷에 있는 객체의 크기 (HEAD 요청, 없으면 빈 값)
+     */
+    public Optional<Long> findObjectSize(String key) {
+        try {
+            return Optional.of(s3Client.headObject(HeadObjectRequest.builder().bucket(bucketName).key(key).build())
+                    .contentLength());
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return Optional.empty();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 객체 키에 해당하는 버킷 url을 반환합니다. (uploadToS3Bucket 이 돌려주는 형식과 동일)
+     */
+    public String getS3Url(String key) {
+        return s3Client.utilities()
+                .getUrl(b -> b.bucket(bucketName).key(key))
+                .toString();
+    }
+
     // 버킷에 업로드 된 이미지를 삭제하는 로직
     // 버킷에 오브젝트를 지우기 위해서는 키값을 줘야 하는데
     // 우리가 가지고 있는 건 키가 아니라 url입니다.
@@ -0,0 +1,84 @@
+package com.playdata.approvalservice.common.config;
+
+import com.playdata.approvalservice.common.datasource.DataSourceRouter;
+import com.playdata.approvalservice.common.datasource.ReplicaDataSourceProperties;
+import com.playdata.approvalservice.common.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 읽기 전용 트랜잭션을 복제본으로 보내는 라우팅 DataSource 설정
+ * approval.datasource.replica.enabled=true 일 때만 적용되며, 꺼져 있으면 Spring Boot 기본 DataSource 를 그대로 사용합니다.
+ *
+ * 풀은 빈으로 등록하지 않고 DataSourceRouter 가 보유합니다. (p6spy 등 DataSource 데코레이터가 중복 적용되지 않도록)
+ */
+@Configuration
+@ConditionalOnProperty(name = "approval.datasource.replica.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaDataSourceProperties.class)
+public class DataSourceRoutingConfig {
+
+    @Bean
+    public DataSourceRouter dataSourceRouter(DataSourceProperties dataSourceProperties,
+                                             ReplicaDataSourceProperties replicaProperties,
+                                             Environment environment,
+                                             MeterRegistry meterRegistry) {
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+
+        // 주 DB: 기존 spring.datasource.* 와 spring.datasource.hikari.* 설정을 그대로 적용
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("approval-primary");
+        primary.setMetricsTrackerFactory(metrics);
+
+        Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+        List<ReplicaDataSourceProperties.Node> nodes = replicaProperties.getNodes();
+        for (int i = 0; i < nodes.size(); i++) {
+            ReplicaDataSourceProperties.Node node = nodes.get(i);
+            String key = "replica-" + (i + 1);
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("approval-" + key);
+            replica.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            replica.setJdbcUrl(node.getUrl());
+            replica.setUsername(node.getUsername());
+            replica.setPassword(node.getPassword());
+            replica.setMaximumPoolSize(node.getMaximumPoolSize());
+            replica.setMinimumIdle(node.getMinimumIdle());
+            replica.setConnectionTimeout(node.getConnectionTimeoutMs());
+            replica.setReadOnly(true);
+            // 복제본이 내려가 있어도 기동은 계속하고 헬스 체크가 복구를 감지합니다.
+            replica.setInitializationFailTimeout(-1);
+            replica.setMetricsTrackerFactory(metrics);
+            replicas.put(key, replica);
+        }
+
+        DataSourceRouter router = new DataSourceRouter(primary, replicas,
+                replicaProperties.getMaxLagSeconds(), replicaProperties.getValidationTimeoutSeconds(), meterRegistry);
+        // 첫 스케줄 전까지 모든 읽기가 주 DB 로 가지 않도록 기동 시 한 번 확인
+        router.checkReplicas();
+        return router;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceRouter dataSourceRouter) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(dataSourceRouter));
+    }
+}
@@ -29,6 +29,16 @@ public class EmailConfig {
     @Value("${spring.mail.properties.mail.smtp.starttls.enable}")
     private boolean starttlsEnable;
 
+    // SMTP 서버가 응답하지 않을 때 알림 발송 스레드가 무한히 묶이지 않도록 하는 제한 시간 (ms)
+    @Value("${spring.mail.properties.mail.smtp.connectiontimeout:5000}")
+    private int connectionTimeout;
+
+    @Value("${spring.mail.properties.mail.smtp.timeout:10000}")
+    private int timeout;
+
+    @Value("${spring.mail.properties.mail.smtp.writetimeout:10000}")
+    private int writeTimeout;
+
     @Bean
     public JavaMailSender javaMailSender() {
         JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
@@ -41,6 +51,9 @@ public class EmailConfig {
         Properties properties = new Properties();
         properties.put("mail.smtp.auth", auth);
         properties.put("mail.smtp.starttls.enable", starttlsEnable);
+        properties.put("mail.smtp.connectiontimeout", connectionTimeout);
+        properties.put("mail.smtp.timeout", timeout);
+        properties.put("mail.smtp.writetimeout", writeTimeout);
 
         mailSender.setJavaMailProperties(properties);
 
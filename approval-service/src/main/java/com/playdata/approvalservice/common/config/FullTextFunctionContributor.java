@@ -0,0 +1,26 @@
+package com.playdata.approvalservice.common.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * MySQL FULLTEXT 검색식을 JPQL/Criteria 에서 쓸 수 있도록 함수로 등록합니다.
+ * (META-INF/services 로 Hibernate 가 자동 로딩)
+ *
+ * match_against(제목, 본문, 검색식) → MATCH(제목, 본문) AGAINST (검색식 IN BOOLEAN MODE)
+ * 일치하지 않으면 0, 일치하면 관련도 점수(양수)를 반환합니다.
+ */
+public class FullTextFunctionContributor implements FunctionContributor {
+
+    public static final String MATCH_AGAINST = "match_against";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        functionContributions.getFunctionRegistry().registerPattern(
+                MATCH_AGAINST,
+                "match(?1, ?2) against (?3 in boolean mode)",
+                functionContributions.getTypeConfiguration().getBasicTypeRegistry()
+                        .resolve(StandardBasicTypes.DOUBLE));
+    }
+}
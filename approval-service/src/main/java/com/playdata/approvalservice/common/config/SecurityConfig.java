@@ -1,6 +1,7 @@
 package com.playdata.approvalservice.common.config;
 
 import com.playdata.approvalservice.common.auth.JwtAuthFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -32,6 +33,8 @@ public class SecurityConfig {
         // 요청 권한 설정 (어떤 url이냐에 따라 검사를 할 지 말지를 결정)
         http.authorizeHttpRequests(auth -> {
             auth
+                    // SSE / 스트리밍 응답의 비동기 디스패치는 최초 요청에서 이미 인증됨
+                    .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
 //                    .requestMatchers("/user/list").hasRole("ROLE_ADMIN")
                     .requestMatchers("/user-service/add-black", "user-service/user-list", "user-service/change-status").hasRole("ADMIN")
                     .requestMatchers("/user-service/users/signup",
@@ -0,0 +1,196 @@
+package com.playdata.approvalservice.common.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 주 DB / 복제본 커넥션 풀을 보유하고 읽기 전용 요청을 보낼 곳을 고릅니다.
+ *
+ * - 주기적으로 각 복제본의 연결과 복제 지연(SHOW REPLICA STATUS)을 확인해,
+ *   연결할 수 없거나 복제가 멈췄거나 지연이 max-lag-seconds 를 넘은 복제본은 라우팅에서 뺍니다.
+ * - 정상 복제본은 라운드 로빈으로 고르고, 하나도 없으면 주 DB 로 보냅니다. (fallback)
+ * - 풀별 지표는 Hikari 의 hikaricp.connections.*{pool=...} 로, 라우팅 결과는 approval.datasource.route{route=...} 로 남깁니다.
+ */
+@Slf4j
+public class DataSourceRouter implements DisposableBean {
+
+    public static final String PRIMARY = "primary";
+
+    private final HikariDataSource primary;
+    private final Map<String, Replica> replicas;
+    private final long maxLagSeconds;
+    private final int validationTimeoutSeconds;
+
+    // 라우팅 대상 복제본 (헬스 체크마다 교체)
+    private volatile List<String> healthyKeys = List.of();
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    private final Counter primaryRoutes;
+    private final Counter replicaRoutes;
+    private final Counter fallbackRoutes;
+
+    public DataSourceRouter(HikariDataSource primary,
+                            Map<String, HikariDataSource> replicas,
+                            long maxLagSeconds,
+                            int validationTimeoutSeconds,
+                            MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.maxLagSeconds = maxLagSeconds;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+
+        Map<String, Replica> nodes = new LinkedHashMap<>();
+        replicas.forEach((key, ds) -> {
+            Replica replica = new Replica(key, ds);
+            nodes.put(key, replica);
+            Gauge.builder("approval.datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .description("복제본 라우팅 가능 여부 (1=정상)")
+                    .tag("replica", key)
+                    .register(meterRegistry);
+            Gauge.builder("approval.datasource.replica.lag", replica, r -> r.lagSeconds)
+                    .description("마지막 헬스 체크의 복제 지연 (초, 확인 실패 시 -1)")
+                    .baseUnit("seconds")
+                    .tag("replica", key)
+                    .register(meterRegistry);
+        });
+        this.replicas = Collections.unmodifiableMap(nodes);
+
+        this.primaryRoutes = routeCounter(meterRegistry, "primary");
+        this.replicaRoutes = routeCounter(meterRegistry, "replica");
+        this.fallbackRoutes = routeCounter(meterRegistry, "fallback");
+    }
+
+    private static Counter routeCounter(MeterRegistry meterRegistry, String route) {
+        return Counter.builder("approval.datasource.route")
+                .description("커넥션 획득 시 라우팅 결과 (fallback=읽기 전용이지만 정상 복제본이 없어 주 DB 사용)")
+                .tag("route", route)
+                .register(meterRegistry);
+    }
+
+    /**
+     * AbstractRoutingDataSource 에 등록할 대상 (주 DB + 복제본)
+     */
+    public Map<Object, Object> targetDataSources() {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach((key, replica) -> targets.put(key, replica.dataSource));
+        return targets;
+    }
+
+    public DataSource primary() {
+        return primary;
+    }
+
+    /**
+     * 커넥션을 가져올 대상 키를 고릅니다.
+     *
+     * @param readOnly 현재 트랜잭션이 읽기 전용인지
+     */
+    public String route(boolean readOnly) {
+        if (!readOnly) {
+            primaryRoutes.increment();
+            return PRIMARY;
+        }
+        List<String> keys = healthyKeys;
+        if (keys.isEmpty()) {
+            fallbackRoutes.increment();
+            return PRIMARY;
+        }
+        replicaRoutes.increment();
+        return keys.get(Math.floorMod(cursor.getAndIncrement(), keys.size()));
+    }
+
+    /**
+     * 복제본 헬스 체크: 연결 검증 + 복제 지연 확인
+     */
+    @Scheduled(fixedDelayString = "${approval.datasource.replica.health-check-interval-ms:5000}")
+    public void checkReplicas() {
+        List<String> healthy = new ArrayList<>();
+        for (Replica replica : replicas.values()) {
+            boolean wasHealthy = replica.healthy;
+            replica.check();
+            if (replica.healthy) {
+                healthy.add(replica.key);
+            }
+            if (wasHealthy != replica.healthy) {
+                if (replica.healthy) {
+                    log.info("[DB 라우팅] 복제본 {} 라우팅 재개 (lag={}s)", replica.key, replica.lagSeconds);
+                } else {
+                    log.warn("[DB 라우팅] 복제본 {} 라우팅 제외 (lag={}s)", replica.key, replica.lagSeconds);
+                }
+            }
+        }
+        healthyKeys = List.copyOf(healthy);
+    }
+
+    @Override
+    public void destroy() {
+        replicas.values().forEach(r -> r.dataSource.close());
+        primary.close();
+    }
+
+    private final class Replica {
+        private final String key;
+        private final HikariDataSource dataSource;
+        private volatile boolean healthy;
+        private volatile long lagSeconds = -1;
+
+        private Replica(String key, HikariDataSource dataSource) {
+            this.key = key;
+            this.dataSource = dataSource;
+        }
+
+        private void check() {
+            try (Connection connection = dataSource.getConnection()) {
+                if (!connection.isValid(validationTimeoutSeconds)) {
+                    markDown();
+                    return;
+                }
+                Long lag = replicationLag(connection);
+                if (lag == null) {
+                    // 복제 스레드가 멈춘 상태
+                    markDown();
+                    return;
+                }
+                lagSeconds = lag;
+                healthy = lag <= maxLagSeconds;
+            } catch (SQLException e) {
+                log.debug("[DB 라우팅] 복제본 {} 헬스 체크 실패", key, e);
+                markDown();
+            }
+        }
+
+        private void markDown() {
+            lagSeconds = -1;
+            healthy = false;
+        }
+
+        /**
+         * @return 복제 지연(초), 복제가 멈췄으면 null, 복제 설정이 없는 서버(프록시/단일 DB)면 0
+         */
+        private Long replicationLag(Connection connection) throws SQLException {
+            try (Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(validationTimeoutSeconds);
+                try (ResultSet rs = statement.executeQuery("SHOW REPLICA STATUS")) {
+                    if (!rs.next()) {
+                        return 0L;
+                    }
+                    long lag = rs.getLong("Seconds_Behind_Source");
+                    return rs.wasNull() ? null : lag;
+                }
+            }
+        }
+    }
+}
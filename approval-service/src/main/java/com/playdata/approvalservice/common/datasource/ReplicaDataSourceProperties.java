@@ -0,0 +1,52 @@
+package com.playdata.approvalservice.common.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 읽기 전용 복제본(replica) 설정 (approval.datasource.replica.*)
+ *
+ * <pre>
+ * approval:
+ *   datasource:
+ *     replica:
+ *       enabled: true
+ *       max-lag-seconds: 5
+ *       nodes:
+ *         - url: jdbc:mysql://replica-1:3306/approval
+ *           username: reader
+ *           password: ...
+ * </pre>
+ * 주 DB 는 기존 spring.datasource.* / spring.datasource.hikari.* 설정을 그대로 사용합니다.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "approval.datasource.replica")
+public class ReplicaDataSourceProperties {
+
+    private boolean enabled;
+
+    // 이 값보다 복제 지연이 크면 해당 복제본을 라우팅에서 제외합니다.
+    private long maxLagSeconds = 5;
+
+    // 헬스 체크 시 연결 검증 제한 시간
+    private int validationTimeoutSeconds = 2;
+
+    private List<Node> nodes = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Node {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+        private int minimumIdle = 2;
+        // 복제본 장애 시 요청이 오래 묶이지 않도록 주 DB 보다 짧게 둡니다.
+        private long connectionTimeoutMs = 3000;
+    }
+}
@@ -0,0 +1,29 @@
+package com.playdata.approvalservice.common.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 현재 트랜잭션이 readOnly 면 복제본으로, 그 외(쓰기 트랜잭션, 트랜잭션 없음)는 주 DB 로 커넥션을 가져옵니다.
+ *
+ * 트랜잭션 시작 시점에는 아직 readOnly 플래그가 바인딩되지 않으므로
+ * 반드시 LazyConnectionDataSourceProxy 로 감싸 첫 쿼리 시점에 대상을 결정해야 합니다.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final DataSourceRouter router;
+
+    public ReplicaRoutingDataSource(DataSourceRouter router) {
+        this.router = router;
+        setTargetDataSources(router.targetDataSources());
+        setDefaultTargetDataSource(router.primary());
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean readOnly = TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        return router.route(readOnly);
+    }
+}
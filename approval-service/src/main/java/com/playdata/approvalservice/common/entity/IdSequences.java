@@ -0,0 +1,26 @@
+package com.playdata.approvalservice.common.entity;
+
+/**
+ * 테이블 기반 pooled 시퀀스(id_sequences) 설정값
+ *
+ * IDENTITY 는 INSERT 를 실행해야 ID 를 알 수 있어 Hibernate 가 INSERT 를 배치로 묶지 못합니다.
+ * 보고서/결재 라인/참조자는 id_sequences 테이블에서 ALLOCATION_SIZE 개씩 ID 구간을 미리 받아 쓰므로,
+ * 한 번의 flush 에서 같은 테이블 INSERT 들이 JDBC 배치로 전송됩니다.
+ * 각 시퀀스 행은 기동 시 IdSequenceInitializer 가 기존 테이블의 MAX(id) 이후로 맞춥니다.
+ */
+public final class IdSequences {
+
+    public static final String TABLE = "id_sequences";
+    public static final String PK_COLUMN = "sequence_name";
+    public static final String VALUE_COLUMN = "next_val";
+
+    // 한 번에 예약하는 ID 개수 (hibernate.jdbc.batch_size 와 맞춤)
+    public static final int ALLOCATION_SIZE = 50;
+
+    public static final String REPORTS = "reports";
+    public static final String APPROVAL_LINE = "approval_line";
+    public static final String REPORT_REFERENCES = "report_references";
+
+    private IdSequences() {
+    }
+}
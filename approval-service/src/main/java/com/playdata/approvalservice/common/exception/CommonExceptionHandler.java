@@ -3,6 +3,7 @@ package com.playdata.approvalservice.common.exception;
 import com.playdata.approvalservice.common.dto.CommonErrorDto;
 import com.playdata.approvalservice.common.dto.CommonResDto;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
@@ -44,6 +45,14 @@ public class CommonExceptionHandler {
         return new ResponseEntity<>(errorDto, HttpStatus.FORBIDDEN);
     }
 
+    // 낙관적 락(@Version) 충돌: 다른 요청이 같은 데이터를 먼저 변경한 경우
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<?> optimisticLockHandler(OptimisticLockingFailureException e) {
+        CommonErrorDto errorDto
+                = new CommonErrorDto(HttpStatus.CONFLICT, "다른 요청이 같은 문서를 동시에 변경했습니다. 다시 시도해 주세요.");
+        return new ResponseEntity<>(errorDto, HttpStatus.CONFLICT);
+    }
+
     // 미처 준비하지 못한 타입의 예외가 발생했을 시 처리할 메서드
     @ExceptionHandler(Exception.class)
     public ResponseEntity<?> exceptionHandler(Exception e) {
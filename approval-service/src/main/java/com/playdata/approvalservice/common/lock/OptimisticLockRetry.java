@@ -0,0 +1,55 @@
+package com.playdata.approvalservice.common.lock;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * 낙관적 락(@Version) 충돌 시 제한된 횟수만큼 재시도합니다.
+ * 작업(work)은 매 시도마다 새 트랜잭션에서 실행되어야 하므로, 트랜잭션 프록시(self)를 통해 호출하는 람다를 넘겨야 합니다.
+ * 재시도를 모두 소진하면 409 CONFLICT 를 던집니다.
+ */
+@Component
+@Slf4j
+public class OptimisticLockRetry {
+
+    // 최초 시도를 포함한 최대 시도 횟수
+    @Value("${approval.optimistic-lock.max-attempts:3}")
+    private int maxAttempts;
+
+    // 재시도 전 대기 시간 (시도마다 선형 증가 + 지터)
+    @Value("${approval.optimistic-lock.backoff-ms:30}")
+    private long backoffMillis;
+
+    public <T> T execute(String action, Supplier<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return work.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    log.warn("[낙관적 락] {} 충돌 재시도 소진 ({}회)", action, attempt);
+                    throw new ResponseStatusException(HttpStatus.CONFLICT,
+                            "다른 요청이 같은 문서를 동시에 변경했습니다. 잠시 후 다시 시도해 주세요.", e);
+                }
+                log.info("[낙관적 락] {} 충돌, 재시도 {}/{}", action, attempt, maxAttempts - 1);
+                backoff(attempt);
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        long delay = backoffMillis * attempt + ThreadLocalRandom.current().nextLong(backoffMillis + 1);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "요청 처리 중 중단되었습니다.", ie);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.playdata.approvalservice.common.lock;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Redis 기반 분산 리스(lease)
+ * 여러 인스턴스 중 한 곳에서만 스케줄 작업이 실행되도록 SET NX PX 로 리스를 잡고,
+ * 작업이 끝나면 자신이 잡은 리스만 삭제합니다. (노드가 죽어도 TTL 이 지나면 자동 해제)
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class RedisLease {
+
+    private static final String KEY_PREFIX = "approval:lease:";
+
+    // 내가 잡은 리스일 때만 삭제 (다른 노드가 새로 잡은 리스를 지우지 않도록)
+    private static final DefaultRedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 리스 획득을 시도합니다.
+     *
+     * @param name 리스 이름 (작업 이름)
+     * @param ttl  리스 유지 시간
+     * @return 획득 시 해제에 사용할 토큰, 다른 노드가 보유 중이거나 Redis 오류면 빈 값
+     */
+    public Optional<String> tryAcquire(String name, Duration ttl) {
+        Acquisition acquisition = acquire(name, ttl);
+        return Optional.ofNullable(acquisition.token());
+    }
+
+    /**
+     * 리스 획득을 시도하고, 다른 노드가 보유 중인 경우와 Redis 오류를 구분해 반환합니다.
+     * 중복 실행이 DB 잠금 등으로 이미 안전한 작업은 Redis 오류 시 리스 없이 실행할 수 있습니다.
+     */
+    public Acquisition acquire(String name, Duration ttl) {
+        String token = UUID.randomUUID().toString();
+        try {
+            Boolean acquired = stringRedisTemplate.opsForValue().setIfAbsent(KEY_PREFIX + name, token, ttl);
+            return Boolean.TRUE.equals(acquired)
+                    ? new Acquisition(Outcome.ACQUIRED, token)
+                    : new Acquisition(Outcome.HELD, null);
+        } catch (Exception e) {
+            log.warn("리스 획득 실패 (Redis 오류): {}", name, e);
+            return new Acquisition(Outcome.UNAVAILABLE, null);
+        }
+    }
+
+    /**
+     * 획득한 리스를 해제합니다.
+     */
+    public void release(String name, String token) {
+        try {
+            stringRedisTemplate.execute(RELEASE_SCRIPT, List.of(KEY_PREFIX + name), token);
+        } catch (Exception e) {
+            log.warn("리스 해제 실패 (TTL 만료 후 자동 해제됨): {}", name, e);
+        }
+    }
+
+    public enum Outcome {
+        ACQUIRED,    // 리스 획득
+        HELD,        // 다른 노드가 보유 중
+        UNAVAILABLE  // Redis 오류로 확인 불가
+    }
+
+    /**
+     * 리스 획득 결과
+     *
+     * @param token 획득했을 때만 해제용 토큰, 아니면 null
+     */
+    public record Acquisition(Outcome outcome, String token) {
+
+        public boolean acquired() {
+            return outcome == Outcome.ACQUIRED;
+        }
+    }
+}